@@ -29,6 +29,8 @@ import com.earnix.webk.swing.AWTFSFont;
 import java.awt.Font;
 import java.awt.GraphicsEnvironment;
 import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 
 /**
@@ -38,6 +40,19 @@ public class AWTFontResolver implements FontResolver {
 
     HashMap instance_hash;
     HashMap available_fonts_hash;
+    boolean fontMappings;
+    /**
+     * Incremented by each font mapping, so styles resolved with earlier mappings aren't shared with later ones
+     */
+    int fontMappingCount;
+    /**
+     * Resolved fonts by specification, shared by all styles with equal font properties
+     */
+    private final Map<FontSpecification, FSFont> font_cache = new ConcurrentHashMap<>();
+    /**
+     * Font scale of the text renderer the cached fonts were created with
+     */
+    private volatile float font_cache_scale = Float.NaN;
 
     public AWTFontResolver() {
         init();
@@ -47,6 +62,8 @@ public class AWTFontResolver implements FontResolver {
         GraphicsEnvironment gfx = GraphicsEnvironment.getLocalGraphicsEnvironment();
         String[] available_fonts = gfx.getAvailableFontFamilyNames();
         instance_hash = new HashMap();
+        font_cache.clear();
+        fontMappings = false;
 
         // preload the font map with the font names as keys
         // don't add the actual font objects because that would be a waste of memory
@@ -90,13 +107,38 @@ public class AWTFontResolver implements FontResolver {
     }
 
     /**
-     * Sets the fontMapping attribute of the FontResolver object
+     * Sets the fontMapping attribute of the FontResolver object. Mapping the font a name maps to already, e.g. a web
+     * font mapped again on document reset, keeps resolved fonts and the mapping count.
      *
      * @param name The new fontMapping value
      * @param font The new fontMapping value
      */
     public void setFontMapping(String name, Font font) {
-        available_fonts_hash.put(name, font.deriveFont(1f));
+        Font root_font = font.getSize2D() == 1f ? font : font.deriveFont(1f);
+        if (available_fonts_hash.get(name) == root_font) {
+            return;
+        }
+        available_fonts_hash.put(name, root_font);
+        fontMappings = true;
+        fontMappingCount++;
+        // a mapping may replace a font resolved before
+        instance_hash.clear();
+        font_cache.clear();
+    }
+
+    /**
+     * @return true if fonts were mapped by {@link #setFontMapping(String, Font)}, so this resolver may resolve
+     * font families differently than another instance
+     */
+    public boolean hasFontMappings() {
+        return fontMappings;
+    }
+
+    /**
+     * @return count of fonts mapped by {@link #setFontMapping(String, Font)}
+     */
+    public int getFontMappingCount() {
+        return fontMappingCount;
     }
 
     protected static Font createFont(SharedContext ctx, Font root_font, float size, IdentValue weight, IdentValue style, IdentValue variant) {
@@ -196,7 +238,26 @@ public class AWTFontResolver implements FontResolver {
         return name + "-" + (size * ctx.getTextRenderer().getFontScale()) + "-" + weight + "-" + style + "-" + variant;
     }
 
+    /**
+     * Resolves font of the specification, returning the same instance for equal specifications until the cache is
+     * flushed or the font scale changes.
+     */
     public FSFont resolveFont(SharedContext renderingContext, FontSpecification spec) {
-        return resolveFont(renderingContext, spec.families, spec.size, spec.fontWeight, spec.fontStyle, spec.variant);
+        float scale = renderingContext.getTextRenderer().getFontScale();
+        if (scale != font_cache_scale) {
+            font_cache.clear();
+            font_cache_scale = scale;
+        }
+        FSFont font = font_cache.get(spec);
+        if (font == null) {
+            synchronized (this) {
+                font = font_cache.get(spec);
+                if (font == null) {
+                    font = resolveFont(renderingContext, spec.families, spec.size, spec.fontWeight, spec.fontStyle, spec.variant);
+                    font_cache.put(spec, font);
+                }
+            }
+        }
+        return font;
     }
 }
\ No newline at end of file
@@ -90,6 +90,7 @@ public class StyleReference {
                 new DOMTreeResolver(),
                 attRes,
                 _stylesheetFactory,
+                _context.getStyleDeclarationCache(),
                 readAndParseAll(infos, _context.getMedia()),
                 _context.getMedia());
     }
@@ -124,6 +125,13 @@ public class StyleReference {
         return _matcher.isHoverStyled(e);
     }
 
+    /**
+     * @return true if the stylesheets contain sibling selectors, e.g. {@code .active + li}
+     */
+    public boolean hasSiblingSelectors() {
+        return _matcher != null && _matcher.hasSiblingSelectors();
+    }
+
     /**
      * Returns a Map keyed by CSS property names (e.g. 'border-width'), and the
      * assigned value as a SAC CSSValue instance. The properties should have
@@ -200,6 +208,14 @@ public class StyleReference {
         }
     }
 
+    /**
+     * @param uri resolved stylesheet URI
+     * @return true if the stylesheet is parsed and cached already, so it is not going to be loaded
+     */
+    public boolean isStylesheetCached(String uri) {
+        return _stylesheetFactory.containsStylesheet(uri);
+    }
+
     public void flushAllStyleSheets() {
         _stylesheetFactory.flushCachedStylesheets();
     }
@@ -1699,6 +1699,13 @@ public final class CSSName implements Comparable {
         return ALL_PRIMITIVE_PROPERTY_NAMES.size();
     }
 
+    /**
+     * Returns true if the property is primitive (not shorthand).
+     */
+    public static boolean isPrimitive(CSSName cssName) {
+        return ALL_PRIMITIVE_PROPERTY_NAMES.containsKey(cssName.propName);
+    }
+
     /**
      * Iterator of ALL CSS 2 visual property names.
      *
@@ -64,6 +64,8 @@ public class CascadedStyle {
 
     private String fingerprint;
 
+    private StyleFingerprint styleFingerprint;
+
     /**
      * Creates a <code>CascadedStyle</code>, setting the display property to
      * to the value of the <code>display</code> parameter.
@@ -253,4 +255,20 @@ public class CascadedStyle {
         }
         return this.fingerprint;
     }
+
+    public StyleFingerprint getStyleFingerprint() {
+        if (this.styleFingerprint == null) {
+            if (cascadedProperties.isEmpty()) {
+                this.styleFingerprint = StyleFingerprint.EMPTY;
+            } else {
+                String[] declarations = new String[cascadedProperties.size()];
+                int i = 0;
+                for (PropertyDeclaration declaration : cascadedProperties.values()) {
+                    declarations[i++] = declaration.getFingerprint();
+                }
+                this.styleFingerprint = new StyleFingerprint(declarations);
+            }
+        }
+        return this.styleFingerprint;
+    }
 }
\ No newline at end of file
@@ -38,6 +38,20 @@ abstract class Condition {
 
     abstract boolean matches(Object e, AttributeResolver attRes, TreeResolver treeRes);
 
+    /**
+     * @return id the element must have to match the condition, or null
+     */
+    String getRequiredID() {
+        return null;
+    }
+
+    /**
+     * @return class the element must have to match the condition, or null
+     */
+    String getRequiredClass() {
+        return null;
+    }
+
     /**
      * the CSS condition [attribute]
      *
@@ -301,12 +315,18 @@ abstract class Condition {
 
     private static class ClassCondition extends Condition {
 
+        private String _className;
         private String _paddedClassName;
 
         ClassCondition(String className) {
+            _className = className;
             _paddedClassName = " " + className + " ";
         }
 
+        String getRequiredClass() {
+            return _className;
+        }
+
         boolean matches(Object e, AttributeResolver attRes, TreeResolver treeRes) {
             if (attRes == null) {
                 return false;
@@ -332,6 +352,10 @@ abstract class Condition {
             _id = id;
         }
 
+        String getRequiredID() {
+            return _id;
+        }
+
         boolean matches(Object e, AttributeResolver attRes, TreeResolver treeRes) {
             if (attRes == null) {
                 return false;
@@ -51,6 +51,12 @@ public class Matcher {
     private AttributeResolver _attRes;
     private TreeResolver _treeRes;
     private StylesheetFactory _styleFactory;
+    private StyleDeclarationCache _declarationCache;
+
+    /**
+     * Inline declarations last resolved for each element, dropped by {@link #removeStyle(Object)}
+     */
+    private java.util.Map _inlineStyles = new java.util.WeakHashMap();
 
     private java.util.Map _map;
 
@@ -62,13 +68,21 @@ public class Matcher {
 
     private List _pageRules;
     private List _fontFaceRules;
+    private boolean _siblingSelectors;
 
     public Matcher(
             TreeResolver tr, AttributeResolver ar, StylesheetFactory factory, List stylesheets, String medium) {
+        this(tr, ar, factory, new StyleDeclarationCache(), stylesheets, medium);
+    }
+
+    public Matcher(
+            TreeResolver tr, AttributeResolver ar, StylesheetFactory factory, StyleDeclarationCache declarationCache,
+            List stylesheets, String medium) {
         newMaps();
         _treeRes = tr;
         _attRes = ar;
         _styleFactory = factory;
+        _declarationCache = declarationCache;
 
         _pageRules = new ArrayList();
         _fontFaceRules = new ArrayList();
@@ -77,6 +91,9 @@ public class Matcher {
 
     public void removeStyle(Object e) {
         _map.remove(e);
+        synchronized (_inlineStyles) {
+            _inlineStyles.remove(e);
+        }
     }
 
     public CascadedStyle getCascadedStyle(Object e, boolean restyle) {
@@ -145,6 +162,14 @@ public class Matcher {
         return _focusElements.contains(e);
     }
 
+    /**
+     * @return true if a selector depends on the preceding sibling of the element, e.g. {@code .active + li}, so
+     * attribute changes of an element may change styles of its following siblings
+     */
+    public boolean hasSiblingSelectors() {
+        return _siblingSelectors;
+    }
+
     protected Mapper matchElement(Object e) {
         synchronized (e) {
             Object parent = _treeRes.getParentElement(e);
@@ -163,6 +188,13 @@ public class Matcher {
         java.util.TreeMap sorter = new java.util.TreeMap();
         addAllStylesheets(stylesheets, sorter, medium);
         XRLog.match("Matcher created with " + sorter.size() + " selectors");
+        for (Iterator i = sorter.values().iterator(); i.hasNext() && !_siblingSelectors; ) {
+            for (Selector s = (Selector) i.next(); s != null; s = s.getChainedSelector()) {
+                if (s.getSiblingSelector() != null) {
+                    _siblingSelectors = true;
+                }
+            }
+        }
         return new Mapper(sorter.values());
     }
 
@@ -295,7 +327,12 @@ public class Matcher {
                 return null;
             }
 
-            return _styleFactory.parseStyleDeclaration(com.earnix.webk.css.sheet.StylesheetInfo.AUTHOR, style);
+            InlineStyles inline = getInlineStyles(e);
+            if (!style.equals(inline.style)) {
+                inline.style = style;
+                inline.styleRuleset = _declarationCache.get(_styleFactory, style);
+            }
+            return inline.styleRuleset;
         }
     }
 
@@ -308,10 +345,36 @@ public class Matcher {
             if (Util.isNullOrEmpty(style)) {
                 return null;
             }
-            return _styleFactory.parseStyleDeclaration(com.earnix.webk.css.sheet.StylesheetInfo.AUTHOR, style);
+            InlineStyles inline = getInlineStyles(e);
+            if (!style.equals(inline.nonCssStyle)) {
+                inline.nonCssStyle = style;
+                inline.nonCssRuleset = _declarationCache.get(_styleFactory, style);
+            }
+            return inline.nonCssRuleset;
         }
     }
 
+    private InlineStyles getInlineStyles(Object e) {
+        synchronized (_inlineStyles) {
+            InlineStyles result = (InlineStyles) _inlineStyles.get(e);
+            if (result == null) {
+                result = new InlineStyles();
+                _inlineStyles.put(e, result);
+            }
+            return result;
+        }
+    }
+
+    /**
+     * Declaration texts of an element together with rulesets parsed from them.
+     */
+    private static class InlineStyles {
+        String style;
+        Ruleset styleRuleset;
+        String nonCssStyle;
+        Ruleset nonCssRuleset;
+    }
+
     /**
      * Mapper represents a local CSS for a Node that is used to match the Node's
      * children.
@@ -323,6 +386,7 @@ public class Matcher {
         private HashMap pseudoSelectors;
         private List mappedSelectors;
         private HashMap children;
+        private SelectorIndex index;
 
         Mapper(java.util.Collection selectors) {
             axes = new java.util.ArrayList(selectors.size());
@@ -345,7 +409,11 @@ public class Matcher {
             java.util.HashMap pseudoSelectors = new java.util.HashMap();
             java.util.List mappedSelectors = new java.util.LinkedList();
             StringBuffer key = new StringBuffer();
-            for (int i = 0, size = axes.size(); i < size; i++) {
+            SelectorIndex index = getIndex();
+            java.util.BitSet candidates = index.getCandidates(e, _attRes, _treeRes);
+            java.util.BitSet visited = (java.util.BitSet) candidates.clone();
+            visited.or(index.getDescendants());
+            for (int i = visited.nextSetBit(0); i >= 0; i = visited.nextSetBit(i + 1)) {
                 Selector sel = (Selector) axes.get(i);
                 if (sel.getAxis() == Selector.DESCENDANT_AXIS) {
                     //carry it forward to other descendants
@@ -353,7 +421,7 @@ public class Matcher {
                 } else if (sel.getAxis() == Selector.IMMEDIATE_SIBLING_AXIS) {
                     throw new RuntimeException();
                 }
-                if (!sel.matches(e, _attRes, _treeRes)) {
+                if (!candidates.get(i) || !sel.matches(e, _attRes, _treeRes)) {
                     continue;
                 }
                 //Assumption: if it is a pseudo-element, it does not also have dynamic pseudo-class
@@ -406,6 +474,15 @@ public class Matcher {
             return childMapper;
         }
 
+        private SelectorIndex getIndex() {
+            SelectorIndex result = index;
+            if (result == null) {
+                result = new SelectorIndex(axes);
+                index = result;
+            }
+            return result;
+        }
+
         CascadedStyle getCascadedStyle(Object e) {
             CascadedStyle result;
             synchronized (e) {
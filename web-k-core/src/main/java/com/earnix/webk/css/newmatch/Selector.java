@@ -336,6 +336,15 @@ public class Selector {
         return chainedSelector;
     }
 
+    /**
+     * get the selector the preceding sibling of the element has to match, e.g. {@code a} of {@code a + b}
+     *
+     * @return The siblingSelector value
+     */
+    public Selector getSiblingSelector() {
+        return siblingSelector;
+    }
+
     /**
      * get the Ruleset that this Selector is part of
      *
@@ -443,6 +452,43 @@ public class Selector {
         return selectorID;
     }
 
+    /**
+     * @return element name required by the selector, or null for universal selector
+     */
+    String getName() {
+        return _name;
+    }
+
+    /**
+     * @return id the element must have to match the selector, or null
+     */
+    String getRequiredID() {
+        if (conditions != null) {
+            for (int i = 0; i < conditions.size(); i++) {
+                String id = ((Condition) conditions.get(i)).getRequiredID();
+                if (id != null) {
+                    return id;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @return one of the classes the element must have to match the selector, or null
+     */
+    String getRequiredClass() {
+        if (conditions != null) {
+            for (int i = 0; i < conditions.size(); i++) {
+                String className = ((Condition) conditions.get(i)).getRequiredClass();
+                if (className != null) {
+                    return className;
+                }
+            }
+        }
+        return null;
+    }
+
     public void setName(String name) {
         _name = name;
         _specificityD++;
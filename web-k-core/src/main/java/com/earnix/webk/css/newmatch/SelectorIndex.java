@@ -0,0 +1,100 @@
+package com.earnix.webk.css.newmatch;
+
+import com.earnix.webk.css.extend.AttributeResolver;
+import com.earnix.webk.css.extend.TreeResolver;
+
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Buckets selectors of a {@link Matcher.Mapper} by id, class or element name they require (in this order of
+ * preference), so only selectors which can possibly match an element are tested against it.
+ * <p>
+ * Candidates are reported as positions in the indexed list, so callers keep visiting selectors in specificity order.
+ */
+class SelectorIndex {
+
+    private final Map<String, BitSet> ids = new HashMap<>();
+    private final Map<String, BitSet> classes = new HashMap<>();
+    private final Map<String, BitSet> names = new HashMap<>();
+    private final BitSet universal = new BitSet();
+    private final BitSet descendants = new BitSet();
+
+    SelectorIndex(List selectors) {
+        for (int i = 0, size = selectors.size(); i < size; i++) {
+            Selector sel = (Selector) selectors.get(i);
+            if (sel.getAxis() == Selector.DESCENDANT_AXIS) {
+                descendants.set(i);
+            }
+            String id = sel.getRequiredID();
+            String className = id == null ? sel.getRequiredClass() : null;
+            if (id != null) {
+                bucket(ids, id).set(i);
+            } else if (className != null) {
+                bucket(classes, className).set(i);
+            } else if (sel.getName() != null) {
+                bucket(names, sel.getName().toLowerCase(Locale.ROOT)).set(i);
+            } else {
+                universal.set(i);
+            }
+        }
+    }
+
+    /**
+     * @return positions of selectors which may match the element; selectors not included are known not to match
+     */
+    BitSet getCandidates(Object e, AttributeResolver attRes, TreeResolver treeRes) {
+        BitSet result = (BitSet) universal.clone();
+        if (!names.isEmpty()) {
+            String name = treeRes.getElementName(e);
+            if (name != null) {
+                or(result, names.get(name.toLowerCase(Locale.ROOT)));
+            }
+        }
+        if (attRes != null) {
+            if (!ids.isEmpty()) {
+                String id = attRes.getID(e);
+                if (id != null) {
+                    or(result, ids.get(id));
+                }
+            }
+            if (!classes.isEmpty()) {
+                String c = attRes.getClass(e);
+                if (c != null) {
+                    // same tokenization as class condition
+                    for (String className : c.split(" ")) {
+                        if (!className.isEmpty()) {
+                            or(result, classes.get(className));
+                        }
+                    }
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @return positions of selectors to be carried forward to descendants regardless of match
+     */
+    BitSet getDescendants() {
+        return descendants;
+    }
+
+    private static BitSet bucket(Map<String, BitSet> buckets, String key) {
+        BitSet result = buckets.get(key);
+        if (result == null) {
+            result = new BitSet();
+            buckets.put(key, result);
+        }
+        return result;
+    }
+
+    private static void or(BitSet target, BitSet bits) {
+        if (bits != null) {
+            target.or(bits);
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.earnix.webk.css.newmatch;
+
+import com.earnix.webk.css.extend.StylesheetFactory;
+import com.earnix.webk.css.sheet.Ruleset;
+import com.earnix.webk.css.sheet.StylesheetInfo;
+import com.earnix.webk.util.Configuration;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.experimental.FieldDefaults;
+import lombok.val;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Bounded LRU cache of parsed inline style declarations (style attributes and non-CSS presentational hints),
+ * keyed by declaration text, so elements with equal styling share one {@link Ruleset} and unchanged attributes are
+ * not re-parsed on restyle.
+ * <p>
+ * Shared by all documents of a {@link com.earnix.webk.layout.SharedContext}; size is set by
+ * {@code xr.css.style-cache-size}. Cached rulesets must not be modified.
+ */
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class StyleDeclarationCache {
+
+    final Map<String, Ruleset> rulesets;
+
+    @Getter
+    long hits;
+
+    @Getter
+    long misses;
+
+    public StyleDeclarationCache() {
+        this(Configuration.valueAsInt("xr.css.style-cache-size", 1024));
+    }
+
+    public StyleDeclarationCache(int maxSize) {
+        rulesets = new LinkedHashMap<String, Ruleset>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Ruleset> eldest) {
+                return size() > maxSize;
+            }
+        };
+    }
+
+    /**
+     * @return author origin ruleset parsed from the given declaration text
+     */
+    public Ruleset get(StylesheetFactory factory, String style) {
+        synchronized (rulesets) {
+            val cached = rulesets.get(style);
+            if (cached != null) {
+                hits++;
+                return cached;
+            }
+        }
+        val parsed = factory.parseStyleDeclaration(StylesheetInfo.AUTHOR, style);
+        synchronized (rulesets) {
+            misses++;
+            rulesets.put(style, parsed);
+        }
+        return parsed;
+    }
+
+    public void clear() {
+        synchronized (rulesets) {
+            rulesets.clear();
+        }
+    }
+
+    public int size() {
+        synchronized (rulesets) {
+            return rulesets.size();
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.earnix.webk.css.newmatch;
+
+import java.util.Arrays;
+
+/**
+ * Identity of cascaded property values of a {@link CascadedStyle}: equal fingerprints derive equal calculated styles
+ * from the same parent.
+ * <p>
+ * Holds references to fingerprints of the cascaded declarations (computed once per declaration) and a 64-bit hash of
+ * them, instead of concatenating them into one string for each element.
+ */
+public final class StyleFingerprint {
+
+    public static final StyleFingerprint EMPTY = new StyleFingerprint(new String[0]);
+
+    private final String[] declarations;
+    private final long hash;
+
+    StyleFingerprint(String[] declarations) {
+        this.declarations = declarations;
+        long h = declarations.length;
+        for (String declaration : declarations) {
+            h = h * 0x9E3779B97F4A7C15L + declaration.hashCode();
+        }
+        this.hash = h ^ (h >>> 29);
+    }
+
+    public long getHash() {
+        return hash;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof StyleFingerprint)) {
+            return false;
+        }
+        StyleFingerprint other = (StyleFingerprint) o;
+        return hash == other.hash && Arrays.equals(declarations, other.declarations);
+    }
+
+    @Override
+    public int hashCode() {
+        return (int) (hash ^ (hash >>> 32));
+    }
+}
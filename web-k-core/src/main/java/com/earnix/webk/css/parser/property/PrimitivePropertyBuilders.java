@@ -1382,6 +1382,49 @@ public class PrimitivePropertyBuilders {
     }
 
     public static class Src extends GenericURIWithNone {
+        // [ <uri> [ format(<string>#) ]? | local(<family-name>) ]# | none | inherit
+        // only the first source in a format which java.awt.Font decodes is kept, e.g. woff sources are skipped
+
+        public List buildDeclarations(
+                CSSName cssName, List values, int origin, boolean important, boolean inheritAllowed) {
+            if (values.size() == 1) {
+                return super.buildDeclarations(cssName, values, origin, important, inheritAllowed);
+            }
+            PropertyValue source = null;
+            PropertyValue uri = null;
+            boolean supported = true;
+            for (Iterator i = values.iterator(); i.hasNext() && source == null; ) {
+                PropertyValue value = (PropertyValue) i.next();
+                if (value.getOperator() == Token.TK_COMMA) {
+                    if (uri != null && supported) {
+                        source = uri;
+                    }
+                    uri = null;
+                    supported = true;
+                }
+                if (value.getPrimitiveType() == CSSPrimitiveValue.CSS_URI) {
+                    uri = value;
+                } else if (value.getPropertyValueType() == PropertyValue.VALUE_TYPE_FUNCTION
+                        && value.getFunction().getName().equalsIgnoreCase("format")) {
+                    supported = isSupportedFormat(value.getFunction());
+                }
+            }
+            if (source == null && uri != null && supported) {
+                source = uri;
+            }
+            return Collections.singletonList(new PropertyDeclaration(
+                    cssName, source == null ? new PropertyValue(IdentValue.NONE) : source, important, origin));
+        }
+
+        private static boolean isSupportedFormat(FSFunction format) {
+            for (Iterator i = format.getParameters().iterator(); i.hasNext(); ) {
+                String name = ((PropertyValue) i.next()).getStringValue();
+                if ("truetype".equalsIgnoreCase(name) || "opentype".equalsIgnoreCase(name)) {
+                    return true;
+                }
+            }
+            return false;
+        }
     }
 
     public static class TabSize extends PlainInteger {
@@ -23,6 +23,7 @@ package com.earnix.webk.css.style;
 import com.earnix.webk.css.constants.CSSName;
 import com.earnix.webk.css.constants.IdentValue;
 import com.earnix.webk.css.newmatch.CascadedStyle;
+import com.earnix.webk.css.newmatch.StyleFingerprint;
 import com.earnix.webk.css.parser.FSColor;
 import com.earnix.webk.css.parser.FSFunction;
 import com.earnix.webk.css.parser.FSRGBColor;
@@ -74,33 +75,36 @@ public class CalculatedStyle {
      */
     private CalculatedStyle _parent;
 
-    private BorderPropertySet _border;
-    private RectPropertySet _margin;
-    private RectPropertySet _padding;
+    /*
+     * Lazily resolved values; styles shared through StyleCache are used by several threads, so each value is built
+     * completely before it is published through a volatile field.
+     */
+    private volatile BorderPropertySet _border;
+    private volatile RectPropertySet _margin;
+    private volatile RectPropertySet _padding;
 
     private float _lineHeight;
-    private boolean _lineHeightResolved;
+    private volatile boolean _lineHeightResolved;
 
-    private FSFont _FSFont;
-    private FSFontMetrics _FSFontMetrics;
+    private volatile FSFont _FSFont;
+    private volatile FSFontMetrics _FSFontMetrics;
 
     private boolean _marginsAllowed = true;
     private boolean _paddingAllowed = true;
     private boolean _bordersAllowed = true;
 
-    private BackgroundSize _backgroundSize;
+    private volatile BackgroundSize _backgroundSize;
 
     /**
-     * Cache child styles of this style that have the same cascaded properties
+     * Whether derived styles are shared through {@link StyleCache}, true for styles descending from
+     * {@link StyleCache#getRootStyle(Object)}
      */
-    private final java.util.HashMap _childCache = new java.util.HashMap();
-    /*private java.util.HashMap _childCache = new java.util.LinkedHashMap(5, 0.75f, true) {
-        private static final int MAX_ENTRIES = 10;
+    private boolean _shared;
 
-        protected boolean removeEldestEntry(Map.Entry eldest) {
-            return size() > MAX_ENTRIES;
-        }
-    };*/
+    /**
+     * Child styles of a style which is not shared, see {@link #deriveStyle(CascadedStyle)}
+     */
+    private java.util.HashMap _childCache;
 
     /**
      * Our main array of property values defined in this style, keyed
@@ -111,7 +115,7 @@ public class CalculatedStyle {
     /**
      * The derived Font for this style
      */
-    private FontSpecification _font;
+    private volatile FontSpecification _font;
 
 
     /**
@@ -173,8 +177,27 @@ public class CalculatedStyle {
      * @param matched the CascadedStyle to apply
      * @return The derived child style
      */
-    public synchronized CalculatedStyle deriveStyle(CascadedStyle matched) {
-        String fingerprint = matched.getFingerprint();
+    public CalculatedStyle deriveStyle(CascadedStyle matched) {
+        if (!_shared) {
+            return deriveLocalStyle(matched);
+        }
+        StyleCache cache = StyleCache.getInstance();
+        StyleFingerprint fingerprint = matched.getStyleFingerprint();
+        CalculatedStyle cs = cache.get(this, fingerprint);
+
+        if (cs == null) {
+            cs = new CalculatedStyle(this, matched);
+            cs._shared = true;
+            cs = cache.put(this, fingerprint, cs);
+        }
+        return cs;
+    }
+
+    private synchronized CalculatedStyle deriveLocalStyle(CascadedStyle matched) {
+        if (_childCache == null) {
+            _childCache = new java.util.HashMap();
+        }
+        StyleFingerprint fingerprint = matched.getStyleFingerprint();
         CalculatedStyle cs = (CalculatedStyle) _childCache.get(fingerprint);
 
         if (cs == null) {
@@ -184,6 +207,10 @@ public class CalculatedStyle {
         return cs;
     }
 
+    void setShared() {
+        _shared = true;
+    }
+
     public int countAssigned() {
         int c = 0;
         for (int i = 0; i < _derivedValuesById.length; i++) {
@@ -300,11 +327,13 @@ public class CalculatedStyle {
     }
 
     public BackgroundSize getBackgroundSize() {
-        if (_backgroundSize == null) {
-            _backgroundSize = createBackgroundSize();
+        BackgroundSize backgroundSize = _backgroundSize;
+        if (backgroundSize == null) {
+            backgroundSize = createBackgroundSize();
+            _backgroundSize = backgroundSize;
         }
 
-        return _backgroundSize;
+        return backgroundSize;
     }
 
     private BackgroundSize createBackgroundSize() {
@@ -370,33 +399,35 @@ public class CalculatedStyle {
     }
 
     public FontSpecification getFont(CssContext ctx) {
-        if (_font == null) {
-            _font = new FontSpecification();
+        FontSpecification font = _font;
+        if (font == null) {
+            font = new FontSpecification();
 
-            _font.families = valueByName(CSSName.FONT_FAMILY).asStringArray();
+            font.families = valueByName(CSSName.FONT_FAMILY).asStringArray();
 
             FSDerivedValue fontSize = valueByName(CSSName.FONT_SIZE);
             if (fontSize instanceof IdentValue) {
                 PropertyValue replacement;
                 IdentValue resolved = resolveAbsoluteFontSize();
                 if (resolved != null) {
-                    replacement = FontSizeHelper.resolveAbsoluteFontSize(resolved, _font.families);
+                    replacement = FontSizeHelper.resolveAbsoluteFontSize(resolved, font.families);
                 } else {
                     replacement = FontSizeHelper.getDefaultRelativeFontSize((IdentValue) fontSize);
                 }
-                _font.size = LengthValue.calcFloatProportionalValue(
+                font.size = LengthValue.calcFloatProportionalValue(
                         this, CSSName.FONT_SIZE, replacement.getCssText(),
                         replacement.getFloatValue(), replacement.getPrimitiveType(), 0, ctx);
             } else {
-                _font.size = getFloatPropertyProportionalTo(CSSName.FONT_SIZE, 0, ctx);
+                font.size = getFloatPropertyProportionalTo(CSSName.FONT_SIZE, 0, ctx);
             }
 
-            _font.fontWeight = getIdent(CSSName.FONT_WEIGHT);
+            font.fontWeight = getIdent(CSSName.FONT_WEIGHT);
 
-            _font.fontStyle = getIdent(CSSName.FONT_STYLE);
-            _font.variant = getIdent(CSSName.FONT_VARIANT);
+            font.fontStyle = getIdent(CSSName.FONT_STYLE);
+            font.variant = getIdent(CSSName.FONT_VARIANT);
+            _font = font;
         }
-        return _font;
+        return font;
     }
 
     public FontSpecification getFontSpecification() {
@@ -451,89 +482,28 @@ public class CalculatedStyle {
 
     public float getLineHeight(CssContext ctx) {
         if (!_lineHeightResolved) {
+            float lineHeight;
             if (isIdent(CSSName.LINE_HEIGHT, IdentValue.NORMAL)) {
                 float lineHeight1 = getFont(ctx).size * 1.1f;
                 // Make sure rasterized characters will (probably) fit inside
                 // the line box
                 FSFontMetrics metrics = getFSFontMetrics(ctx);
                 float lineHeight2 = (float) Math.ceil(metrics.getDescent() + metrics.getAscent());
-                _lineHeight = Math.max(lineHeight1, lineHeight2);
+                lineHeight = Math.max(lineHeight1, lineHeight2);
             } else if (isLength(CSSName.LINE_HEIGHT)) {
                 //could be more elegant, I suppose
-                _lineHeight = getFloatPropertyProportionalHeight(CSSName.LINE_HEIGHT, 0, ctx);
+                lineHeight = getFloatPropertyProportionalHeight(CSSName.LINE_HEIGHT, 0, ctx);
             } else {
                 //must be a number
-                _lineHeight = getFont(ctx).size * valueByName(CSSName.LINE_HEIGHT).asFloat();
+                lineHeight = getFont(ctx).size * valueByName(CSSName.LINE_HEIGHT).asFloat();
             }
+            // written before the volatile flag, so readers of the flag see the value
+            _lineHeight = lineHeight;
             _lineHeightResolved = true;
         }
         return _lineHeight;
     }
 
-    /**
-     * Convenience property accessor; returns a Border initialized with the
-     * four-sided margin width. Uses the actual value (computed actual value)
-     * for this element.
-     *
-     * @param cbWidth
-     * @param ctx
-     * @return The marginWidth value
-     */
-    public RectPropertySet getMarginRect(float cbWidth, CssContext ctx) {
-        return getMarginRect(cbWidth, ctx, true);
-    }
-
-    public RectPropertySet getMarginRect(float cbWidth, CssContext ctx, boolean useCache) {
-        if (!_marginsAllowed) {
-            return RectPropertySet.ALL_ZEROS;
-        } else {
-            return getMarginProperty(
-                    this, CSSName.MARGIN_SHORTHAND, CSSName.MARGIN_SIDE_PROPERTIES, cbWidth, ctx, useCache);
-        }
-    }
-
-    /**
-     * Convenience property accessor; returns a Border initialized with the
-     * four-sided padding width. Uses the actual value (computed actual value)
-     * for this element.
-     *
-     * @param cbWidth
-     * @param ctx
-     * @return The paddingWidth value
-     */
-    public RectPropertySet getPaddingRect(float cbWidth, CssContext ctx, boolean useCache) {
-        if (!_paddingAllowed) {
-            return RectPropertySet.ALL_ZEROS;
-        } else {
-            return getPaddingProperty(this, CSSName.PADDING_SHORTHAND, CSSName.PADDING_SIDE_PROPERTIES, cbWidth, ctx, useCache);
-        }
-    }
-
-    public RectPropertySet getPaddingRect(float cbWidth, CssContext ctx) {
-        return getPaddingRect(cbWidth, ctx, true);
-    }
-
-    /**
-     * @param cssName
-     * @return TODO
-     */
-    public String getStringProperty(CSSName cssName) {
-        return valueByName(cssName).asString();
-    }
-
-    /**
-     * TODO: doc
-     */
-    public boolean isLength(CSSName cssName) {
-        FSDerivedValue val = valueByName(cssName);
-        return val instanceof LengthValue;
-    }
-
-    public boolean isLengthOrNumber(CSSName cssName) {
-        FSDerivedValue val = valueByName(cssName);
-        return val instanceof NumberValue || val instanceof LengthValue;
-    }
-
     /**
      * Returns a {@link FSDerivedValue} by name. Because we are a derived
      * style, the property will already be resolved at this point.
@@ -625,18 +595,20 @@ public class CalculatedStyle {
     }
 
     public RectPropertySet getCachedPadding() {
-        if (_padding == null) {
+        RectPropertySet padding = _padding;
+        if (padding == null) {
             throw new XRRuntimeException("No padding property cached yet; should have called getPropertyRect() at least once before.");
         } else {
-            return _padding;
+            return padding;
         }
     }
 
     public RectPropertySet getCachedMargin() {
-        if (_margin == null) {
+        RectPropertySet margin = _margin;
+        if (margin == null) {
             throw new XRRuntimeException("No margin property cached yet; should have called getMarginRect() at least once before.");
         } else {
-            return _margin;
+            return margin;
         }
     }
 
@@ -649,22 +621,21 @@ public class CalculatedStyle {
         if (!useCache) {
             return newRectInstance(style, shorthandProp, sides, cbWidth, ctx);
         } else {
-            if (style._padding == null) {
-                RectPropertySet result = newRectInstance(style, shorthandProp, sides, cbWidth, ctx);
-                boolean allZeros = result.isAllZeros();
+            RectPropertySet padding = style._padding;
+            if (padding == null) {
+                padding = newRectInstance(style, shorthandProp, sides, cbWidth, ctx);
+                boolean allZeros = padding.isAllZeros();
 
                 if (allZeros) {
-                    result = RectPropertySet.ALL_ZEROS;
+                    padding = RectPropertySet.ALL_ZEROS;
+                } else if (padding.hasNegativeValues()) {
+                    padding.resetNegativeValues();
                 }
 
-                style._padding = result;
-
-                if (!allZeros && style._padding.hasNegativeValues()) {
-                    style._padding.resetNegativeValues();
-                }
+                style._padding = padding;
             }
 
-            return style._padding;
+            return padding;
         }
     }
 
@@ -677,15 +648,16 @@ public class CalculatedStyle {
         if (!useCache) {
             return newRectInstance(style, shorthandProp, sides, cbWidth, ctx);
         } else {
-            if (style._margin == null) {
-                RectPropertySet result = newRectInstance(style, shorthandProp, sides, cbWidth, ctx);
-                if (result.isAllZeros()) {
-                    result = RectPropertySet.ALL_ZEROS;
+            RectPropertySet margin = style._margin;
+            if (margin == null) {
+                margin = newRectInstance(style, shorthandProp, sides, cbWidth, ctx);
+                if (margin.isAllZeros()) {
+                    margin = RectPropertySet.ALL_ZEROS;
                 }
-                style._margin = result;
+                style._margin = margin;
             }
 
-            return style._margin;
+            return margin;
         }
     }
 
@@ -705,21 +677,20 @@ public class CalculatedStyle {
 
     private static BorderPropertySet getBorderProperty(CalculatedStyle style,
                                                        CssContext ctx) {
-        if (style._border == null) {
-            BorderPropertySet result = BorderPropertySet.newInstance(style, ctx);
-
-            boolean allZeros = result.isAllZeros();
-            if (allZeros && !result.hasHidden() && !result.hasBorderRadius()) {
-                result = BorderPropertySet.EMPTY_BORDER;
+        BorderPropertySet border = style._border;
+        if (border == null) {
+            border = BorderPropertySet.newInstance(style, ctx);
+
+            boolean allZeros = border.isAllZeros();
+            if (allZeros && !border.hasHidden() && !border.hasBorderRadius()) {
+                border = BorderPropertySet.EMPTY_BORDER;
+            } else if (!allZeros && border.hasNegativeValues()) {
+                border.resetNegativeValues();
             }
 
-            style._border = result;
-
-            if (!allZeros && style._border.hasNegativeValues()) {
-                style._border.resetNegativeValues();
-            }
+            style._border = border;
         }
-        return style._border;
+        return border;
     }
 
     public static final int LEFT = 1;
@@ -753,17 +724,21 @@ public class CalculatedStyle {
     }
 
     public FSFont getFSFont(CssContext cssContext) {
-        if (_FSFont == null) {
-            _FSFont = cssContext.getFont(getFont(cssContext));
+        FSFont font = _FSFont;
+        if (font == null) {
+            font = cssContext.getFont(getFont(cssContext));
+            _FSFont = font;
         }
-        return _FSFont;
+        return font;
     }
 
     public FSFontMetrics getFSFontMetrics(CssContext c) {
-        if (_FSFontMetrics == null) {
-            _FSFontMetrics = c.getFSFontMetrics(getFSFont(c));
+        FSFontMetrics metrics = _FSFontMetrics;
+        if (metrics == null) {
+            metrics = c.getFSFontMetrics(getFSFont(c));
+            _FSFontMetrics = metrics;
         }
-        return _FSFontMetrics;
+        return metrics;
     }
 
     public IdentValue getWordWrap() {
@@ -0,0 +1,111 @@
+package com.earnix.webk.css.style;
+
+import com.earnix.webk.css.newmatch.StyleFingerprint;
+import com.earnix.webk.util.Configuration;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.experimental.FieldDefaults;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * JVM-wide cache of calculated styles, so identical style chains are shared by all documents, panels and resets.
+ * <p>
+ * Styles are derived from a root style of a rendering environment (see {@link #getRootStyle(Object)}), as calculated
+ * styles memoize fonts and other values resolved with the context they are first used with. Child styles are keyed by
+ * parent style and {@link StyleFingerprint} of the cascaded declarations. The cache is bounded by
+ * {@code xr.css.style-sharing-cache-size}; the oldest entries are evicted first.
+ */
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class StyleCache {
+
+    private static final int MAX_ROOTS = 32;
+
+    private static final StyleCache INSTANCE = new StyleCache(
+            Configuration.valueAsInt("xr.css.style-sharing-cache-size", 8192));
+
+    int maxSize;
+    ConcurrentHashMap<Key, CalculatedStyle> styles = new ConcurrentHashMap<>();
+    ConcurrentLinkedQueue<Key> order = new ConcurrentLinkedQueue<>();
+    Map<Object, EmptyStyle> roots = new LinkedHashMap<Object, EmptyStyle>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Object, EmptyStyle> eldest) {
+            return size() > MAX_ROOTS;
+        }
+    };
+
+    public static StyleCache getInstance() {
+        return INSTANCE;
+    }
+
+    StyleCache(int maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * @param environment value object identifying everything the calculated styles may resolve values with
+     * @return root style shared by all contexts with equal environment
+     */
+    public EmptyStyle getRootStyle(Object environment) {
+        synchronized (roots) {
+            EmptyStyle result = roots.get(environment);
+            if (result == null) {
+                result = new EmptyStyle();
+                result.setShared();
+                roots.put(environment, result);
+            }
+            return result;
+        }
+    }
+
+    /**
+     * Drops all styles, e.g. when fonts available for rendering change.
+     */
+    public void clear() {
+        synchronized (roots) {
+            roots.clear();
+        }
+        styles.clear();
+        order.clear();
+    }
+
+    public int size() {
+        return styles.size();
+    }
+
+    CalculatedStyle get(CalculatedStyle parent, StyleFingerprint fingerprint) {
+        return styles.get(new Key(parent, fingerprint));
+    }
+
+    /**
+     * @return the given style, or equal style cached meanwhile by another thread
+     */
+    CalculatedStyle put(CalculatedStyle parent, StyleFingerprint fingerprint, CalculatedStyle style) {
+        Key key = new Key(parent, fingerprint);
+        CalculatedStyle existing = styles.putIfAbsent(key, style);
+        if (existing != null) {
+            return existing;
+        }
+        order.add(key);
+        while (styles.size() > maxSize) {
+            Key eldest = order.poll();
+            if (eldest == null) {
+                break;
+            }
+            styles.remove(eldest);
+        }
+        return style;
+    }
+
+    @AllArgsConstructor
+    @EqualsAndHashCode
+    @FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+    private static class Key {
+        CalculatedStyle parent;
+        StyleFingerprint fingerprint;
+    }
+}
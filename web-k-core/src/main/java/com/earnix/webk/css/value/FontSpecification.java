@@ -18,6 +18,33 @@ public class FontSpecification {
     public IdentValue fontStyle;
     public IdentValue variant;
 
+    /**
+     * Specifications are equal if they resolve to the same font; font resolvers use them as cache keys.
+     */
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof FontSpecification)) {
+            return false;
+        }
+        FontSpecification other = (FontSpecification) o;
+        return Float.floatToIntBits(size) == Float.floatToIntBits(other.size)
+                && fontWeight == other.fontWeight
+                && fontStyle == other.fontStyle
+                && variant == other.variant
+                && (families == other.families || Arrays.equals(families, other.families));
+    }
+
+    public int hashCode() {
+        int result = Float.floatToIntBits(size);
+        result = 31 * result + System.identityHashCode(fontWeight);
+        result = 31 * result + System.identityHashCode(fontStyle);
+        result = 31 * result + System.identityHashCode(variant);
+        result = 31 * result + Arrays.hashCode(families);
+        return result;
+    }
+
     public String toString() {
         StringBuffer sb = new StringBuffer("Font specification: ");
         sb
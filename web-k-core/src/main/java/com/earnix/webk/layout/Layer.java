@@ -84,6 +84,12 @@ public class Layer {
 
     private Map _runningBlocks;
 
+    /**
+     * Child layers painted by this layer, by {@link #POSITIVE}, {@link #ZERO}, {@link #NEGATIVE} and {@link #AUTO};
+     * kept until the layer tree changes
+     */
+    private List[] _layers;
+
     private Box _selectionStart;
     private Box _selectionEnd;
 
@@ -117,6 +123,7 @@ public class Layer {
 
     public void setStackingContext(boolean stackingContext) {
         _stackingContext = stackingContext;
+        invalidateLayers();
     }
 
     public int getZIndex() {
@@ -132,6 +139,7 @@ public class Layer {
             _children = new ArrayList();
         }
         _children.add(layer);
+        invalidateLayers();
     }
 
     public void addFloat(BlockBox floater, BlockFormattingContext bfc) {
@@ -223,6 +231,31 @@ public class Layer {
         return result;
     }
 
+    /**
+     * @return cached child layers to paint or hit test, sorted by z-index unless {@code which} is {@link #AUTO}
+     */
+    private List getLayers(int which) {
+        if (_layers == null) {
+            _layers = new List[AUTO + 1];
+        }
+        List result = _layers[which];
+        if (result == null) {
+            result = which == AUTO ? collectLayers(AUTO) : getSortedLayers(which);
+            _layers[which] = result;
+        }
+        return result;
+    }
+
+    /**
+     * Drops cached child layers of this layer and its ancestors, which collect layers through non stacking context
+     * children.
+     */
+    private void invalidateLayers() {
+        for (Layer layer = this; layer != null; layer = layer.getParent()) {
+            layer._layers = null;
+        }
+    }
+
     private static class ZIndexComparator implements Comparator {
         public int compare(Object o1, Object o2) {
             Layer l1 = (Layer) o1;
@@ -321,7 +354,7 @@ public class Layer {
             }
 
             if (isRootLayer() || isStackingContext()) {
-                paintLayers(c, getSortedLayers(NEGATIVE));
+                paintLayers(c, getLayers(NEGATIVE));
             }
 
             Map collapsedTableBorders = collectCollapsedTableBorders(c, blocks);
@@ -334,10 +367,10 @@ public class Layer {
             paintSelection(c, lines); // XXX do only when there is a selection
 
             if (isRootLayer() || isStackingContext()) {
-                paintLayers(c, collectLayers(AUTO));
+                paintLayers(c, getLayers(AUTO));
                 // TODO z-index: 0 layers should be painted atomically
-                paintLayers(c, getSortedLayers(ZERO));
-                paintLayers(c, getSortedLayers(POSITIVE));
+                paintLayers(c, getLayers(ZERO));
+                paintLayers(c, getLayers(POSITIVE));
             }
         }
     }
@@ -349,17 +382,17 @@ public class Layer {
     public Box find(CssContext cssCtx, int absX, int absY, boolean findAnonymous) {
         Box result = null;
         if (isRootLayer() || isStackingContext()) {
-            result = find(cssCtx, absX, absY, getSortedLayers(POSITIVE), findAnonymous);
+            result = find(cssCtx, absX, absY, getLayers(POSITIVE), findAnonymous);
             if (result != null) {
                 return result;
             }
 
-            result = find(cssCtx, absX, absY, getSortedLayers(ZERO), findAnonymous);
+            result = find(cssCtx, absX, absY, getLayers(ZERO), findAnonymous);
             if (result != null) {
                 return result;
             }
 
-            result = find(cssCtx, absX, absY, collectLayers(AUTO), findAnonymous);
+            result = find(cssCtx, absX, absY, getLayers(AUTO), findAnonymous);
             if (result != null) {
                 return result;
             }
@@ -379,7 +412,7 @@ public class Layer {
         }
 
         if (isRootLayer() || isStackingContext()) {
-            result = find(cssCtx, absX, absY, getSortedLayers(NEGATIVE), findAnonymous);
+            result = find(cssCtx, absX, absY, getLayers(NEGATIVE), findAnonymous);
             if (result != null) {
                 return result;
             }
@@ -639,6 +672,7 @@ public class Layer {
         if (!removed) {
             throw new RuntimeException("Could not find layer to remove");
         }
+        invalidateLayers();
     }
 
     public void detach() {
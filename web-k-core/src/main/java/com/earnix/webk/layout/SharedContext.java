@@ -21,8 +21,14 @@ package com.earnix.webk.layout;
 
 import com.earnix.webk.context.AWTFontResolver;
 import com.earnix.webk.context.StyleReference;
+import com.earnix.webk.css.constants.CSSName;
+import com.earnix.webk.css.constants.IdentValue;
+import com.earnix.webk.css.newmatch.StyleDeclarationCache;
+import com.earnix.webk.css.sheet.FontFaceRule;
 import com.earnix.webk.css.style.CalculatedStyle;
 import com.earnix.webk.css.style.EmptyStyle;
+import com.earnix.webk.css.style.FSDerivedValue;
+import com.earnix.webk.css.style.StyleCache;
 import com.earnix.webk.css.value.FontSpecification;
 import com.earnix.webk.extend.FontContext;
 import com.earnix.webk.extend.FontResolver;
@@ -33,6 +39,9 @@ import com.earnix.webk.extend.UserAgentCallback;
 import com.earnix.webk.layout.breaker.DefaultLineBreakingStrategy;
 import com.earnix.webk.layout.breaker.LineBreakingStrategy;
 import com.earnix.webk.render.Box;
+import com.earnix.webk.resource.PreloadScanner;
+import com.earnix.webk.resource.SharedHttpClient;
+import com.earnix.webk.resource.WebFontCache;
 import com.earnix.webk.render.FSFont;
 import com.earnix.webk.render.FSFontMetrics;
 import com.earnix.webk.render.RenderingContext;
@@ -43,22 +52,29 @@ import com.earnix.webk.simple.extend.FormSubmissionListener;
 import com.earnix.webk.simple.extend.form.DefaultFormFieldFactory;
 import com.earnix.webk.simple.extend.form.FormFieldFactory;
 import com.earnix.webk.swing.Java2DTextRenderer;
+import com.earnix.webk.swing.NaiveUserAgent;
 import com.earnix.webk.swing.RootPanel;
 import com.earnix.webk.swing.SwingReplacedElementFactory;
+import com.earnix.webk.util.Configuration;
 import com.earnix.webk.util.XRLog;
 import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.Setter;
 import lombok.experimental.FieldDefaults;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
 
+import javax.swing.SwingUtilities;
 import java.awt.Font;
 import java.awt.HeadlessException;
 import java.awt.Rectangle;
 import java.awt.Toolkit;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * The SharedContext is that which is kept between successive layout and render runs.
@@ -94,6 +110,29 @@ public class SharedContext {
 
     Map<ElementImpl, CalculatedStyle> styleMap;
 
+    /**
+     * Parsed inline style declarations, shared by all documents displayed with this context
+     */
+    @Getter
+    final StyleDeclarationCache styleDeclarationCache = new StyleDeclarationCache();
+
+    /**
+     * Root of calculated styles, shared through {@link StyleCache} by contexts with equal
+     * {@link #getStyleEnvironment()}. Reset when fonts or resolution change, and by {@link #reset()}.
+     */
+    EmptyStyle rootStyle;
+
+    /**
+     * Incremented by each {@link #loadFontFaces(Runnable)}, fonts loaded for an earlier document aren't mapped
+     */
+    int fontFaceGeneration;
+
+    /**
+     * Pooled HTTP client for resources and scripts, shared with the user agent if it is a {@link NaiveUserAgent}
+     */
+    @Getter
+    final SharedHttpClient httpClient = new SharedHttpClient();
+
     ReplacedElementFactory replacedElementFactory;
 
     @Getter
@@ -112,6 +151,7 @@ public class SharedContext {
         formFieldFactory = new DefaultFormFieldFactory();
         setMedia("screen");
         this.uac = uac;
+        shareHttpClient(uac);
         setCss(new StyleReference(uac));
         XRLog.render("Using CSS implementation from: " + getCss().getClass().getName());
         setTextRenderer(new Java2DTextRenderer());
@@ -127,6 +167,7 @@ public class SharedContext {
         replacedElementFactory = ref;
         setMedia("screen");
         this.uac = uac;
+        shareHttpClient(uac);
         setCss(new StyleReference(uac));
         XRLog.render("Using CSS implementation from: " + getCss().getClass().getName());
         setTextRenderer(tr);
@@ -159,6 +200,7 @@ public class SharedContext {
 
     public void flushFonts() {
         font_resolver.flushCache();
+        rootStyle = null;
     }
 
     protected FontResolver font_resolver;
@@ -298,6 +340,7 @@ public class SharedContext {
      */
     public void setTextRenderer(TextRenderer text_renderer) {
         this.text_renderer = text_renderer;
+        rootStyle = null;
     }// = "screen";
 
     /**
@@ -333,6 +376,80 @@ public class SharedContext {
             styleReference.setUserAgentCallback(userAgentCallback);
         }
         uac = userAgentCallback;
+        shareHttpClient(userAgentCallback);
+    }
+
+    /**
+     * Starts parallel loading of resources linked by the document, if they are loaded with the shared HTTP client.
+     * Base URL, namespace handler and media of the document should be set already.
+     */
+    public void prefetchResources(DocumentImpl doc) {
+        if (Configuration.isTrue("xr.load.prefetch", true) && uac instanceof NaiveUserAgent
+                && ((NaiveUserAgent) uac).getHttpClient() == httpClient) {
+            PreloadScanner.scan(doc, getNamespaceHandler(), getCss(), getMedia(), uac, httpClient);
+        }
+    }
+
+    /**
+     * Maps font families of {@code @font-face} rules of the current document to their fonts, loaded by
+     * {@link WebFontCache}. Fonts loaded before, e.g. by another panel, are mapped at once; others are loaded in
+     * background and mapped on the event dispatch thread once all of them are loaded, then {@code onLoaded} is run to
+     * render the document with them. Loads started for a previous document are not mapped.
+     */
+    public void loadFontFaces(Runnable onLoaded) {
+        int generation = ++fontFaceGeneration;
+        if (!Configuration.isTrue("xr.fonts.load-font-faces", true) || !(font_resolver instanceof AWTFontResolver)) {
+            return;
+        }
+        Map<String, CompletableFuture<Font>> loading = new LinkedHashMap<>();
+        for (Object o : getCss().getFontFaceRules()) {
+            FontFaceRule rule = (FontFaceRule) o;
+            if (!rule.hasFontFamily()) {
+                continue;
+            }
+            CalculatedStyle style = rule.getCalculatedStyle();
+            FSDerivedValue src = style.valueByName(CSSName.SRC);
+            if (src == IdentValue.NONE) {
+                continue;
+            }
+            String uri = uac.resolveURI(src.asString());
+            if (uri == null) {
+                continue;
+            }
+            String family = StringUtils.strip(style.asStringArray(CSSName.FONT_FAMILY)[0], "\"'");
+            Font font = WebFontCache.getLoaded(uri);
+            if (font != null) {
+                setFontMapping(family, font);
+            } else {
+                loading.put(family, WebFontCache.load(uri, uac));
+            }
+        }
+        if (loading.isEmpty()) {
+            return;
+        }
+        CompletableFuture.allOf(loading.values().toArray(new CompletableFuture[0]))
+                .thenRun(() -> SwingUtilities.invokeLater(() -> {
+                    if (generation != fontFaceGeneration) {
+                        return;
+                    }
+                    boolean mapped = false;
+                    for (Map.Entry<String, CompletableFuture<Font>> entry : loading.entrySet()) {
+                        Font font = entry.getValue().join();
+                        if (font != null) {
+                            setFontMapping(entry.getKey(), font);
+                            mapped = true;
+                        }
+                    }
+                    if (mapped) {
+                        onLoaded.run();
+                    }
+                }));
+    }
+
+    private void shareHttpClient(UserAgentCallback userAgentCallback) {
+        if (userAgentCallback instanceof NaiveUserAgent && ((NaiveUserAgent) userAgentCallback).getHttpClient() == null) {
+            ((NaiveUserAgent) userAgentCallback).setHttpClient(httpClient);
+        }
     }
 
     /**
@@ -357,6 +474,7 @@ public class SharedContext {
     public void setDPI(float dpi) {
         this.dpi = dpi;
         this.mm_per_dot = (CM__PER__IN * MM__PER__CM) / dpi;
+        rootStyle = null;
     }
 
     /**
@@ -483,11 +601,13 @@ public class SharedContext {
         FontResolver resolver = getFontResolver();
         if (resolver instanceof AWTFontResolver) {
             ((AWTFontResolver) resolver).setFontMapping(name, font);
+            rootStyle = null;
         }
     }
 
     public void setFontResolver(FontResolver resolver) {
         font_resolver = resolver;
+        rootStyle = null;
     }
 
     public int getDotsPerPixel() {
@@ -496,6 +616,7 @@ public class SharedContext {
 
     public void setDotsPerPixel(int pixelsPerDot) {
         this.dotsPerPixel = pixelsPerDot;
+        rootStyle = null;
     }
 
     public CalculatedStyle getStyle(ElementImpl e) {
@@ -515,7 +636,7 @@ public class SharedContext {
             NodeImpl parent = e.parentNode();
             CalculatedStyle parentCalculatedStyle;
             if (parent instanceof DocumentImpl) {
-                parentCalculatedStyle = new EmptyStyle();
+                parentCalculatedStyle = getRootStyle();
             } else {
                 parentCalculatedStyle = getStyle((ElementImpl) parent, false);
             }
@@ -528,9 +649,53 @@ public class SharedContext {
         return result;
     }
 
+    /**
+     * @return style calculated for the element before, null if it was not calculated since the last removal
+     */
+    public CalculatedStyle getCachedStyle(ElementImpl e) {
+        return styleMap == null ? null : styleMap.get(e);
+    }
+
+    /**
+     * @return parent style of the document root element
+     */
+    public CalculatedStyle getRootStyle() {
+        if (rootStyle == null) {
+            rootStyle = StyleCache.getInstance().getRootStyle(getStyleEnvironment());
+        }
+        return rootStyle;
+    }
+
+    /**
+     * @return value object equal for contexts which resolve fonts and lengths of calculated styles equally
+     */
+    private Object getStyleEnvironment() {
+        Object fonts = font_resolver;
+        if (fonts instanceof AWTFontResolver) {
+            AWTFontResolver resolver = (AWTFontResolver) fonts;
+            fonts = resolver.hasFontMappings()
+                    ? Arrays.asList(resolver, resolver.getFontMappingCount())
+                    : AWTFontResolver.class;
+        }
+        return Arrays.asList(fonts, text_renderer == null ? null : text_renderer.getClass(),
+                text_renderer == null ? null : text_renderer.getFontScale(), dpi, dotsPerPixel);
+    }
+
+    /**
+     * Drops calculated and cascaded styles cached for the given element, so they get re-computed on next access.
+     */
+    public void removeStyle(ElementImpl e) {
+        if (styleMap != null) {
+            styleMap.remove(e);
+        }
+        getCss().removeStyle(e);
+    }
+
     public void reset() {
         styleMap = null;
         idMap = null;
+        // environment is looked up again, e.g. text renderer font scale may have changed since
+        rootStyle = null;
         replacedElementFactory.reset();
     }
 
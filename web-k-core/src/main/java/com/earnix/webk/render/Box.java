@@ -90,6 +90,8 @@ public abstract class Box implements Styleable {
 
     private PaintingInfo _paintingInfo;
 
+    private ChildBoundsIndex _childBoundsIndex;
+
     private RectPropertySet _workingMargin;
 
     private int _index;
@@ -517,6 +519,7 @@ public abstract class Box implements Styleable {
         setContainingLayer(null);
         setLayer(null);
         setPaintingInfo(null);
+        _childBoundsIndex = null;
         setContentWidth(0);
 
         _workingMargin = null;
@@ -679,7 +682,16 @@ public abstract class Box implements Styleable {
         }
 
         Box result = null;
-        for (int i = 0; i < getChildCount(); i++) {
+        int from = 0;
+        int to = getChildCount();
+        if (pI != null && to >= ChildBoundsIndex.MIN_CHILDREN) {
+            if (_childBoundsIndex == null || !_childBoundsIndex.isValidFor(this)) {
+                _childBoundsIndex = ChildBoundsIndex.build(this);
+            }
+            from = _childBoundsIndex.from(absY);
+            to = _childBoundsIndex.to(absY);
+        }
+        for (int i = from; i < to; i++) {
             Box child = getChild(i);
             result = child.find(cssCtx, absX, absY, findAnonymous);
             if (result != null) {
@@ -0,0 +1,108 @@
+package com.earnix.webk.render;
+
+import com.earnix.webk.layout.PaintingInfo;
+
+import java.awt.Rectangle;
+
+/**
+ * Index of box children by the vertical extent of their aggregate bounds, narrowing hit testing of boxes with many
+ * children (e.g. table sections with thousands of rows) down to the children which may contain the point, found by
+ * binary search.
+ * <p>
+ * Children have to be ordered by the top of their aggregate bounds, as block content is; otherwise, or if some child
+ * has no painting info, the index covers all children. The index is valid while painting info of the parent box is
+ * not re-calculated.
+ */
+class ChildBoundsIndex {
+
+    /**
+     * Boxes with fewer children are hit tested by iterating all of them
+     */
+    static final int MIN_CHILDREN = 16;
+
+    private final PaintingInfo paintingInfo;
+    private final int childCount;
+    /**
+     * Aggregate bounds top of each child, null if children aren't indexed
+     */
+    private final int[] tops;
+    /**
+     * Maximal aggregate bounds bottom of children up to each index
+     */
+    private final int[] maxBottoms;
+
+    private ChildBoundsIndex(PaintingInfo paintingInfo, int childCount, int[] tops, int[] maxBottoms) {
+        this.paintingInfo = paintingInfo;
+        this.childCount = childCount;
+        this.tops = tops;
+        this.maxBottoms = maxBottoms;
+    }
+
+    static ChildBoundsIndex build(Box box) {
+        int count = box.getChildCount();
+        int[] tops = new int[count];
+        int[] maxBottoms = new int[count];
+        for (int i = 0; i < count; i++) {
+            PaintingInfo info = box.getChild(i).getPaintingInfo();
+            if (info == null) {
+                return new ChildBoundsIndex(box.getPaintingInfo(), count, null, null);
+            }
+            Rectangle bounds = info.getAggregateBounds();
+            tops[i] = bounds.y;
+            maxBottoms[i] = bounds.y + bounds.height;
+            if (i > 0) {
+                if (tops[i] < tops[i - 1]) {
+                    return new ChildBoundsIndex(box.getPaintingInfo(), count, null, null);
+                }
+                maxBottoms[i] = Math.max(maxBottoms[i], maxBottoms[i - 1]);
+            }
+        }
+        return new ChildBoundsIndex(box.getPaintingInfo(), count, tops, maxBottoms);
+    }
+
+    boolean isValidFor(Box box) {
+        return box.getPaintingInfo() == paintingInfo && box.getChildCount() == childCount;
+    }
+
+    /**
+     * @return index of the first child which may contain the vertical coordinate
+     */
+    int from(int absY) {
+        if (tops == null) {
+            return 0;
+        }
+        // first child whose bottom, or bottom of any child before it, is below the point
+        int low = 0;
+        int high = childCount;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (maxBottoms[middle] <= absY) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * @return index after the last child which may contain the vertical coordinate
+     */
+    int to(int absY) {
+        if (tops == null) {
+            return childCount;
+        }
+        // first child starting below the point
+        int low = 0;
+        int high = childCount;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (tops[middle] <= absY) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+}
@@ -0,0 +1,83 @@
+package com.earnix.webk.resource;
+
+import com.earnix.webk.context.StyleReference;
+import com.earnix.webk.css.sheet.StylesheetInfo;
+import com.earnix.webk.extend.NamespaceHandler;
+import com.earnix.webk.extend.UserAgentCallback;
+import com.earnix.webk.runtime.dom.impl.ElementImpl;
+import com.earnix.webk.runtime.html.impl.DocumentImpl;
+import com.earnix.webk.swing.NaiveUserAgent;
+import com.earnix.webk.util.ImageUtil;
+import com.earnix.webk.util.XRLog;
+import org.apache.commons.lang3.StringUtils;
+
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Finds resources a document is going to load (linked stylesheets, external scripts and images) and starts their
+ * parallel loading with {@link SharedHttpClient#prefetch(String)}, so rendering and scripts then read them in
+ * document order without waiting for each round trip. Stylesheets and images cached already are not prefetched, as
+ * they are not going to be opened.
+ */
+public class PreloadScanner {
+
+    private PreloadScanner() {
+    }
+
+    /**
+     * @param medium media type of the rendering, stylesheets for other media are not loaded
+     * @return count of prefetched resources
+     */
+    public static int scan(DocumentImpl doc, NamespaceHandler nsh, StyleReference css, String medium,
+                           UserAgentCallback uac, SharedHttpClient httpClient) {
+        httpClient.clearPrefetched();
+
+        Set<String> uris = new LinkedHashSet<>();
+        for (StylesheetInfo info : nsh.getStylesheets(doc)) {
+            if (info.getStylesheet() == null && info.getUri() != null && info.appliesToMedia(medium)) {
+                String resolved = uac.resolveURI(info.getUri());
+                if (resolved != null && !css.isStylesheetCached(resolved)) {
+                    uris.add(resolved);
+                }
+            }
+        }
+        doc.walkElementsTree(e -> {
+            String uri = getResourceUri(e);
+            if (StringUtils.isNotBlank(uri)) {
+                String resolved = uac.resolveURI(uri);
+                if (resolved != null && !(isImage(e) && uac instanceof NaiveUserAgent
+                        && ((NaiveUserAgent) uac).isImageCached(resolved))) {
+                    uris.add(resolved);
+                }
+            }
+        });
+
+        int count = 0;
+        for (String uri : uris) {
+            if (uri.startsWith("http:") || uri.startsWith("https:")) {
+                httpClient.prefetch(uri);
+                count++;
+            }
+        }
+        XRLog.load("Prefetching " + count + " resources");
+        return count;
+    }
+
+    private static boolean isImage(ElementImpl e) {
+        return "img".equals(e.nodeName().toLowerCase(Locale.ROOT));
+    }
+
+    private static String getResourceUri(ElementImpl e) {
+        switch (e.nodeName().toLowerCase(Locale.ROOT)) {
+            case "script":
+                return e.attr("src");
+            case "img":
+                String src = e.attr("src");
+                return ImageUtil.isEmbeddedBase64Image(src) ? null : src;
+            default:
+                return null;
+        }
+    }
+}
@@ -0,0 +1,169 @@
+package com.earnix.webk.resource;
+
+import com.earnix.webk.util.Configuration;
+import lombok.AccessLevel;
+import lombok.experimental.FieldDefaults;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.io.IOUtils;
+import org.apache.http.HttpEntity;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.cache.CacheConfig;
+import org.apache.http.impl.client.cache.CachingHttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+
+import java.io.ByteArrayInputStream;
+import java.io.Closeable;
+import java.io.FileNotFoundException;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * HTTP client of resource loading and scripts (XMLHttpRequest) of a {@link com.earnix.webk.layout.SharedContext}.
+ * <p>
+ * All instances use one client of the process, created on first use and never closed, so contexts don't hold their
+ * own connection pools and idle connection evictor threads. Its connections are pooled and kept alive
+ * ({@code xr.http.max-connections}, {@code xr.http.max-connections-per-route}), idle ones are closed after
+ * {@code xr.http.idle-timeout} seconds. Responses are cached in memory following {@code Cache-Control},
+ * {@code Expires} and validators ({@code ETag}, {@code Last-Modified}), see {@code xr.http.cache.max-entries} and
+ * {@code xr.http.cache.max-object-size}.
+ * <p>
+ * Resources may be requested in advance with {@link #prefetch(String)}: they are loaded in parallel by
+ * {@code xr.http.prefetch-threads} threads and handed over by the following {@link #openStream(String)} of the same
+ * instance.
+ */
+@Slf4j
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class SharedHttpClient implements Closeable {
+
+    private static final ExecutorService PREFETCH_EXECUTOR = Executors.newFixedThreadPool(
+            Configuration.valueAsInt("xr.http.prefetch-threads", 6),
+            runnable -> {
+                Thread thread = new Thread(runnable, "resource-prefetch");
+                thread.setDaemon(true);
+                return thread;
+            });
+
+    /**
+     * Content of prefetched resources by URI, removed once opened
+     */
+    final Map<String, Future<byte[]>> prefetched = new ConcurrentHashMap<>();
+
+    /**
+     * @return pooled caching client of the process, to be used for any number of requests, never closed by callers
+     */
+    public CloseableHttpClient getClient() {
+        return ClientHolder.CLIENT;
+    }
+
+    /**
+     * Performs GET request, or returns content loaded by {@link #prefetch(String)}.
+     *
+     * @return response body, closing it releases the connection back to the pool
+     * @throws FileNotFoundException if server responds with an error status
+     */
+    public InputStream openStream(String uri) throws IOException {
+        Future<byte[]> content = prefetched.remove(uri);
+        if (content != null) {
+            try {
+                return new ByteArrayInputStream(content.get());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException(uri);
+            } catch (CancellationException e) {
+                // dropped before loaded, loading now
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof IOException) {
+                    throw (IOException) e.getCause();
+                }
+                log.debug("Prefetch of {} failed", uri, e.getCause());
+            }
+        }
+        return load(uri);
+    }
+
+    /**
+     * Starts loading of resource in background, unless it is already being loaded; content is kept until opened
+     * by {@link #openStream(String)} or dropped by {@link #clearPrefetched()}.
+     */
+    public void prefetch(String uri) {
+        prefetched.computeIfAbsent(uri, key -> PREFETCH_EXECUTOR.submit(() -> {
+            try (InputStream stream = load(key)) {
+                return IOUtils.toByteArray(stream);
+            }
+        }));
+    }
+
+    /**
+     * Drops prefetched resources which were not opened, e.g. on navigation to another document.
+     */
+    public void clearPrefetched() {
+        prefetched.values().forEach(content -> content.cancel(false));
+        prefetched.clear();
+    }
+
+    private InputStream load(String uri) throws IOException {
+        CloseableHttpResponse response = getClient().execute(new HttpGet(uri));
+        int status = response.getStatusLine().getStatusCode();
+        HttpEntity entity = response.getEntity();
+        if (status >= 400 || entity == null) {
+            response.close();
+            if (status >= 400) {
+                throw new FileNotFoundException(uri + ": " + response.getStatusLine());
+            }
+            return new ByteArrayInputStream(new byte[0]);
+        }
+        return new FilterInputStream(entity.getContent()) {
+            @Override
+            public void close() throws IOException {
+                try {
+                    super.close();
+                } finally {
+                    response.close();
+                }
+            }
+        };
+    }
+
+    /**
+     * Drops prefetched resources, the shared client stays open for other instances.
+     */
+    @Override
+    public void close() {
+        clearPrefetched();
+    }
+
+    private static class ClientHolder {
+        static final CloseableHttpClient CLIENT = createClient();
+    }
+
+    private static CloseableHttpClient createClient() {
+        PoolingHttpClientConnectionManager connectionManager = new PoolingHttpClientConnectionManager();
+        connectionManager.setMaxTotal(Configuration.valueAsInt("xr.http.max-connections", 64));
+        connectionManager.setDefaultMaxPerRoute(Configuration.valueAsInt("xr.http.max-connections-per-route", 8));
+
+        CacheConfig cacheConfig = CacheConfig.custom()
+                .setSharedCache(false)
+                .setMaxCacheEntries(Configuration.valueAsInt("xr.http.cache.max-entries", 1000))
+                .setMaxObjectSize(Configuration.valueAsInt("xr.http.cache.max-object-size", 1024 * 1024))
+                .build();
+
+        return CachingHttpClients.custom()
+                .setCacheConfig(cacheConfig)
+                .setConnectionManager(connectionManager)
+                .evictExpiredConnections()
+                .evictIdleConnections(Configuration.valueAsInt("xr.http.idle-timeout", 30), TimeUnit.SECONDS)
+                .build();
+    }
+}
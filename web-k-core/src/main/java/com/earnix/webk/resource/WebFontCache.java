@@ -0,0 +1,193 @@
+package com.earnix.webk.resource;
+
+import com.earnix.webk.extend.UserAgentCallback;
+import com.earnix.webk.util.Configuration;
+import com.earnix.webk.util.XRLog;
+
+import javax.xml.bind.DatatypeConverter;
+import java.awt.Font;
+import java.awt.FontFormatException;
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.PosixFilePermission;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.nio.file.attribute.UserPrincipal;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.logging.Level;
+
+/**
+ * Fonts of {@code @font-face} rules, shared by all documents and panels. Each URI is fetched once in background by
+ * {@code xr.fonts.load-threads} threads; the data is stored in the {@code xr.fonts.cache-dir} directory under the
+ * SHA-256 hash of its content and decoded from that file, so equal fonts served by different URIs, or by earlier runs,
+ * are decoded once and not copied to a temporary file by {@link Font#createFont(int, java.io.InputStream)}. Stored
+ * files are used only if their content equals the loaded data, and only from a directory private to the user.
+ */
+public class WebFontCache {
+
+    private static final ExecutorService LOAD_EXECUTOR = Executors.newFixedThreadPool(
+            Configuration.valueAsInt("xr.fonts.load-threads", 2),
+            runnable -> {
+                Thread thread = new Thread(runnable, "font-loader");
+                thread.setDaemon(true);
+                return thread;
+            });
+
+    /**
+     * Loading or loaded fonts by URI, completed with null if the font could not be decoded
+     */
+    private static final Map<String, CompletableFuture<Font>> fontsByUri = new ConcurrentHashMap<>();
+    /**
+     * Decoded fonts of size 1 by content hash
+     */
+    private static final Map<String, Font> fontsByHash = new ConcurrentHashMap<>();
+
+    private WebFontCache() {
+    }
+
+    /**
+     * @return font of size 1 loaded from given URI before, null if not loaded yet
+     */
+    public static Font getLoaded(String uri) {
+        CompletableFuture<Font> future = fontsByUri.get(uri);
+        return future == null ? null : future.getNow(null);
+    }
+
+    /**
+     * Starts loading of the font unless it is loaded or being loaded already. Fonts which can't be decoded are not
+     * loaded again; fetch failures are not cached, the font is fetched again by the next call.
+     *
+     * @return font of size 1, completed with null if the font could not be fetched or decoded
+     */
+    public static CompletableFuture<Font> load(String uri, UserAgentCallback uac) {
+        CompletableFuture<Font> future = fontsByUri.get(uri);
+        if (future == null) {
+            CompletableFuture<Font> created = new CompletableFuture<>();
+            future = fontsByUri.putIfAbsent(uri, created);
+            if (future == null) {
+                future = created;
+                LOAD_EXECUTOR.execute(() -> {
+                    byte[] data = uac.getBinaryResource(uri);
+                    if (data == null || data.length == 0) {
+                        XRLog.load(Level.WARNING, "Unable to load font " + uri);
+                        fontsByUri.remove(uri, created);
+                        created.complete(null);
+                    } else {
+                        created.complete(decode(uri, data));
+                    }
+                });
+            }
+        }
+        return future;
+    }
+
+    private static Font decode(String uri, byte[] data) {
+        try {
+            return decode(data);
+        } catch (IOException | FontFormatException e) {
+            XRLog.load(Level.WARNING, "Unable to decode font " + uri, e);
+            return null;
+        }
+    }
+
+    /**
+     * @param data TrueType or OpenType font
+     * @return font of size 1, decoded once per content
+     */
+    public static Font decode(byte[] data) throws IOException, FontFormatException {
+        String hash = hash(data);
+        Font font = fontsByHash.get(hash);
+        if (font == null) {
+            synchronized (fontsByHash) {
+                font = fontsByHash.get(hash);
+                if (font == null) {
+                    File file;
+                    try {
+                        file = store(hash, data);
+                    } catch (IOException e) {
+                        XRLog.load(Level.WARNING, "Unable to store font in the font cache directory", e);
+                        file = null;
+                    }
+                    font = file == null
+                            ? Font.createFont(Font.TRUETYPE_FONT, new ByteArrayInputStream(data))
+                            : Font.createFont(Font.TRUETYPE_FONT, file);
+                    fontsByHash.put(hash, font);
+                }
+            }
+        }
+        return font;
+    }
+
+    /**
+     * Writes the data to the cache directory unless a file of the hash with equal content is there already.
+     *
+     * @return file named by the content hash
+     * @throws IOException if the file can't be written, or the directory is writable by other users
+     */
+    static File store(String hash, byte[] data) throws IOException {
+        Path directory = getCacheDirectory();
+        Path file = directory.resolve(hash + ".font");
+        if (Files.isRegularFile(file, LinkOption.NOFOLLOW_LINKS) && Files.size(file) == data.length
+                && Arrays.equals(data, Files.readAllBytes(file))) {
+            return file.toFile();
+        }
+        // written aside and moved, so other processes never decode a partially written file
+        Path temp = Files.createTempFile(directory, hash, ".tmp");
+        try {
+            Files.write(temp, data);
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+        return file.toFile();
+    }
+
+    /**
+     * @return {@code xr.fonts.cache-dir}, by default a directory of the current user in the temporary directory;
+     * created accessible to the owner only, where file permissions are supported
+     * @throws IOException if the directory can't be created, or is not owned by the current user or writable by others
+     */
+    private static Path getCacheDirectory() throws IOException {
+        String defaultDirectory = new File(System.getProperty("java.io.tmpdir"),
+                "webk-fonts-" + System.getProperty("user.name")).getPath();
+        Path directory = Paths.get(Configuration.valueFor("xr.fonts.cache-dir", defaultDirectory));
+        if (!directory.getFileSystem().supportedFileAttributeViews().contains("posix")) {
+            Files.createDirectories(directory);
+            return directory;
+        }
+        if (!Files.isDirectory(directory, LinkOption.NOFOLLOW_LINKS)) {
+            Files.createDirectories(directory,
+                    PosixFilePermissions.asFileAttribute(PosixFilePermissions.fromString("rwx------")));
+        }
+        UserPrincipal user = directory.getFileSystem().getUserPrincipalLookupService()
+                .lookupPrincipalByName(System.getProperty("user.name"));
+        Set<PosixFilePermission> permissions = Files.getPosixFilePermissions(directory, LinkOption.NOFOLLOW_LINKS);
+        if (!user.equals(Files.getOwner(directory, LinkOption.NOFOLLOW_LINKS))
+                || permissions.contains(PosixFilePermission.GROUP_WRITE)
+                || permissions.contains(PosixFilePermission.OTHERS_WRITE)) {
+            throw new IOException("Font cache directory " + directory + " is not private to the current user");
+        }
+        return directory;
+    }
+
+    static String hash(byte[] data) {
+        try {
+            return DatatypeConverter.printHexBinary(MessageDigest.getInstance("SHA-256").digest(data)).toLowerCase();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,269 @@
+package com.earnix.webk.runtime;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.experimental.FieldDefaults;
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+
+import javax.swing.SwingUtilities;
+import javax.swing.Timer;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.LongSupplier;
+
+/**
+ * HTML-like event loop of the script context, running on the Swing event dispatch thread.
+ * <p>
+ * Single turn of the loop runs all due timers and queued tasks, performing microtask checkpoint after each of them,
+ * and then updates rendering once. Timers are kept in one heap and woken up by one Swing timer; wake-ups are
+ * postponed by {@link #TIMER_SLACK_MILLIS}, so timers due at nearly the same moment are run by the same turn and
+ * cause single relayout.
+ * <p>
+ * Except {@link #queueTask(Runnable)}, methods should be called on the event dispatch thread.
+ */
+@Slf4j
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class EventLoop {
+
+    /**
+     * Minimal period of repeating timers
+     */
+    public static final int MIN_INTERVAL_MILLIS = 4;
+
+    /**
+     * Maximal delay of timer callbacks used to coalesce them into a single turn
+     */
+    public static final int TIMER_SLACK_MILLIS = 4;
+
+    final Runnable renderingUpdate;
+    final LongSupplier clock;
+
+    final PriorityQueue<ScheduledTimer> timerHeap = new PriorityQueue<>();
+    final HashMap<Integer, ScheduledTimer> timers = new HashMap<>();
+    final Queue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+    final ArrayDeque<Runnable> microtasks = new ArrayDeque<>();
+    final AtomicBoolean turnRequested = new AtomicBoolean();
+    final Timer wakeUp;
+
+    int nextHandle = 1;
+    long nextSequence;
+    boolean inTurn;
+
+    /**
+     * Count of completed turns
+     */
+    @Getter
+    int turnCount;
+
+    /**
+     * @param renderingUpdate called once at the end of each turn to apply document changes to the rendered view
+     */
+    public EventLoop(Runnable renderingUpdate) {
+        this(renderingUpdate, System::nanoTime);
+    }
+
+    /**
+     * @param clock source of current time in nanoseconds
+     */
+    EventLoop(Runnable renderingUpdate, LongSupplier clock) {
+        this.renderingUpdate = renderingUpdate;
+        this.clock = clock;
+        wakeUp = new Timer(0, e -> runTurn());
+        wakeUp.setRepeats(false);
+    }
+
+    /**
+     * Schedules callback to be run after given timeout.
+     *
+     * @param timeout delay in milliseconds
+     * @param repeat  whether callback should be repeated with period of timeout
+     * @return unique positive handle of the timer, see {@link #clearTimer(int)}
+     */
+    public int setTimer(Runnable callback, int timeout, boolean repeat) {
+        long interval = TimeUnit.MILLISECONDS.toNanos(Math.max(timeout, repeat ? MIN_INTERVAL_MILLIS : 0));
+        val timer = new ScheduledTimer(nextHandle++, callback, repeat ? interval : 0);
+        timer.dueTime = clock.getAsLong() + interval;
+        timer.sequence = nextSequence++;
+        timers.put(timer.handle, timer);
+        timerHeap.add(timer);
+        if (!inTurn) {
+            scheduleWakeUp();
+        }
+        return timer.handle;
+    }
+
+    /**
+     * Cancels timer with given handle, does nothing if there is no such timer.
+     */
+    public void clearTimer(int handle) {
+        val timer = timers.remove(handle);
+        if (timer != null) {
+            timer.cancelled = true;
+            timerHeap.remove(timer);
+        } else {
+            log.trace("No timer to cancel for handle {}", handle);
+        }
+    }
+
+    /**
+     * Queues task to be run by the next turn. May be called from any thread.
+     */
+    public void queueTask(Runnable task) {
+        tasks.add(task);
+        requestTurn();
+    }
+
+    /**
+     * Queues microtask to be run right after currently running task, or as soon as possible if there is none.
+     */
+    public void queueMicrotask(Runnable microtask) {
+        microtasks.add(microtask);
+        if (!inTurn) {
+            requestTurn();
+        }
+    }
+
+    /**
+     * Drops all timers and tasks, e.g. on navigation to another document.
+     */
+    public void clear() {
+        wakeUp.stop();
+        timers.values().forEach(t -> t.cancelled = true);
+        timers.clear();
+        timerHeap.clear();
+        tasks.clear();
+        microtasks.clear();
+    }
+
+    void runTurn() {
+        turnRequested.set(false);
+        if (inTurn) {
+            // nested event loop of a modal dialog opened by script
+            return;
+        }
+        inTurn = true;
+        try {
+            performMicrotaskCheckpoint();
+
+            long now = clock.getAsLong();
+            List<ScheduledTimer> due = new ArrayList<>();
+            while (!timerHeap.isEmpty() && timerHeap.peek().dueTime <= now) {
+                due.add(timerHeap.poll());
+            }
+            for (ScheduledTimer timer : due) {
+                // could be cleared by previous callback
+                if (timer.cancelled) {
+                    continue;
+                }
+                if (timer.interval > 0) {
+                    // missed periods are skipped rather than run in a burst
+                    timer.dueTime = Math.max(timer.dueTime + timer.interval, now + 1);
+                    timer.sequence = nextSequence++;
+                    timerHeap.add(timer);
+                } else {
+                    timers.remove(timer.handle);
+                }
+                run(timer.callback);
+            }
+
+            for (int i = tasks.size(); i > 0; i--) {
+                val task = tasks.poll();
+                if (task == null) {
+                    break;
+                }
+                run(task);
+            }
+
+            try {
+                renderingUpdate.run();
+            } catch (RuntimeException e) {
+                log.error("Rendering update failed", e);
+            }
+            turnCount++;
+        } finally {
+            inTurn = false;
+            scheduleWakeUp();
+            if (!tasks.isEmpty() || !microtasks.isEmpty()) {
+                requestTurn();
+            }
+        }
+    }
+
+    private void run(Runnable task) {
+        try {
+            task.run();
+        } catch (RuntimeException e) {
+            log.error("Uncaught error in event loop task", e);
+        }
+        performMicrotaskCheckpoint();
+    }
+
+    /**
+     * Runs all queued microtasks, including ones queued while running them.
+     */
+    public void performMicrotaskCheckpoint() {
+        Runnable microtask;
+        while ((microtask = microtasks.poll()) != null) {
+            try {
+                microtask.run();
+            } catch (RuntimeException e) {
+                log.error("Uncaught error in microtask", e);
+            }
+        }
+    }
+
+    private void scheduleWakeUp() {
+        val next = timerHeap.peek();
+        if (next == null) {
+            wakeUp.stop();
+            return;
+        }
+        long delay = TimeUnit.NANOSECONDS.toMillis(Math.max(0, next.dueTime - clock.getAsLong()) + 999_999);
+        wakeUp.setInitialDelay((int) Math.min(Integer.MAX_VALUE, delay + TIMER_SLACK_MILLIS));
+        wakeUp.restart();
+    }
+
+    private void requestTurn() {
+        if (turnRequested.compareAndSet(false, true)) {
+            SwingUtilities.invokeLater(this::runTurn);
+        }
+    }
+
+    @FieldDefaults(level = AccessLevel.PRIVATE)
+    private static class ScheduledTimer implements Comparable<ScheduledTimer> {
+        final int handle;
+        final Runnable callback;
+
+        /**
+         * Period in nanoseconds for repeating timers, 0 otherwise
+         */
+        final long interval;
+        long dueTime;
+
+        /**
+         * Keeps order of timers due at the same time
+         */
+        long sequence;
+        boolean cancelled;
+
+        ScheduledTimer(int handle, Runnable callback, long interval) {
+            this.handle = handle;
+            this.callback = callback;
+            this.interval = interval;
+        }
+
+        @Override
+        public int compareTo(ScheduledTimer o) {
+            int result = Long.compare(dueTime, o.dueTime);
+            return result != 0 ? result : Long.compare(sequence, o.sequence);
+        }
+    }
+}
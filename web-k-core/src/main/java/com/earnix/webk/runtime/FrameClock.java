@@ -0,0 +1,203 @@
+package com.earnix.webk.runtime;
+
+import com.earnix.webk.swing.RootPanel;
+import com.earnix.webk.util.Configuration;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.experimental.FieldDefaults;
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+
+import javax.swing.Timer;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.DoubleConsumer;
+import java.util.function.LongSupplier;
+
+/**
+ * Vsync-like clock producing animation frames at fixed rate (see {@code xr.animation.frame-rate}) while there are
+ * pending animation frame callbacks.
+ * <p>
+ * Each frame runs the callbacks, applies document changes and paints the panel synchronously, so all changes made by
+ * the callbacks are rendered by a single style, layout and paint pass. Frames are aligned to the clock grid; if a frame
+ * overruns its budget, grid ticks falling into it are skipped rather than run late.
+ * <p>
+ * Timing of the frame phases is available through {@link #getLastFrame()} and the counters, for monitoring.
+ * Methods should be called on the event dispatch thread.
+ */
+@Slf4j
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class FrameClock {
+
+    final RootPanel panel;
+    final EventLoop eventLoop;
+    final LongSupplier clock;
+    final Timer ticker;
+
+    /**
+     * Frame interval in nanoseconds
+     */
+    @Getter
+    final long frameBudgetNanos;
+
+    LinkedHashMap<Integer, DoubleConsumer> callbacks = new LinkedHashMap<>();
+    LinkedHashMap<Integer, DoubleConsumer> runningCallbacks = new LinkedHashMap<>();
+    int nextHandle = 1;
+    long timeOrigin;
+    boolean inFrame;
+    long layoutNanos;
+    long paintNanos;
+
+    @Getter
+    FrameTiming lastFrame;
+
+    /**
+     * Count of produced frames
+     */
+    @Getter
+    long frameCount;
+
+    /**
+     * Count of clock ticks skipped because of previous frame overrun
+     */
+    @Getter
+    long skippedFrames;
+
+    /**
+     * Count of frames which took longer than {@link #getFrameBudgetNanos()}
+     */
+    @Getter
+    long overBudgetFrames;
+
+    public FrameClock(RootPanel panel, EventLoop eventLoop) {
+        this(panel, eventLoop, System::nanoTime);
+    }
+
+    FrameClock(RootPanel panel, EventLoop eventLoop, LongSupplier clock) {
+        this.panel = panel;
+        this.eventLoop = eventLoop;
+        this.clock = clock;
+        int frameRate = Math.max(1, Configuration.valueAsInt("xr.animation.frame-rate", 60));
+        frameBudgetNanos = TimeUnit.SECONDS.toNanos(1) / frameRate;
+        timeOrigin = clock.getAsLong();
+        ticker = new Timer(0, e -> runFrame());
+        ticker.setRepeats(false);
+    }
+
+    /**
+     * Registers callback to be run before the next frame is rendered.
+     *
+     * @param callback receives frame start time, see {@link #now()}
+     * @return unique positive handle of the request, see {@link #cancel(int)}
+     */
+    public int request(DoubleConsumer callback) {
+        int handle = nextHandle++;
+        callbacks.put(handle, callback);
+        if (!inFrame && !ticker.isRunning()) {
+            scheduleFrame();
+        }
+        return handle;
+    }
+
+    public void cancel(int handle) {
+        callbacks.remove(handle);
+        runningCallbacks.remove(handle);
+    }
+
+    /**
+     * Drops pending callbacks and restarts time origin, e.g. on navigation to another document.
+     */
+    public void clear() {
+        ticker.stop();
+        callbacks.clear();
+        runningCallbacks.clear();
+        timeOrigin = clock.getAsLong();
+    }
+
+    /**
+     * @return milliseconds since time origin of the document
+     */
+    public double now() {
+        return toMillis(clock.getAsLong());
+    }
+
+    /**
+     * Accounts layout time to the current frame, if there is one.
+     */
+    public void recordLayout(long nanos) {
+        if (inFrame) {
+            layoutNanos += nanos;
+        }
+    }
+
+    /**
+     * Accounts paint time to the current frame, if there is one.
+     */
+    public void recordPaint(long nanos) {
+        if (inFrame) {
+            paintNanos += nanos;
+        }
+    }
+
+    void runFrame() {
+        if (inFrame || callbacks.isEmpty()) {
+            return;
+        }
+        inFrame = true;
+        layoutNanos = 0;
+        paintNanos = 0;
+        long start = clock.getAsLong();
+        try {
+            val time = toMillis(start);
+            runningCallbacks = callbacks;
+            callbacks = new LinkedHashMap<>();
+            for (Integer handle : new ArrayList<>(runningCallbacks.keySet())) {
+                // could be cancelled by previous callback
+                val callback = runningCallbacks.remove(handle);
+                if (callback != null) {
+                    try {
+                        callback.accept(time);
+                    } catch (RuntimeException e) {
+                        log.error("Uncaught error in animation frame callback", e);
+                    }
+                    eventLoop.performMicrotaskCheckpoint();
+                }
+            }
+            long scriptEnd = clock.getAsLong();
+
+            panel.update();
+            long styleEnd = clock.getAsLong();
+
+            if (panel.isShowing()) {
+                panel.paintImmediately(panel.getVisibleRect());
+            }
+
+            frameCount++;
+            lastFrame = new FrameTiming(frameCount, scriptEnd - start, styleEnd - scriptEnd, layoutNanos, paintNanos);
+            if (lastFrame.getTotalNanos() > frameBudgetNanos) {
+                overBudgetFrames++;
+            }
+            // ticks passed while this frame was running
+            skippedFrames += (clock.getAsLong() - start) / frameBudgetNanos;
+        } finally {
+            inFrame = false;
+            if (!callbacks.isEmpty()) {
+                scheduleFrame();
+            }
+        }
+    }
+
+    private void scheduleFrame() {
+        long now = clock.getAsLong();
+        long elapsed = now - timeOrigin;
+        long next = timeOrigin + (elapsed / frameBudgetNanos + 1) * frameBudgetNanos;
+        long delay = TimeUnit.NANOSECONDS.toMillis(next - now + 999_999);
+        ticker.setInitialDelay((int) delay);
+        ticker.restart();
+    }
+
+    private double toMillis(long nanos) {
+        return (nanos - timeOrigin) / 1_000_000d;
+    }
+}
@@ -0,0 +1,33 @@
+package com.earnix.webk.runtime;
+
+import lombok.Value;
+
+/**
+ * Time spent on phases of a single animation frame, in nanoseconds.
+ *
+ * @see FrameClock#getLastFrame()
+ */
+@Value
+public class FrameTiming {
+
+    /**
+     * Sequential number of the frame, starting from 1
+     */
+    long frame;
+
+    /**
+     * Running animation frame callbacks, including microtasks queued by them
+     */
+    long scriptNanos;
+
+    /**
+     * Applying document changes to the box tree, see {@link com.earnix.webk.swing.RootPanel#update()}
+     */
+    long styleNanos;
+    long layoutNanos;
+    long paintNanos;
+
+    public long getTotalNanos() {
+        return scriptNanos + styleNanos + layoutNanos + paintNanos;
+    }
+}
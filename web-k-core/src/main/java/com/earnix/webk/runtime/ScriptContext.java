@@ -1,6 +1,7 @@
 package com.earnix.webk.runtime;
 
 import com.earnix.webk.event.DocumentListener;
+import com.earnix.webk.runtime.dom.impl.AbortControllerImpl;
 import com.earnix.webk.runtime.html.canvas.impl.CanvasGradientImpl;
 import com.earnix.webk.runtime.html.canvas.impl.CanvasPatternImpl;
 import com.earnix.webk.runtime.html.impl.DocumentImpl;
@@ -19,8 +20,7 @@ import com.earnix.webk.swing.BasicPanel;
 import jdk.nashorn.api.scripting.AbstractJSObject;
 import jdk.nashorn.api.scripting.NashornException;
 import jdk.nashorn.api.scripting.NashornScriptEngine;
-import jdk.nashorn.api.scripting.NashornScriptEngineFactory;
-import jdk.nashorn.api.scripting.URLReader;
+import jdk.nashorn.api.scripting.ScriptObjectMirror;
 import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.experimental.FieldDefaults;
@@ -32,10 +32,8 @@ import org.apache.commons.lang3.StringUtils;
 import javax.script.ScriptException;
 import javax.swing.SwingUtilities;
 import java.lang.reflect.InvocationTargetException;
-import java.util.ArrayList;
-import java.util.List;
+import java.nio.ByteBuffer;
 
-import static com.earnix.webk.util.GeneralUtil.getJavascriptES6Status;
 import static javax.script.ScriptContext.ENGINE_SCOPE;
 
 /**
@@ -46,7 +44,10 @@ import static javax.script.ScriptContext.ENGINE_SCOPE;
 @FieldDefaults(level = AccessLevel.PRIVATE)
 public class ScriptContext implements DocumentListener {
     //    static ScriptContext instance;
-    @Getter NashornScriptEngine engine;
+    /**
+     * Engine shared by the whole JVM, scripts of this document are evaluated with its own {@link #context}
+     */
+    NashornScriptEngine engine;
     javax.script.ScriptContext context;
 
     BasicPanel panel;
@@ -58,11 +59,26 @@ public class ScriptContext implements DocumentListener {
     @Getter
     MouseEventsAdapter mouseEventsAdapter;
 
+    @Getter
+    EventLoop eventLoop;
+
+    @Getter
+    FrameClock frameClock;
+
 
     WindowImpl window;
     private WebIDLAdapter<WindowImpl> windowAdapter;
 
-    int documentHash;
+    /**
+     * Function propagating script globals to window members, see {@link #synchronize()}
+     */
+    ScriptObjectMirror globalsSynchronizer;
+
+    /**
+     * Built-ins of the global object (ArrayBuffer, JSON, Promise etc.), captured before document scripts could replace them
+     */
+    ScriptObjectMirror builtins;
+
     boolean rendered;
 
     public ScriptContext(BasicPanel panel) {
@@ -70,6 +86,8 @@ public class ScriptContext implements DocumentListener {
         // initializing mouse events translation
         eventManager = new EventManager(this);
         mouseEventsAdapter = new MouseEventsAdapter(this);
+        eventLoop = new EventLoop(panel::update);
+        frameClock = new FrameClock(panel, eventLoop);
     }
 
     public void dispatchLoadEvents() {
@@ -88,13 +106,13 @@ public class ScriptContext implements DocumentListener {
             //UIEvent.view : Window
             //UIEvent.detail : 0
 
-            storeDocumentHash();
+            val version = getDocumentVersion();
             val eventInit = new UIEventInit();
             eventInit.bubbles = false;
             eventInit.cancelable = false;
             eventInit.view = window;
             eventManager.publishEvent(window, new UIEventImpl("load", eventInit));
-            handleDocumentHashUpdate();
+            handleDocumentVersionUpdate(version);
         } else {
             SwingUtilities.invokeLater(this::dispatchLoadEvents);
         }
@@ -152,51 +170,36 @@ public class ScriptContext implements DocumentListener {
     }
 
     private void initEngine() {
-        List<String> options = new ArrayList<>();
-        options.add("--no-java");
-
-        if(getJavascriptES6Status())
-        {
-            options.add("--language=es6");
-        }
-
-        NashornScriptEngineFactory jsFactory = new NashornScriptEngineFactory();
-        engine = (NashornScriptEngine) jsFactory.getScriptEngine(options.toArray(new String[options.size()]));
-        context = engine.getContext();
+        val pool = ScriptEnginePool.getInstance();
+        engine = pool.getEngine();
+        context = pool.acquireContext();
 
         expose(CanvasGradientImpl.class);
         expose(CanvasPatternImpl.class);
         expose(XMLHttpRequestImpl.class);
         expose(EventImpl.class);
+        expose(AbortControllerImpl.class);
 
         window = new WindowImpl(this);
         windowAdapter = WebIDLAdapter.obtain(this, window);
 
         try {
-            context.setAttribute("window", engine.eval("this"), ENGINE_SCOPE);
-            context.setAttribute("self", engine.eval("this"), ENGINE_SCOPE);
+            context.setAttribute("window", engine.eval("this", context), ENGINE_SCOPE);
+            context.setAttribute("self", engine.eval("this", context), ENGINE_SCOPE);
             context.setAttribute("__win", windowAdapter, ENGINE_SCOPE);
+            builtins = (ScriptObjectMirror) pool.compileResource("/builtins.js").eval(context);
         } catch (ScriptException e) {
             throw new RuntimeException(e);
         }
 
 
-        // no way to track attributes write operation on global scope...
-        // limitation - to use "window" property
-        windowAdapter.keySet().forEach(key -> {
-            if (!key.equals("window") && !key.equals("self")) {
-                try {
-                    engine.eval("this." + key + " = " + " __win." + key + ";");
-                    engine.eval("self." + key + " = " + " __win." + key + ";");
-                } catch (ScriptException e) {
-                    throw new RuntimeException(e);
-                }
-            }
-        });
-
+        // window members are bound to globals once, as accessors delegating to window adapter
+        val keys = windowAdapter.keySet().stream()
+                .filter(key -> !key.equals("window") && !key.equals("self"))
+                .toArray(String[]::new);
         try {
-            engine.eval(new URLReader(ScriptContext.class.getResource("/symbol-polyfill.js")), context);
-            engine.eval(new URLReader(ScriptContext.class.getResource("/es6-shim.min.js")), context);
+            val bindGlobals = (ScriptObjectMirror) pool.compileResource("/window-bindings.js").eval(context);
+            globalsSynchronizer = (ScriptObjectMirror) bindGlobals.call(null, engine.eval("this", context), windowAdapter, keys);
         } catch (ScriptException e) {
             throw new RuntimeException(e);
         }
@@ -258,7 +261,6 @@ public class ScriptContext implements DocumentListener {
 //            val doc = new DocumentImpl(getPanel().getSharedContext().getBaseURL())
             nextDocument.setScriptContext(this);
             window.setDocument(nextDocument);
-            context.setAttribute("document", windowAdapter.getMember("document"), ENGINE_SCOPE);
             
             document = nextDocument;
             
@@ -268,7 +270,7 @@ public class ScriptContext implements DocumentListener {
                 val script = scripts.get(i);
                 if (StringUtils.isNotBlank(script.data())) {
                     try {
-                        eval(script.data());
+                        eval(panel.getSharedContext().getUac().getBaseURL(), script.data());
                     } catch (Exception e) {
                         log.warn("script.eval", e);
                     }
@@ -276,8 +278,9 @@ public class ScriptContext implements DocumentListener {
                     val scriptUri = script.getAttributes().get("src");
                     if (StringUtils.isNotBlank(scriptUri)) {
                         try {
-                            val scriptText = panel.getSharedContext().getUac().getScriptResource(scriptUri);
-                            eval(scriptText);
+                            val uac = panel.getSharedContext().getUac();
+                            val scriptText = uac.getScriptResource(scriptUri);
+                            eval(uac.resolveURI(scriptUri), scriptText);
                         } catch (RuntimeException e) {
                             log.debug("script.src", e);
                         }
@@ -292,23 +295,31 @@ public class ScriptContext implements DocumentListener {
     }
 
     public Object eval(String scr) {
+        return eval(() -> engine.eval(scr, context));
+    }
+
+    /**
+     * Defines global variable of the document scripts.
+     */
+    public void put(String name, Object value) {
+        context.setAttribute(name, value, ENGINE_SCOPE);
+    }
+
+    /**
+     * Evaluates document script, compiled script is cached by {@link ScriptEnginePool}.
+     *
+     * @param url location of the script, or of the document for inline scripts
+     */
+    public Object eval(String url, String scr) {
+        return eval(() -> ScriptEnginePool.getInstance().compile(String.valueOf(url), scr).eval(context));
+    }
+
+    private Object eval(ScriptEvaluation evaluation) {
         Object res;
         try {
-            res = engine.eval(scr, context);
-            windowAdapter.keySet().forEach(key -> {
-                if (!key.equals("window") && !key.equals("self")) {
-                    try {
-                        if ((Boolean) engine.eval("!!__win." + key)) {
-                            engine.eval("this." + key + " = " + " __win." + key);
-                            engine.eval("self." + key + " = " + " __win." + key);
-                        }
-                    } catch (ScriptException e) {
-                        throw new RuntimeException(e);
-                    }
-                }
-            });
+            res = evaluation.evaluate();
             synchronize();
-            panel.reset();
+            panel.update();
         } catch (ScriptException e) {
             if (e.getCause() instanceof NashornException) {
                 log.error(NashornException.getScriptStackString(e.getCause()));
@@ -318,35 +329,87 @@ public class ScriptContext implements DocumentListener {
         return res;
     }
 
+    @FunctionalInterface
+    private interface ScriptEvaluation {
+        Object evaluate() throws ScriptException;
+    }
+
     /**
-     * Updates fields of window WebIDL implementation from current fields of global Nashorn context
+     * Updates fields of window WebIDL implementation from window members re-declared by script in global Nashorn
+     * context, see window-bindings.js
      */
     private void synchronize() {
-        try {
-            engine.eval("this.__keys = Object.keys(this); for (var i = 0; i < __keys.length; i++) { var tempI = i; if "
-                    + "(this[__keys[tempI]]) this.__win[__keys[tempI]] = this[__keys[tempI]]; }");
-        } catch (ScriptException e) {
-            throw new RuntimeException(e);
-        }
+        globalsSynchronizer.call(null);
     }
     
     public WindowImpl getWindow() {
         return window;
     }
 
+    /**
+     * @return JavaScript ArrayBuffer backed by content of the given buffer, which is not copied
+     */
+    public Object newArrayBuffer(ByteBuffer buffer) {
+        return ((ScriptObjectMirror) builtins.getMember("ArrayBuffer")).newObject(buffer);
+    }
+
+    /**
+     * @return JavaScript value parsed from JSON text
+     * @throws RuntimeException if text is not valid JSON
+     */
+    public Object parseJson(String text) {
+        return ((ScriptObjectMirror) builtins.getMember("JSON")).callMember("parse", text);
+    }
+
+    /**
+     * @return JavaScript Uint8Array viewing content of the given buffer, which is not copied
+     */
+    public Object newUint8Array(ByteBuffer buffer) {
+        return ((ScriptObjectMirror) builtins.getMember("Uint8Array")).newObject(newArrayBuffer(buffer));
+    }
 
-    public void storeDocumentHash() {
-        documentHash = document != null ? document.outerHtml().hashCode() : 0;
+    /**
+     * @return new empty JavaScript object
+     */
+    public ScriptObjectMirror newObject() {
+        return (ScriptObjectMirror) ((ScriptObjectMirror) builtins.getMember("Object")).newObject();
+    }
+
+    /**
+     * @param name name of built-in error constructor, e.g. TypeError, or custom error name (e.g. AbortError)
+     * @return JavaScript error to be thrown or to reject promises with
+     */
+    public Object newError(String name, String message) {
+        if (builtins.hasMember(name)) {
+            return ((ScriptObjectMirror) builtins.getMember(name)).newObject(message);
+        }
+        val error = (ScriptObjectMirror) ((ScriptObjectMirror) builtins.getMember("Error")).newObject(message);
+        error.setMember("name", name);
+        return error;
+    }
+
+    /**
+     * @return object with pending JavaScript promise and functions settling it: {@code {promise, resolve, reject}}
+     */
+    public ScriptObjectMirror newDeferred() {
+        return (ScriptObjectMirror) builtins.callMember("defer");
+    }
+
+
+    /**
+     * @return current version of document model, see {@link #handleDocumentVersionUpdate(long)}
+     */
+    public long getDocumentVersion() {
+        return document != null ? document.getMutationJournal().getVersion() : 0;
     }
 
     /**
-     * Checks whether document model is change since last {@link #storeDocumentHash()} call and 
-     * resets browser panel (causes it's re-rendering), if so.
+     * Checks whether document model is changed since given {@link #getDocumentVersion() version} and
+     * updates browser panel (causes it's re-rendering), if so.
      */
-    public void handleDocumentHashUpdate() {
-        int currentHash = document != null ? document.outerHtml().hashCode() : 0;
-        if (documentHash != currentHash) {
-            panel.reset();
+    public void handleDocumentVersionUpdate(long version) {
+        if (document != null && document.getMutationJournal().isChangedSince(version)) {
+            panel.update();
         }
     }
 
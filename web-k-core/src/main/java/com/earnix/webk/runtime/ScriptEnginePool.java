@@ -0,0 +1,155 @@
+package com.earnix.webk.runtime;
+
+import com.earnix.webk.util.Configuration;
+import jdk.nashorn.api.scripting.NashornScriptEngine;
+import jdk.nashorn.api.scripting.NashornScriptEngineFactory;
+import jdk.nashorn.api.scripting.URLReader;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.experimental.FieldDefaults;
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+
+import javax.script.CompiledScript;
+import javax.script.ScriptException;
+import javax.script.SimpleScriptContext;
+import javax.swing.SwingUtilities;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static com.earnix.webk.util.GeneralUtil.getJavascriptES6Status;
+import static javax.script.ScriptContext.ENGINE_SCOPE;
+
+/**
+ * Nashorn engine shared by all {@link ScriptContext}s of the JVM.
+ * <p>
+ * The engine is created and polyfills are compiled once; each document gets its own global object
+ * ({@link #acquireContext()}) with polyfills already evaluated. After each acquisition the next context is prepared
+ * in advance, so navigation does not wait for polyfills. Document scripts are compiled once and cached by URL and
+ * content, see {@link #compile(String, String)}.
+ */
+@Slf4j
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class ScriptEnginePool {
+
+    private static final ConcurrentHashMap<Boolean, ScriptEnginePool> POOLS = new ConcurrentHashMap<>();
+
+    private static final String[] POLYFILLS = {"/symbol-polyfill.js", "/es6-shim.min.js"};
+
+    @Getter
+    final NashornScriptEngine engine;
+    final List<CompiledScript> polyfills = new ArrayList<>();
+    final ConcurrentHashMap<String, CompiledScript> resources = new ConcurrentHashMap<>();
+    final Map<String, CachedScript> scripts;
+    javax.script.ScriptContext spare;
+    boolean spareRequested;
+
+    /**
+     * @return pool for current JavaScript language level, see {@link com.earnix.webk.util.GeneralUtil#getJavascriptES6Status()}
+     */
+    public static ScriptEnginePool getInstance() {
+        return POOLS.computeIfAbsent(getJavascriptES6Status(), ScriptEnginePool::new);
+    }
+
+    private ScriptEnginePool(boolean es6) {
+        List<String> options = new ArrayList<>();
+        options.add("--no-java");
+        if (es6) {
+            options.add("--language=es6");
+        }
+        engine = (NashornScriptEngine) new NashornScriptEngineFactory().getScriptEngine(options.toArray(new String[0]));
+
+        for (String polyfill : POLYFILLS) {
+            polyfills.add(compileResource(polyfill));
+        }
+
+        int cacheSize = Configuration.valueAsInt("xr.script.cache-size", 64);
+        scripts = new LinkedHashMap<String, CachedScript>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedScript> eldest) {
+                return size() > cacheSize;
+            }
+        };
+    }
+
+    /**
+     * @return new script context with its own global object, polyfills evaluated
+     */
+    public synchronized javax.script.ScriptContext acquireContext() {
+        val result = spare != null ? spare : createContext();
+        spare = null;
+        if (!spareRequested) {
+            spareRequested = true;
+            SwingUtilities.invokeLater(this::prepareSpare);
+        }
+        return result;
+    }
+
+    /**
+     * Compiles script or returns previously compiled one.
+     *
+     * @param url source location of the script, cache key together with the source
+     */
+    public CompiledScript compile(String url, String source) throws ScriptException {
+        val key = url + '#' + source.hashCode();
+        synchronized (scripts) {
+            val cached = scripts.get(key);
+            if (cached != null && cached.source.equals(source)) {
+                return cached.script;
+            }
+        }
+        val script = engine.compile(source);
+        synchronized (scripts) {
+            scripts.put(key, new CachedScript(source, script));
+        }
+        return script;
+    }
+
+    /**
+     * Compiles script from classpath resource or returns previously compiled one.
+     */
+    public CompiledScript compileResource(String path) {
+        return resources.computeIfAbsent(path, p -> {
+            try {
+                return engine.compile(new URLReader(ScriptEnginePool.class.getResource(p)));
+            } catch (ScriptException e) {
+                throw new RuntimeException(e);
+            }
+        });
+    }
+
+    private synchronized void prepareSpare() {
+        spareRequested = false;
+        if (spare == null) {
+            try {
+                spare = createContext();
+            } catch (RuntimeException e) {
+                log.warn("Unable to prepare script context", e);
+            }
+        }
+    }
+
+    private javax.script.ScriptContext createContext() {
+        val context = new SimpleScriptContext();
+        context.setBindings(engine.createBindings(), ENGINE_SCOPE);
+        for (CompiledScript polyfill : polyfills) {
+            try {
+                polyfill.eval(context);
+            } catch (ScriptException e) {
+                throw new RuntimeException(e);
+            }
+        }
+        return context;
+    }
+
+    @AllArgsConstructor
+    @FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+    private static class CachedScript {
+        String source;
+        CompiledScript script;
+    }
+}
@@ -5,7 +5,6 @@ import com.earnix.webk.runtime.cssom.CSSRule;
 import com.earnix.webk.runtime.cssom.CSSStyleDeclaration;
 import com.earnix.webk.runtime.dom.impl.ElementImpl;
 import com.earnix.webk.runtime.web_idl.Attribute;
-import com.earnix.webk.runtime.dom.Element;
 import com.earnix.webk.util.XRLog;
 import com.helger.css.ECSSVersion;
 import com.helger.css.reader.CSSReaderDeclarationList;
@@ -14,8 +13,16 @@ import lombok.experimental.FieldDefaults;
 import lombok.val;
 
 import java.util.LinkedHashMap;
+import java.util.Map;
 
 /**
+ * Style declaration, either inline style of an element or a computed style.
+ * <p>
+ * Declaration of an element is the authoritative copy of its {@code style} attribute: the attribute is parsed once,
+ * changes made through the declaration are written back to the attribute at the end of the script task (see
+ * {@link com.earnix.webk.runtime.dom.impl.DocumentImpl#inlineStyleChanged(ElementImpl)}), and the attribute is parsed
+ * again only if it was changed directly.
+ *
  * @author Taras Maslov
  * 11/12/2018
  */
@@ -25,6 +32,15 @@ public class CSSStyleDeclarationImpl implements CSSStyleDeclaration {
     private final ScriptContext context;
     LinkedHashMap<String, String> map = new LinkedHashMap<>();
     ElementImpl model;
+    /**
+     * Declarations were changed and are not written to the model style attribute yet
+     */
+    boolean pending;
+    /**
+     * Model style attribute was changed directly, declarations have to be parsed again
+     */
+    boolean stale;
+    boolean writing;
 
 
     public CSSStyleDeclarationImpl(ElementImpl model, ScriptContext context) {
@@ -33,11 +49,10 @@ public class CSSStyleDeclarationImpl implements CSSStyleDeclaration {
     }
 
     /**
+     * Creates declaration not bound to an element.
      *
-     * @param css
-     * @param ctx
-     *
-     * @see com.earnix.webk.runtime.cssom.Window#getComputedStyle(Element, String)
+     * @param css declarations text
+     * @param ctx script context
      */
     public CSSStyleDeclarationImpl(String css, ScriptContext ctx) {
         setCSSText(css);
@@ -49,24 +64,28 @@ public class CSSStyleDeclarationImpl implements CSSStyleDeclaration {
         return new Attribute<String>() {
             @Override
             public String get() {
+                ensureParsed();
                 return toCSSString();
             }
 
             @Override
             public void set(String s) {
+                ensureParsed();
                 setCSSText(s);
-                synchronize();
+                changed();
             }
         };
     }
 
     @Override
     public int length() {
+        ensureParsed();
         return map.size();
     }
 
     @Override
     public String item(int index) {
+        ensureParsed();
         try {
             return (String) map.values().toArray()[index];
         } catch (ArrayIndexOutOfBoundsException e) {
@@ -77,6 +96,7 @@ public class CSSStyleDeclarationImpl implements CSSStyleDeclaration {
 
     @Override
     public String getPropertyValue(String property) {
+        ensureParsed();
         val res = map.get(toKebabCase(property));
         if (res == null) {
             return "";
@@ -92,14 +112,24 @@ public class CSSStyleDeclarationImpl implements CSSStyleDeclaration {
 
     @Override
     public void setProperty(String property, String value, String priority) {
-        map.put(toKebabCase(property), value);
-        synchronize();
+        ensureParsed();
+        val key = toKebabCase(property);
+        if (value == null || value.isEmpty()) {
+            if (map.remove(key) != null) {
+                changed();
+            }
+        } else if (!value.equals(map.put(key, value))) {
+            changed();
+        }
     }
 
     @Override
     public String removeProperty(String property) {
-        val res = map.remove(property);
-        synchronize();
+        ensureParsed();
+        val res = map.remove(toKebabCase(property));
+        if (res != null) {
+            changed();
+        }
         return res;
     }
 
@@ -114,10 +144,14 @@ public class CSSStyleDeclarationImpl implements CSSStyleDeclaration {
     }
 
     public String toCSSString() {
-        return map.entrySet()
-                .stream()
-                .map(e -> e.getKey() + ": " + e.getValue() + ";")
-                .reduce("", (a, b) -> a + " \n " + b);
+        StringBuilder result = new StringBuilder();
+        for (Map.Entry<String, String> entry : map.entrySet()) {
+            if (result.length() > 0) {
+                result.append(' ');
+            }
+            result.append(entry.getKey()).append(": ").append(entry.getValue()).append(';');
+        }
+        return result.toString();
     }
     
     public void setCSSText(String css){
@@ -130,7 +164,7 @@ public class CSSStyleDeclarationImpl implements CSSStyleDeclaration {
         }
     }
 
-    private String toKebabCase(String camel) {
+    static String toKebabCase(String camel) {
         StringBuilder result = new StringBuilder();
         for (char c : camel.toCharArray()) {
             if (Character.isUpperCase(c)) {
@@ -145,9 +179,48 @@ public class CSSStyleDeclarationImpl implements CSSStyleDeclaration {
         return result.toString();
     }
 
-    private void synchronize() {
-        if (model != null) {
+    /**
+     * Writes pending changes to the model style attribute.
+     */
+    public void writeBack() {
+        if (!pending) {
+            return;
+        }
+        pending = false;
+        writing = true;
+        try {
             model.attr("style", toCSSString());
+        } finally {
+            writing = false;
+        }
+    }
+
+    /**
+     * Invoked on change of the model style attribute.
+     */
+    public void attributeChanged() {
+        if (!writing) {
+            stale = true;
+        }
+    }
+
+    private void ensureParsed() {
+        if (stale) {
+            stale = false;
+            setCSSText(model.attr("style"));
+        }
+    }
+
+    private void changed() {
+        if (model == null || pending) {
+            return;
+        }
+        pending = true;
+        val document = model.ownerDocument();
+        if (document == null) {
+            writeBack();
+        } else {
+            document.inlineStyleChanged(model);
         }
     }
 }
@@ -0,0 +1,125 @@
+package com.earnix.webk.runtime.cssom.impl;
+
+import com.earnix.webk.css.constants.CSSName;
+import com.earnix.webk.css.style.CalculatedStyle;
+import com.earnix.webk.runtime.ScriptContext;
+import com.earnix.webk.runtime.cssom.CSSRule;
+import com.earnix.webk.runtime.cssom.CSSStyleDeclaration;
+import com.earnix.webk.runtime.dom.impl.ElementImpl;
+import com.earnix.webk.runtime.web_idl.Attribute;
+import com.earnix.webk.runtime.web_idl.DOMException;
+import lombok.AccessLevel;
+import lombok.experimental.FieldDefaults;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Read-only live view of the {@link CalculatedStyle} of an element, returned by
+ * {@link com.earnix.webk.runtime.cssom.Window#getComputedStyle(com.earnix.webk.runtime.dom.Element, String)}.
+ * <p>
+ * Properties are resolved one by one with {@link CalculatedStyle#valueByName(CSSName)} on read, pending document
+ * changes are applied to styles first. Shorthand properties have empty values.
+ */
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class ComputedStyleDeclarationImpl implements CSSStyleDeclaration {
+
+    /**
+     * Primitive property names in alphabetical order, for indexed access
+     */
+    static String[] primitiveNames;
+
+    final ElementImpl element;
+    final ScriptContext context;
+
+    public ComputedStyleDeclarationImpl(ElementImpl element, ScriptContext context) {
+        this.element = element;
+        this.context = context;
+    }
+
+    @Override
+    public Attribute<String> cssText() {
+        return new Attribute<String>() {
+            @Override
+            public String get() {
+                CalculatedStyle style = style();
+                StringBuilder result = new StringBuilder();
+                for (String name : getPrimitiveNames()) {
+                    if (result.length() > 0) {
+                        result.append(' ');
+                    }
+                    result.append(name).append(": ")
+                            .append(style.valueByName(CSSName.getByPropertyName(name))).append(';');
+                }
+                return result.toString();
+            }
+
+            @Override
+            public void set(String s) {
+                throw new DOMException("NoModificationAllowedError");
+            }
+        };
+    }
+
+    @Override
+    public int length() {
+        return getPrimitiveNames().length;
+    }
+
+    @Override
+    public String item(int index) {
+        String[] names = getPrimitiveNames();
+        return index >= 0 && index < names.length ? names[index] : "";
+    }
+
+    @Override
+    public String getPropertyValue(String property) {
+        CSSName name = CSSName.getByPropertyName(CSSStyleDeclarationImpl.toKebabCase(property));
+        if (name == null || !CSSName.isPrimitive(name)) {
+            return "";
+        }
+        return style().valueByName(name).toString();
+    }
+
+    @Override
+    public String getPropertyPriority(String property) {
+        return "";
+    }
+
+    @Override
+    public void setProperty(String property, String value, String priority) {
+        throw new DOMException("NoModificationAllowedError");
+    }
+
+    @Override
+    public String removeProperty(String property) {
+        throw new DOMException("NoModificationAllowedError");
+    }
+
+    @Override
+    public CSSRule parentRule() {
+        return null;
+    }
+
+    @Override
+    public Attribute<String> cssFloat() {
+        return null;
+    }
+
+    private CalculatedStyle style() {
+        context.getPanel().update();
+        return context.getPanel().getSharedContext().getStyle(element);
+    }
+
+    private static synchronized String[] getPrimitiveNames() {
+        if (primitiveNames == null) {
+            List<String> names = new ArrayList<>(CSSName.countCSSPrimitiveNames());
+            for (Iterator it = CSSName.allCSS2PrimitivePropertyNames(); it.hasNext(); ) {
+                names.add((String) it.next());
+            }
+            primitiveNames = names.toArray(new String[0]);
+        }
+        return primitiveNames;
+    }
+}
@@ -0,0 +1,29 @@
+package com.earnix.webk.runtime.dom.impl;
+
+import com.earnix.webk.runtime.ScriptContext;
+import com.earnix.webk.runtime.dom.AbortController;
+import com.earnix.webk.runtime.dom.AbortSignal;
+import com.earnix.webk.runtime.web_idl.Attribute;
+import lombok.AccessLevel;
+import lombok.experimental.FieldDefaults;
+
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class AbortControllerImpl implements AbortController {
+
+    AbortSignalImpl signal;
+
+    public AbortControllerImpl(ScriptContext scriptContext) {
+        signal = new AbortSignalImpl(scriptContext);
+    }
+
+    @Override
+    public Attribute<AbortSignal> signal() {
+        return Attribute.<AbortSignal>receive(value -> {
+        }).give(() -> signal);
+    }
+
+    @Override
+    public void abort() {
+        signal.signalAbort();
+    }
+}
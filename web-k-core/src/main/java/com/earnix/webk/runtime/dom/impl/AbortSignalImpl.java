@@ -0,0 +1,84 @@
+package com.earnix.webk.runtime.dom.impl;
+
+import com.earnix.webk.runtime.ScriptContext;
+import com.earnix.webk.runtime.dom.AbortSignal;
+import com.earnix.webk.runtime.dom.EventHandler;
+import com.earnix.webk.runtime.dom.EventTarget;
+import com.earnix.webk.runtime.web_idl.Attribute;
+import lombok.AccessLevel;
+import lombok.experimental.Delegate;
+import lombok.experimental.FieldDefaults;
+import lombok.val;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Signal of {@link AbortControllerImpl}. Operations observe it with abort algorithms, see {@link #addAlgorithm(Runnable)}.
+ */
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class AbortSignalImpl implements AbortSignal {
+
+    final ScriptContext scriptContext;
+
+    @Delegate(types = EventTarget.class)
+    final EventTargetImpl eventTarget;
+
+    final Level1EventTarget level1EventTarget;
+
+    final List<Runnable> algorithms = new CopyOnWriteArrayList<>();
+
+    volatile boolean aborted;
+
+    public AbortSignalImpl(ScriptContext scriptContext) {
+        this.scriptContext = scriptContext;
+        eventTarget = new EventTargetImpl(() -> scriptContext);
+        level1EventTarget = new Level1EventTarget(() -> scriptContext, eventTarget);
+    }
+
+    @Override
+    public Attribute<Boolean> aborted() {
+        return Attribute.<Boolean>receive(value -> {
+        }).give(() -> aborted);
+    }
+
+    @Override
+    public Attribute<EventHandler> onabort() {
+        return level1EventTarget.getHandlerAttribute("onabort");
+    }
+
+    public boolean isAborted() {
+        return aborted;
+    }
+
+    /**
+     * Adds algorithm to be run once the signal is aborted, on the event dispatch thread.
+     * May be called from any thread.
+     */
+    public void addAlgorithm(Runnable algorithm) {
+        algorithms.add(algorithm);
+    }
+
+    /**
+     * Removes algorithm of completed operation. May be called from any thread.
+     */
+    public void removeAlgorithm(Runnable algorithm) {
+        algorithms.remove(algorithm);
+    }
+
+    /**
+     * Runs abort algorithms and fires abort event, unless already aborted.
+     */
+    void signalAbort() {
+        if (aborted) {
+            return;
+        }
+        aborted = true;
+        algorithms.forEach(Runnable::run);
+        algorithms.clear();
+
+        val version = scriptContext.getDocumentVersion();
+        scriptContext.getEventManager().publishEvent(eventTarget, new EventImpl("abort", null));
+        scriptContext.handleDocumentVersionUpdate(version);
+    }
+}
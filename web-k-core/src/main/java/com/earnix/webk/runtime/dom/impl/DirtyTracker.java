@@ -0,0 +1,109 @@
+package com.earnix.webk.runtime.dom.impl;
+
+import lombok.AccessLevel;
+import lombok.experimental.FieldDefaults;
+
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Collects document model changes made since the last render, so the browser panel is able to restyle and re-layout
+ * only affected parts of the box tree instead of rebuilding everything.
+ * <p>
+ * Changes are tracked on two levels:
+ * <ul>
+ * <li>restyle roots - elements with changed attributes; their boxes may be kept and restyled</li>
+ * <li>rebuild roots - elements with changed children or text; their boxes have to be re-created</li>
+ * </ul>
+ * Changes of stylesheets (e.g. {@code <style>}, {@code <link>}, anything inside {@code <head>}) and of the document
+ * root require full reset of the panel.
+ *
+ * @see com.earnix.webk.swing.RootPanel#update()
+ */
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class DirtyTracker {
+
+    final Set<ElementImpl> restyleRoots = new LinkedHashSet<>();
+    final Set<ElementImpl> rebuildRoots = new LinkedHashSet<>();
+    boolean resetRequired;
+
+    /**
+     * Marks element as requiring restyle because of its attribute change.
+     */
+    public void attributeChanged(ElementImpl element, String key) {
+        if (resetRequired) {
+            return;
+        }
+        if (affectsStylesheets(element)) {
+            resetRequired = true;
+        } else {
+            restyleRoots.add(element);
+        }
+    }
+
+    /**
+     * Marks element as requiring rebuild of its boxes because its child nodes list was changed.
+     */
+    public void childrenChanged(ElementImpl parent) {
+        if (resetRequired) {
+            return;
+        }
+        if (parent instanceof DocumentImpl || parent.parent() instanceof DocumentImpl || affectsStylesheets(parent)) {
+            resetRequired = true;
+        } else {
+            rebuildRoots.add(parent);
+        }
+    }
+
+    /**
+     * Marks parent element of the given character data node (text, comment, data) as requiring rebuild.
+     */
+    public void characterDataChanged(NodeImpl node) {
+        if (node.parent() instanceof ElementImpl) {
+            childrenChanged((ElementImpl) node.parent());
+        }
+    }
+
+    /**
+     * Forces full reset on next update, e.g. on changes which are not tracked by element.
+     */
+    public void requireReset() {
+        resetRequired = true;
+    }
+
+    public boolean isDirty() {
+        return resetRequired || !restyleRoots.isEmpty() || !rebuildRoots.isEmpty();
+    }
+
+    public boolean isResetRequired() {
+        return resetRequired;
+    }
+
+    public Set<ElementImpl> getRestyleRoots() {
+        return Collections.unmodifiableSet(restyleRoots);
+    }
+
+    public Set<ElementImpl> getRebuildRoots() {
+        return Collections.unmodifiableSet(rebuildRoots);
+    }
+
+    /**
+     * Forgets all tracked changes. Called once changes are applied to the rendered view.
+     */
+    public void clear() {
+        restyleRoots.clear();
+        rebuildRoots.clear();
+        resetRequired = false;
+    }
+
+    private static boolean affectsStylesheets(ElementImpl element) {
+        for (ElementImpl e = element; e != null && !(e instanceof DocumentImpl); e = e.parent()) {
+            String tag = e.tagName();
+            if ("head".equals(tag) || "style".equals(tag) || "link".equals(tag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
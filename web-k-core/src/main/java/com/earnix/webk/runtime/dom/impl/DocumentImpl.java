@@ -1,6 +1,7 @@
 package com.earnix.webk.runtime.dom.impl;
 
 import com.earnix.webk.runtime.dom.impl.helper.Validate;
+import com.earnix.webk.runtime.dom.impl.internal.Normalizer;
 import com.earnix.webk.runtime.dom.impl.internal.StringUtil;
 import com.earnix.webk.runtime.dom.impl.nodes.Entities;
 import com.earnix.webk.runtime.dom.impl.nodes.XmlDeclarationModel;
@@ -25,12 +26,12 @@ import com.earnix.webk.runtime.dom.HTMLCollection;
 import com.earnix.webk.runtime.dom.Node;
 import com.earnix.webk.runtime.dom.NodeFilter;
 import com.earnix.webk.runtime.dom.NodeIterator;
-import com.earnix.webk.runtime.dom.NodeList;
 import com.earnix.webk.runtime.dom.ProcessingInstruction;
 import com.earnix.webk.runtime.dom.Range;
 import com.earnix.webk.runtime.dom.Text;
 import com.earnix.webk.runtime.dom.TreeWalker;
 import lombok.AccessLevel;
+import lombok.Getter;
 import lombok.Setter;
 import lombok.experimental.FieldDefaults;
 import lombok.val;
@@ -38,7 +39,9 @@ import lombok.val;
 import java.nio.charset.Charset;
 import java.nio.charset.CharsetEncoder;
 import java.util.ArrayList;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
 
 /**
  * @author Taras Maslov
@@ -54,6 +57,13 @@ public class DocumentImpl extends ElementImpl implements Document {
     private DocumentImpl.QuirksMode quirksMode = DocumentImpl.QuirksMode.noQuirks;
     String location;
     private boolean updateMetaCharset = false;
+    @Getter DirtyTracker dirtyTracker = new DirtyTracker();
+    @Getter MutationJournal mutationJournal = new MutationJournal();
+    @Getter(AccessLevel.PACKAGE) ElementIndex elementIndex = new ElementIndex(this);
+    /**
+     * Elements with inline style declaration changes not yet written to their style attribute
+     */
+    Set<ElementImpl> pendingInlineStyles = new LinkedHashSet<>();
     
     @Override
     public ScriptContext scriptContext() {
@@ -120,8 +130,7 @@ public class DocumentImpl extends ElementImpl implements Document {
 
     @Override
     public HTMLCollection getElementsByTagName(String qualifiedName) {
-        val elements = getElementsByTag(qualifiedName.toString());
-        return new HTMLCollectionImpl(elements);
+        return liveCollection("tag", qualifiedName, () -> getElementsByTag(qualifiedName));
     }
 
     @Override
@@ -131,8 +140,20 @@ public class DocumentImpl extends ElementImpl implements Document {
 
     @Override
     public HTMLCollection getElementsByClassName(String classNames) {
-        val modelElements = getElementsByClass(classNames.toString());
-        return new HTMLCollectionImpl(modelElements);
+        val names = StringUtil.normaliseWhitespace(classNames).trim().split(" ");
+        return liveCollection("class", classNames, () -> getElementsByClasses(names));
+    }
+
+    private Elements getElementsByClasses(String[] names) {
+        if (names[0].isEmpty()) {
+            return new Elements();
+        }
+        val modelElements = getElementsByClass(names[0]);
+        for (int i = 1; i < names.length; i++) {
+            val name = names[i];
+            modelElements.removeIf(e -> !e.hasClass(name));
+        }
+        return modelElements;
     }
 
     @Override
@@ -215,7 +236,7 @@ public class DocumentImpl extends ElementImpl implements Document {
 
     @Override
     public HTMLCollection children() {
-        return new HTMLCollectionImpl(getChildren());
+        return liveCollection("children", "", this::getChildren);
     }
 
     @Override
@@ -243,22 +264,6 @@ public class DocumentImpl extends ElementImpl implements Document {
 
     }
 
-    @Override
-    public Element querySelector(String selectors) {
-        val selected = select(selectors);
-        if (selected.size() > 0) {
-            return selected.first();
-        }
-        return null;
-    }
-
-    @Override
-    public NodeList querySelectorAll(String selectors) {
-        val selected = select(selectors);
-        val nodes = new ArrayList<NodeImpl>(selected);
-        return new NodeListImpl(nodes);
-    }
-    
     // region model
     
     /**
@@ -537,6 +542,99 @@ public class DocumentImpl extends ElementImpl implements Document {
         return clone;
     }
 
+    @Override
+    protected ElementImpl doClone(NodeImpl parent) {
+        DocumentImpl clone = (DocumentImpl) super.doClone(parent);
+        clone.dirtyTracker = new DirtyTracker(); // cloned children are reported to the clone's own tracker
+        clone.mutationJournal = new MutationJournal();
+        clone.elementIndex = new ElementIndex(clone);
+        clone.pendingInlineStyles = new LinkedHashSet<>();
+        return clone;
+    }
+
+    /**
+     * Finds element by id with the document {@link ElementIndex}.
+     */
+    @Override
+    public ElementImpl getElementById(String id) {
+        Validate.notEmpty(id);
+        return elementIndex.getById(id);
+    }
+
+    /**
+     * Finds elements by tag name with the document {@link ElementIndex}.
+     */
+    @Override
+    public Elements getElementsByTag(String tagName) {
+        Validate.notEmpty(tagName);
+        return new Elements(elementIndex.getByTag(Normalizer.normalize(tagName)));
+    }
+
+    /**
+     * Finds elements by class name with the document {@link ElementIndex}.
+     */
+    @Override
+    public Elements getElementsByClass(String className) {
+        Validate.notEmpty(className);
+        return new Elements(elementIndex.getByClass(className));
+    }
+
+    /**
+     * Registers a change of a node of this document in the {@link MutationJournal}, {@link DirtyTracker} and
+     * {@link ElementIndex}.
+     *
+     * @param node          changed node; for child list changes - the parent node
+     * @param type          change type
+     * @param attributeName name of changed attribute, for attribute changes
+     */
+    public void nodeChanged(NodeImpl node, MutationJournal.Type type, String attributeName) {
+        mutationJournal.record(node, type, attributeName);
+        elementIndex.nodeChanged(node, type, attributeName);
+        switch (type) {
+            case ATTRIBUTES:
+                dirtyTracker.attributeChanged((ElementImpl) node, attributeName);
+                break;
+            case CHILD_LIST:
+                dirtyTracker.childrenChanged((ElementImpl) node);
+                break;
+            case CHARACTER_DATA:
+                dirtyTracker.characterDataChanged(node);
+                break;
+        }
+    }
+
+    /**
+     * Defers writing of the changed inline style declaration of the element to its {@code style} attribute, and so
+     * the element restyle, to the end of the current script task, so changes of several properties are written once.
+     * Without script context the declaration is written immediately.
+     *
+     * @see ElementImpl#style()
+     */
+    public void inlineStyleChanged(ElementImpl element) {
+        val context = scriptContext();
+        if (context == null) {
+            element.flushInlineStyle();
+            return;
+        }
+        if (pendingInlineStyles.isEmpty()) {
+            context.getEventLoop().queueMicrotask(this::flushInlineStyles);
+        }
+        pendingInlineStyles.add(element);
+    }
+
+    /**
+     * Writes all pending inline style declarations to style attributes, see {@link #inlineStyleChanged(ElementImpl)}.
+     * Called before document changes are rendered.
+     */
+    public void flushInlineStyles() {
+        if (pendingInlineStyles.isEmpty()) {
+            return;
+        }
+        val elements = new ArrayList<>(pendingInlineStyles);
+        pendingInlineStyles.clear();
+        elements.forEach(ElementImpl::flushInlineStyle);
+    }
+
     /**
      * Ensures a meta charset (html) or xml declaration (xml) with the current
      * encoding used. This only applies with
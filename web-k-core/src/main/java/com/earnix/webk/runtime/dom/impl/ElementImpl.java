@@ -47,12 +47,14 @@ import lombok.experimental.FieldDefaults;
 import lombok.extern.slf4j.Slf4j;
 import lombok.val;
 
+import java.awt.Rectangle;
 import java.io.IOException;
 import java.lang.ref.WeakReference;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.LinkedHashSet;
 import java.util.List;
@@ -60,6 +62,7 @@ import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
 import java.util.function.Consumer;
+import java.util.function.Supplier;
 import java.util.regex.Pattern;
 import java.util.regex.PatternSyntaxException;
 
@@ -82,6 +85,14 @@ public class ElementImpl extends NodeImpl implements HTMLElement {
     private String baseUri;
 
     private WeakReference<Box> view = new WeakReference<>(null);
+    /**
+     * Declaration returned by {@link #style()}, created on first access
+     */
+    private CSSStyleDeclarationImpl inlineStyle;
+    /**
+     * Live collections of queries run from this element, by query kind and key, see {@link #liveCollection}
+     */
+    private Map<String, WeakReference<HTMLCollectionImpl>> liveCollections;
     
     // endregion
 
@@ -114,6 +125,7 @@ public class ElementImpl extends NodeImpl implements HTMLElement {
         this.baseUri = baseUri;
         this.attributes = attributes;
         this.tag = tag;
+        attachAttributes();
     }
 
     /**
@@ -184,6 +196,8 @@ public class ElementImpl extends NodeImpl implements HTMLElement {
 
     @Override
     public boolean hasAttributes() {
+        // pending style declaration changes may create the attributes
+        flushInlineStyle();
         return attributes != null;
     }
 
@@ -298,7 +312,7 @@ public class ElementImpl extends NodeImpl implements HTMLElement {
 
     @Override
     public HTMLCollection getElementsByTagName(@DOMString String qualifiedName) {
-        return new HTMLCollectionImpl(getElementsByTag(qualifiedName));
+        return liveCollection("tag", qualifiedName, () -> getElementsByTag(qualifiedName));
     }
 
     @Override
@@ -308,7 +322,7 @@ public class ElementImpl extends NodeImpl implements HTMLElement {
 
     @Override
     public HTMLCollection getElementsByClassName(@DOMString String classNames) {
-        return new HTMLCollectionImpl(getElementsByClass(classNames));
+        return liveCollection("class", classNames, () -> getElementsByClass(classNames));
     }
 
     @Override
@@ -378,7 +392,30 @@ public class ElementImpl extends NodeImpl implements HTMLElement {
 
     @Override
     public HTMLCollection children() {
-        return new HTMLCollectionImpl(getChildren());
+        return liveCollection("children", "", this::getChildren);
+    }
+
+    /**
+     * Returns live collection of the query run from this element. Calls with equal kind and key get the same
+     * collection while it is referenced, as in browsers, so they share its versioned query result instead of running
+     * the query again.
+     *
+     * @param kind  query type, e.g. "tag"
+     * @param key   query argument, e.g. tag name
+     * @param query query of the collection, used if no collection is cached
+     */
+    HTMLCollectionImpl liveCollection(String kind, String key, Supplier<Elements> query) {
+        if (liveCollections == null) {
+            liveCollections = new HashMap<>();
+        }
+        val cacheKey = kind + ' ' + key;
+        val ref = liveCollections.get(cacheKey);
+        HTMLCollectionImpl collection = ref == null ? null : ref.get();
+        if (collection == null) {
+            collection = new HTMLCollectionImpl(this, query);
+            liveCollections.put(cacheKey, new WeakReference<>(collection));
+        }
+        return collection;
     }
 
     @Override
@@ -426,12 +463,12 @@ public class ElementImpl extends NodeImpl implements HTMLElement {
 
     @Override
     public Element querySelector(@DOMString String selectors) {
-        return null;
+        return Selector.selectFirstDescendant(selectors, this);
     }
 
     @Override
     public NodeList querySelectorAll(@DOMString String selectors) {
-        return null;
+        return new NodeListImpl(new ArrayList<>(Selector.selectDescendants(selectors, this)));
     }
 
     @Override
@@ -523,7 +560,21 @@ public class ElementImpl extends NodeImpl implements HTMLElement {
 
     @Override
     public CSSStyleDeclaration style() {
-        return new CSSStyleDeclarationImpl(this, scriptContext());
+        if (inlineStyle == null) {
+            inlineStyle = new CSSStyleDeclarationImpl(this, scriptContext());
+        }
+        return inlineStyle;
+    }
+
+    /**
+     * Writes pending changes of the {@link #style()} declaration to the {@code style} attribute.
+     *
+     * @see DocumentImpl#inlineStyleChanged(ElementImpl)
+     */
+    public void flushInlineStyle() {
+        if (inlineStyle != null) {
+            inlineStyle.writeBack();
+        }
     }
 
     @Override
@@ -601,13 +652,12 @@ public class ElementImpl extends NodeImpl implements HTMLElement {
 
     @Override
     public DOMRect getBoundingClientRect() {
-        val view = getView();
-        val x = view.getX();
-        val y = view.getY();
-        val paddingStyle = view.getPadding(this.scriptContext().getPanel().getLayoutContext());
-        val width = view.getContentWidth() + paddingStyle.left() + paddingStyle.right();
-        val height = view.getHeight() + paddingStyle.top() + paddingStyle.bottom();
-        return new DOMRectImpl(x, y, width, height);
+        val borderEdge = getLaidOutBorderEdge();
+        if (borderEdge == null) {
+            return new DOMRectImpl(0, 0, 0, 0);
+        }
+        val viewport = scriptContext().getPanel().getVisibleRect();
+        return new DOMRectImpl(borderEdge.x - viewport.x, borderEdge.y - viewport.y, borderEdge.width, borderEdge.height);
     }
 
     @Override
@@ -677,10 +727,9 @@ public class ElementImpl extends NodeImpl implements HTMLElement {
 
     @Override
     public int clientWidth() {
-        val box = getView();
+        val box = getLaidOutView();
         if (box != null) {
-            val paddingStyle = box.getPadding(this.scriptContext().getPanel().getLayoutContext());
-            return (int) (box.getContentWidth() + paddingStyle.left() + paddingStyle.right());
+            return box.getPaddingEdge(box.getAbsX(), box.getAbsY(), scriptContext().getPanel().getLayoutContext()).width;
         } else {
             return 0;
         }
@@ -688,9 +737,99 @@ public class ElementImpl extends NodeImpl implements HTMLElement {
 
     @Override
     public int clientHeight() {
-        val view = getView();
-        val paddingStyle = view.getPadding(this.scriptContext().getPanel().getLayoutContext());
-        return (int) (view.getHeight() + paddingStyle.top() + paddingStyle.bottom());
+        val box = getLaidOutView();
+        if (box != null) {
+            return box.getPaddingEdge(box.getAbsX(), box.getAbsY(), scriptContext().getPanel().getLayoutContext()).height;
+        } else {
+            return 0;
+        }
+    }
+
+    @Override
+    public Element offsetParent() {
+        if (getLaidOutView() == null || "body".equalsIgnoreCase(tagName())) {
+            return null;
+        }
+        for (ElementImpl ancestor = parent(); ancestor != null; ancestor = ancestor.parent()) {
+            val box = ancestor.getView();
+            if ("body".equalsIgnoreCase(ancestor.tagName()) || box != null && box.getStyle().isPositioned()
+                    || box != null && box.getStyle().isTableCell() || "table".equalsIgnoreCase(ancestor.tagName())) {
+                return ancestor;
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public int offsetTop() {
+        val borderEdge = getLaidOutBorderEdge();
+        if (borderEdge == null) {
+            return 0;
+        }
+        val parentEdge = getOffsetParentPaddingEdge();
+        return parentEdge == null ? borderEdge.y : borderEdge.y - parentEdge.y;
+    }
+
+    @Override
+    public int offsetLeft() {
+        val borderEdge = getLaidOutBorderEdge();
+        if (borderEdge == null) {
+            return 0;
+        }
+        val parentEdge = getOffsetParentPaddingEdge();
+        return parentEdge == null ? borderEdge.x : borderEdge.x - parentEdge.x;
+    }
+
+    @Override
+    public int offsetWidth() {
+        val borderEdge = getLaidOutBorderEdge();
+        return borderEdge == null ? 0 : borderEdge.width;
+    }
+
+    @Override
+    public int offsetHeight() {
+        val borderEdge = getLaidOutBorderEdge();
+        return borderEdge == null ? 0 : borderEdge.height;
+    }
+
+    /**
+     * Returns box of this element for reading its geometry, laying out the document first if it was changed since
+     * the last layout, as boxes are replaced by layout.
+     *
+     * @return up to date box, null if element is not rendered
+     * @see com.earnix.webk.swing.BasicPanel#flushLayout()
+     */
+    private Box getLaidOutView() {
+        val scriptContext = scriptContext();
+        if (scriptContext == null || scriptContext.getPanel() == null) {
+            return null;
+        }
+        scriptContext.getPanel().flushLayout();
+        return getView();
+    }
+
+    /**
+     * @return border box of this element in document coordinates, null if element is not rendered
+     */
+    private Rectangle getLaidOutBorderEdge() {
+        val box = getLaidOutView();
+        if (box == null) {
+            return null;
+        }
+        return box.getBorderEdge(box.getAbsX(), box.getAbsY(), scriptContext().getPanel().getLayoutContext());
+    }
+
+    /**
+     * @return padding box of the offset parent in document coordinates, null if there is no offset parent or it's
+     * the body, to which offsets are relative to the document
+     */
+    private Rectangle getOffsetParentPaddingEdge() {
+        val offsetParent = (ElementImpl) offsetParent();
+        if (offsetParent == null || "body".equalsIgnoreCase(offsetParent.tagName()) || offsetParent.getView() == null) {
+            return null;
+        }
+        val box = offsetParent.getView();
+        return box.getPaddingEdge(box.getAbsX(), box.getAbsY(), scriptContext().getPanel().getLayoutContext());
     }
 
     @Override
@@ -1039,11 +1178,37 @@ public class ElementImpl extends NodeImpl implements HTMLElement {
     }
     
     public AttributesModel getAttributes() {
-        if (!hasAttributes())
+        flushInlineStyle();
+        if (!hasAttributes()) {
             attributes = new AttributesModel();
+            attachAttributes();
+        }
         return attributes;
     }
 
+    private void attachAttributes() {
+        if (attributes != null) {
+            attributes.setChangeListener(this::attributeChanged);
+        }
+    }
+
+    /**
+     * Invoked on every change of this element attributes.
+     *
+     * @param key      attribute key
+     * @param oldValue previous value, null if attribute was added
+     * @param newValue new value, null if attribute was removed
+     */
+    protected void attributeChanged(String key, String oldValue, String newValue) {
+        if (inlineStyle != null && "style".equalsIgnoreCase(key)) {
+            inlineStyle.attributeChanged();
+        }
+        val document = ownerDocument();
+        if (document != null) {
+            document.nodeChanged(this, MutationJournal.Type.ATTRIBUTES, key);
+        }
+    }
+
     @Override
     public String baseUri() {
         return baseUri;
@@ -1074,6 +1239,10 @@ public class ElementImpl extends NodeImpl implements HTMLElement {
     public ElementImpl tagName(String tagName) {
         Validate.notEmpty(tagName, "Tag name must not be empty.");
         tag = Tag.valueOf(tagName, NodeModelUtils.parser(this).settings()); // maintains the case option of the original parse
+        val document = ownerDocument();
+        if (document != null) {
+            document.elementIndex.invalidate();
+        }
         return this;
     }
 
@@ -1229,6 +1398,10 @@ public class ElementImpl extends NodeImpl implements HTMLElement {
     void nodelistChanged() {
         super.nodelistChanged();
         shadowChildrenRef = null;
+        val document = ownerDocument();
+        if (document != null) {
+            document.nodeChanged(this, MutationJournal.Type.CHILD_LIST, null);
+        }
     }
 
     /**
@@ -1345,8 +1518,16 @@ public class ElementImpl extends NodeImpl implements HTMLElement {
         // was - Node#addChildren(child). short-circuits an array create and a loop.
         reparentChild(impl);
         ensureChildNodes();
-        childNodes.add(impl);
-        impl.setSiblingIndex(childNodes.size() - 1);
+        val elementIndex = beginChildListChange();
+        try {
+            childNodes.add(impl);
+            impl.setSiblingIndex(childNodes.size() - 1);
+            if (elementIndex != null) {
+                elementIndex.nodeAdded(impl);
+            }
+        } finally {
+            endChildListChange(elementIndex);
+        }
         return this;
     }
 
@@ -2331,6 +2512,7 @@ public class ElementImpl extends NodeImpl implements HTMLElement {
             }
         }
         accum.append('<').append(tagName());
+        flushInlineStyle();
         if (attributes != null) attributes.html(accum, out);
 
         // selfclosing includes unknown tags, isEmpty defines tags that are always empty
@@ -2397,13 +2579,18 @@ public class ElementImpl extends NodeImpl implements HTMLElement {
     @Override
     public ElementImpl shallowClone() {
         // simpler than implementing a clone version with no child copy
-        return new ElementImpl(tag, baseUri, attributes);
+        flushInlineStyle();
+        return new ElementImpl(tag, baseUri, attributes != null ? attributes.clone() : null);
     }
 
     @Override
     protected ElementImpl doClone(NodeImpl parent) {
+        flushInlineStyle();
         ElementImpl clone = (ElementImpl) super.doClone(parent);
+        clone.inlineStyle = null;
+        clone.liveCollections = null;
         clone.attributes = attributes != null ? attributes.clone() : null;
+        clone.attachAttributes();
         clone.baseUri = baseUri;
         clone.childNodes = new ChangeNotifyingNodeList(clone, childNodes.size());
         clone.childNodes.addAll(childNodes); // the children then get iterated and cloned in Node.clone
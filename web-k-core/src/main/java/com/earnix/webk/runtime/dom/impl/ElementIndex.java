@@ -0,0 +1,306 @@
+package com.earnix.webk.runtime.dom.impl;
+
+import com.earnix.webk.runtime.dom.impl.internal.Normalizer;
+import com.earnix.webk.runtime.dom.impl.select.NodeTraversor;
+import com.earnix.webk.runtime.dom.impl.select.NodeVisitor;
+import lombok.AccessLevel;
+import lombok.experimental.FieldDefaults;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * Index of document elements by id, class name (case insensitive) and tag name, each list kept in document order.
+ * <p>
+ * The index is built by a single traversal on first lookup. Changes of {@code id} and {@code class} attributes are
+ * applied incrementally, other attribute and character data changes don't affect it. Subtrees added or removed by
+ * the node mutation methods are reported by {@link #nodeAdded(NodeImpl)} and {@link #nodeRemoved(NodeImpl)} and
+ * indexed or unindexed alone; other child list changes make the index rebuilt on next lookup.
+ *
+ * @see DocumentImpl#nodeChanged(NodeImpl, MutationJournal.Type, String)
+ */
+@FieldDefaults(level = AccessLevel.PRIVATE)
+class ElementIndex {
+
+    final DocumentImpl document;
+    final Map<String, List<ElementImpl>> ids = new HashMap<>();
+    final Map<String, List<ElementImpl>> classes = new HashMap<>();
+    final Map<String, List<ElementImpl>> tags = new HashMap<>();
+    /**
+     * Indexed id and class names of each element, for removal of the old values on attribute change
+     */
+    final Map<ElementImpl, String> elementIds = new IdentityHashMap<>();
+    final Map<ElementImpl, Set<String>> elementClasses = new IdentityHashMap<>();
+    boolean valid;
+    /**
+     * Count of child list changes in progress which are reported, see {@link #beginChange()}
+     */
+    int reportedChanges;
+
+    ElementIndex(DocumentImpl document) {
+        this.document = document;
+    }
+
+    /**
+     * @return first element of the document with given id, null if none
+     */
+    ElementImpl getById(String id) {
+        List<ElementImpl> elements = get(ids, id);
+        if (elements.isEmpty()) {
+            return null;
+        }
+        return elements.get(0);
+    }
+
+    /**
+     * @return elements having given class name, in document order
+     */
+    List<ElementImpl> getByClass(String className) {
+        return get(classes, Normalizer.lowerCase(className));
+    }
+
+    /**
+     * @param tagName normalized tag name
+     * @return elements with given tag name, in document order
+     */
+    List<ElementImpl> getByTag(String tagName) {
+        return get(tags, tagName);
+    }
+
+    void nodeChanged(NodeImpl node, MutationJournal.Type type, String attributeName) {
+        if (!valid) {
+            return;
+        }
+        if (type == MutationJournal.Type.CHILD_LIST) {
+            if (reportedChanges == 0) {
+                invalidate();
+            }
+        } else if (type == MutationJournal.Type.ATTRIBUTES) {
+            if ("id".equalsIgnoreCase(attributeName)) {
+                updateId((ElementImpl) node);
+            } else if ("class".equalsIgnoreCase(attributeName)) {
+                updateClasses((ElementImpl) node);
+            }
+        }
+    }
+
+    /**
+     * Makes the index rebuilt on next lookup.
+     */
+    void invalidate() {
+        valid = false;
+    }
+
+    boolean isValid() {
+        return valid;
+    }
+
+    /**
+     * Starts a child list change whose added and removed nodes are going to be reported, so the change doesn't
+     * invalidate the index. Each call has to be followed by {@link #endChange()}.
+     */
+    void beginChange() {
+        reportedChanges++;
+    }
+
+    void endChange() {
+        reportedChanges--;
+    }
+
+    /**
+     * Indexes elements of a subtree inserted into the document, after sibling indexes are updated.
+     */
+    void nodeAdded(NodeImpl node) {
+        if (!valid) {
+            return;
+        }
+        traverseElements(node, element -> add(element, false));
+    }
+
+    /**
+     * Removes elements of a subtree detached from the document from the index.
+     */
+    void nodeRemoved(NodeImpl node) {
+        if (!valid) {
+            return;
+        }
+        traverseElements(node, element -> {
+            remove(tags, Normalizer.normalize(element.tagName()), element);
+            String id = elementIds.remove(element);
+            if (id != null) {
+                remove(ids, id, element);
+            }
+            Set<String> classNames = elementClasses.remove(element);
+            if (classNames != null) {
+                for (String className : classNames) {
+                    remove(classes, className, element);
+                }
+            }
+        });
+    }
+
+    private List<ElementImpl> get(Map<String, List<ElementImpl>> index, String key) {
+        if (!valid) {
+            build();
+        }
+        List<ElementImpl> elements = index.get(key);
+        return elements == null ? Collections.emptyList() : Collections.unmodifiableList(elements);
+    }
+
+    private void build() {
+        ids.clear();
+        classes.clear();
+        tags.clear();
+        elementIds.clear();
+        elementClasses.clear();
+        traverseElements(document, element -> add(element, true));
+        valid = true;
+    }
+
+    /**
+     * @param last true if the element follows all indexed elements in document order
+     */
+    private void add(ElementImpl element, boolean last) {
+        put(tags, Normalizer.normalize(element.tagName()), element, last);
+        String id = element.getId();
+        if (!id.isEmpty()) {
+            put(ids, id, element, last);
+            elementIds.put(element, id);
+        }
+        Set<String> classNames = getClassNames(element);
+        if (!classNames.isEmpty()) {
+            for (String className : classNames) {
+                put(classes, className, element, last);
+            }
+            elementClasses.put(element, classNames);
+        }
+    }
+
+    private static void traverseElements(NodeImpl root, Consumer<ElementImpl> consumer) {
+        NodeTraversor.traverse(new NodeVisitor() {
+            @Override
+            public void head(NodeImpl node, int depth) {
+                if (node instanceof ElementImpl) {
+                    consumer.accept((ElementImpl) node);
+                }
+            }
+
+            @Override
+            public void tail(NodeImpl node, int depth) {
+            }
+        }, root);
+    }
+
+    private void updateId(ElementImpl element) {
+        String oldId = elementIds.remove(element);
+        if (oldId != null) {
+            remove(ids, oldId, element);
+        }
+        String id = element.getId();
+        if (!id.isEmpty()) {
+            insert(ids, id, element);
+            elementIds.put(element, id);
+        }
+    }
+
+    private void updateClasses(ElementImpl element) {
+        Set<String> oldClassNames = elementClasses.remove(element);
+        if (oldClassNames != null) {
+            for (String className : oldClassNames) {
+                remove(classes, className, element);
+            }
+        }
+        Set<String> classNames = getClassNames(element);
+        if (!classNames.isEmpty()) {
+            for (String className : classNames) {
+                insert(classes, className, element);
+            }
+            elementClasses.put(element, classNames);
+        }
+    }
+
+    private static Set<String> getClassNames(ElementImpl element) {
+        Set<String> classNames = element.getClassNames();
+        if (classNames.isEmpty()) {
+            return classNames;
+        }
+        Set<String> result = Collections.newSetFromMap(new HashMap<>());
+        for (String className : classNames) {
+            result.add(Normalizer.lowerCase(className));
+        }
+        return result;
+    }
+
+    private static void put(Map<String, List<ElementImpl>> index, String key, ElementImpl element, boolean last) {
+        if (last) {
+            index.computeIfAbsent(key, k -> new ArrayList<>(1)).add(element);
+        } else {
+            insert(index, key, element);
+        }
+    }
+
+    private static void remove(Map<String, List<ElementImpl>> index, String key, ElementImpl element) {
+        List<ElementImpl> elements = index.get(key);
+        if (elements != null) {
+            elements.remove(element);
+            if (elements.isEmpty()) {
+                index.remove(key);
+            }
+        }
+    }
+
+    /**
+     * Inserts element at its document order position.
+     */
+    private static void insert(Map<String, List<ElementImpl>> index, String key, ElementImpl element) {
+        List<ElementImpl> elements = index.computeIfAbsent(key, k -> new ArrayList<>(1));
+        int low = 0;
+        int high = elements.size();
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (compareOrder(elements.get(middle), element) < 0) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        elements.add(low, element);
+    }
+
+    /**
+     * Compares document positions of two nodes of the same tree.
+     */
+    static int compareOrder(NodeImpl a, NodeImpl b) {
+        if (a == b) {
+            return 0;
+        }
+        List<NodeImpl> pathA = pathFromRoot(a);
+        List<NodeImpl> pathB = pathFromRoot(b);
+        int i = 0;
+        while (i < pathA.size() && i < pathB.size() && pathA.get(i) == pathB.get(i)) {
+            i++;
+        }
+        if (i == pathA.size()) {
+            return -1; // a is ancestor of b
+        }
+        if (i == pathB.size()) {
+            return 1;
+        }
+        return Integer.compare(pathA.get(i).siblingIndex(), pathB.get(i).siblingIndex());
+    }
+
+    private static List<NodeImpl> pathFromRoot(NodeImpl node) {
+        List<NodeImpl> path = new ArrayList<>();
+        for (NodeImpl current = node; current != null; current = current.parentNode) {
+            path.add(current);
+        }
+        Collections.reverse(path);
+        return path;
+    }
+}
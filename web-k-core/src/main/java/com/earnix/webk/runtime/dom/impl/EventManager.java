@@ -24,15 +24,28 @@ import java.util.ArrayList;
 public class EventManager {
 
     ScriptContext scriptContext;
-    
+    final ListenerCounts listenerCounts = new ListenerCounts();
+
+    /**
+     * @return whether a listener of the event type may be registered in the document; if not, events of the type
+     * don't need to be created and dispatched at all
+     */
+    public boolean hasListeners(String type) {
+        return listenerCounts.hasListeners(type) || ListenerCounts.UNBOUND.hasListeners(type);
+    }
+
+    ListenerCounts getListenerCounts() {
+        return listenerCounts;
+    }
     
     public void publishEvent(Element target, EventImpl event) {
-        
+        if (!hasListeners(event.type())) {
+            return;
+        }
+
         log.debug("Dispatching event {} to {}", event, target);
 
-//        if(reRender) {
-            scriptContext.storeDocumentHash();
-//        }
+        val version = scriptContext.getDocumentVersion();
         
         // preparing propagation path 
         val propagationPath = new ArrayList<EventTarget>();
@@ -76,9 +89,7 @@ public class EventManager {
             }
         }
         
-//        if(reRender) {
-            scriptContext.handleDocumentHashUpdate();
-//        }
+        scriptContext.handleDocumentVersionUpdate(version);
     }
 
     public void publishEvent(EventTarget target, EventImpl event) {
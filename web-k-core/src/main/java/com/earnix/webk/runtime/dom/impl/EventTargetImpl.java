@@ -30,12 +30,16 @@ public class EventTargetImpl implements EventTarget {
 
     LinkedHashMap<String, List<EventListener>> listeners = new LinkedHashMap<>();
     final Supplier<ScriptContext> context;
-    
+    /**
+     * Counts this target's listeners are registered in, resolved on first registration
+     */
+    ListenerCounts listenerCounts;
     
     @Override
     public void addEventListener(@DOMString String type, EventListener callback, Object options) {
         var typeListeners = listeners.computeIfAbsent(type, k -> new ArrayList<>());
         typeListeners.add(callback);
+        getListenerCounts().added(type);
 
         // workaround for ChartJS
         if (type.equals("animationstart")) {
@@ -47,7 +51,9 @@ public class EventTargetImpl implements EventTarget {
     public void removeEventListener(@DOMString String type, EventListener callback, Object options) {
         val typeListeners = listeners.get(type);
         if (typeListeners != null) {
-            typeListeners.remove(callback);
+            if (typeListeners.remove(callback)) {
+                getListenerCounts().removed(type);
+            }
             if (typeListeners.isEmpty()) {
                 listeners.remove(type);
             }
@@ -59,9 +65,23 @@ public class EventTargetImpl implements EventTarget {
 //        log.trace("Dispatched event {} on target {}", event.type(), toString());
         val typeListeners = listeners.get(event.type());
         if (typeListeners != null) {
-            typeListeners.forEach(l -> l.handleEvent(WebIDLAdapter.obtain(context.get(), event)));
+            val adapter = WebIDLAdapter.obtain(context.get(), event);
+            // listeners may remove themselves while handling
+            for (EventListener listener : typeListeners.toArray(new EventListener[0])) {
+                listener.handleEvent(adapter);
+            }
             return true;
         }
         return false;
     }
+
+    private ListenerCounts getListenerCounts() {
+        if (listenerCounts == null) {
+            val scriptContext = context.get();
+            listenerCounts = scriptContext == null || scriptContext.getEventManager() == null
+                    ? ListenerCounts.UNBOUND
+                    : scriptContext.getEventManager().getListenerCounts();
+        }
+        return listenerCounts;
+    }
 }
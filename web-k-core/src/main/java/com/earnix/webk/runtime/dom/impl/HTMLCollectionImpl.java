@@ -7,6 +7,9 @@ import com.earnix.webk.runtime.dom.Element;
 import com.earnix.webk.runtime.dom.HTMLCollection;
 import lombok.AccessLevel;
 import lombok.experimental.FieldDefaults;
+import lombok.val;
+
+import java.util.function.Supplier;
 
 /**
  * @author Taras Maslov
@@ -15,30 +18,52 @@ import lombok.experimental.FieldDefaults;
 @FieldDefaults(level = AccessLevel.PRIVATE)
 public class HTMLCollectionImpl implements HTMLCollection {
 
-    Elements elements;
+    final LiveQuery<Elements> elements;
     ScriptContext ctx;
 
+    /**
+     * Creates a static collection of given elements.
+     */
     public HTMLCollectionImpl(Elements elements) {
-        this.elements = elements;
+        this(null, () -> elements);
+    }
+
+    /**
+     * Creates a live collection, reflecting changes of the document.
+     *
+     * @param root  node the query runs from
+     * @param query evaluated again when the document of root has been changed since the last evaluation
+     */
+    public HTMLCollectionImpl(NodeImpl root, Supplier<Elements> query) {
+        this.elements = new LiveQuery<>(root, query);
         this.ctx = ctx;
     }
 
     @Override
     public int length() {
-        return elements.size();
+        return elements.get().size();
     }
 
     @Override
     public Element item(int index) {
-        return elements.get(index);
+        val model = elements.get();
+        return index >= 0 && index < model.size() ? model.get(index) : null;
     }
 
     @Override
     public Element namedItem(@DOMString String name) {
+        if (name.isEmpty()) {
+            return null;
+        }
+        for (ElementImpl element : elements.get()) {
+            if (name.equals(element.getId()) || name.equals(element.getAttribute("name"))) {
+                return element;
+            }
+        }
         return null;
     }
 
     public Elements getModel() {
-        return elements;
+        return elements.get();
     }
 }
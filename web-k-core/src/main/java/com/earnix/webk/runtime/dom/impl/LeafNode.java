@@ -2,6 +2,7 @@ package com.earnix.webk.runtime.dom.impl;
 
 import com.earnix.webk.runtime.dom.impl.helper.Validate;
 import com.earnix.webk.runtime.dom.impl.nodes.AttributesModel;
+import lombok.val;
 
 import java.util.Collections;
 import java.util.List;
@@ -42,6 +43,10 @@ public abstract class LeafNode extends NodeImpl {
 
     protected void coreValue(String value) {
         attr(nodeName(), value);
+        val document = ownerDocument();
+        if (document != null) {
+            document.nodeChanged(this, MutationJournal.Type.CHARACTER_DATA, null);
+        }
     }
 
     @Override
@@ -31,16 +31,23 @@ public class Level1EventTarget {
     public Attribute<EventHandler> getHandlerAttribute(String eventType) {
         var handler = handlers.get(eventType);
         if (handler == null) {
-            handler = new EventHandlerAttribute();
+            handler = new EventHandlerAttribute(eventType.substring(2));
             handlers.put(eventType, handler);
-            eventTarget.addEventListener(eventType.substring(2), handler, null);
         }
         return handler;
     }
 
+    /**
+     * Registered as listener only while a handler is set, so unused handler attributes don't count as listeners.
+     */
     private class EventHandlerAttribute implements Attribute<EventHandler>, EventListener {
+        final String type;
         EventHandler eventHandler;
 
+        EventHandlerAttribute(String type) {
+            this.type = type;
+        }
+
         @Override
         public EventHandler get() {
             return eventHandler;
@@ -48,6 +55,11 @@ public class Level1EventTarget {
 
         @Override
         public void set(EventHandler eventHandler) {
+            if (this.eventHandler == null && eventHandler != null) {
+                eventTarget.addEventListener(type, this, null);
+            } else if (this.eventHandler != null && eventHandler == null) {
+                eventTarget.removeEventListener(type, this, null);
+            }
             this.eventHandler = eventHandler;
         }
 
@@ -0,0 +1,43 @@
+package com.earnix.webk.runtime.dom.impl;
+
+import lombok.AccessLevel;
+import lombok.experimental.FieldDefaults;
+import lombok.val;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Counts of event listeners registered in a document by event type, letting {@link EventManager} skip dispatch of
+ * events nobody listens to. Counts may exceed the actual listeners (e.g. of discarded nodes), but never fall short.
+ */
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class ListenerCounts {
+
+    /**
+     * Listeners of targets having no script context at registration time, which may be dispatched to in any document
+     */
+    static final ListenerCounts UNBOUND = new ListenerCounts();
+
+    final Map<String, AtomicInteger> counts = new ConcurrentHashMap<>();
+
+    void added(String type) {
+        counts.computeIfAbsent(type, k -> new AtomicInteger()).incrementAndGet();
+    }
+
+    void removed(String type) {
+        val count = counts.get(type);
+        if (count != null) {
+            count.decrementAndGet();
+        }
+    }
+
+    /**
+     * @return whether any listener of the event type may be registered
+     */
+    public boolean hasListeners(String type) {
+        val count = counts.get(type);
+        return count != null && count.get() > 0;
+    }
+}
@@ -0,0 +1,46 @@
+package com.earnix.webk.runtime.dom.impl;
+
+import lombok.AccessLevel;
+import lombok.experimental.FieldDefaults;
+import lombok.val;
+
+import java.util.function.Supplier;
+
+/**
+ * Result of a tree query backing a live collection. The result is cached with the {@link MutationJournal} version of
+ * the root's document and evaluated again only once the document was changed; queries over detached trees, which
+ * don't record changes, are evaluated on every access. Without root the result is static and evaluated once.
+ *
+ * @param <T> result type
+ */
+@FieldDefaults(level = AccessLevel.PRIVATE)
+class LiveQuery<T> {
+
+    final NodeImpl root;
+    final Supplier<T> query;
+    T result;
+    DocumentImpl document;
+    long version;
+
+    LiveQuery(NodeImpl root, Supplier<T> query) {
+        this.root = root;
+        this.query = query;
+    }
+
+    T get() {
+        if (root == null) {
+            if (result == null) {
+                result = query.get();
+            }
+            return result;
+        }
+        val currentDocument = root.ownerDocument();
+        if (result == null || currentDocument == null || currentDocument != document
+                || currentDocument.getMutationJournal().getVersion() != version) {
+            result = query.get();
+            document = currentDocument;
+            version = currentDocument == null ? 0 : currentDocument.getMutationJournal().getVersion();
+        }
+        return result;
+    }
+}
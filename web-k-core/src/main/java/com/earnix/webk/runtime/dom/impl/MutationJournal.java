@@ -0,0 +1,105 @@
+package com.earnix.webk.runtime.dom.impl;
+
+import lombok.AccessLevel;
+import lombok.Value;
+import lombok.experimental.FieldDefaults;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Journal of document model mutations. Maintains monotonically increasing document version, incremented on every
+ * change of attributes, child node lists or character data, and a bounded log of recent changes by node.
+ * <p>
+ * Comparing versions is a cheap replacement for serializing the document to find out whether it was changed.
+ */
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class MutationJournal {
+
+    public static final int DEFAULT_CAPACITY = 256;
+
+    public enum Type {
+        ATTRIBUTES,
+        CHILD_LIST,
+        CHARACTER_DATA
+    }
+
+    /**
+     * Single journal record.
+     */
+    @Value
+    public static class Entry {
+        long version;
+        NodeImpl target;
+        Type type;
+        /**
+         * Changed attribute name for {@link Type#ATTRIBUTES} records, null otherwise.
+         */
+        String attributeName;
+    }
+
+    final int capacity;
+    final ArrayDeque<Entry> entries;
+    long version;
+
+    public MutationJournal() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public MutationJournal(int capacity) {
+        this.capacity = capacity;
+        entries = new ArrayDeque<>(capacity);
+    }
+
+    /**
+     * @return current document version
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Registers node mutation, increments document version.
+     */
+    public void record(NodeImpl target, Type type, String attributeName) {
+        version++;
+        if (capacity > 0) {
+            if (entries.size() == capacity) {
+                entries.removeFirst();
+            }
+            entries.addLast(new Entry(version, target, type, attributeName));
+        }
+    }
+
+    /**
+     * @return true if document was changed after given version
+     */
+    public boolean isChangedSince(long version) {
+        return this.version != version;
+    }
+
+    /**
+     * Returns changes made after given version, oldest first.
+     *
+     * @return list of changes, or null if some of them were already evicted from the journal and the list would be
+     * incomplete
+     */
+    public List<Entry> getChangesSince(long version) {
+        List<Entry> result = new ArrayList<>();
+        Iterator<Entry> iterator = entries.descendingIterator();
+        long expected = this.version;
+        while (iterator.hasNext() && expected > version) {
+            Entry entry = iterator.next();
+            result.add(entry);
+            expected = entry.getVersion() - 1;
+        }
+        if (expected > version) {
+            return null;
+        }
+        Collections.reverse(result);
+        return result;
+    }
+}
@@ -663,19 +663,36 @@ public abstract class NodeImpl implements Node, Cloneable {
         if (in.parentNode != null)
             in.parentNode.removeChild(in);
 
-        final int index = out.siblingIndex;
-        ensureChildNodes().set(index, in);
-        in.parentNode = this;
-        in.setSiblingIndex(index);
-        out.parentNode = null;
+        final ElementIndex elementIndex = beginChildListChange();
+        try {
+            final int index = out.siblingIndex;
+            ensureChildNodes().set(index, in);
+            in.parentNode = this;
+            in.setSiblingIndex(index);
+            out.parentNode = null;
+            if (elementIndex != null) {
+                elementIndex.nodeRemoved(out);
+                elementIndex.nodeAdded(in);
+            }
+        } finally {
+            endChildListChange(elementIndex);
+        }
     }
 
     protected void removeChild(NodeImpl out) {
         Validate.isTrue(out.parentNode == this);
-        final int index = out.siblingIndex;
-        ensureChildNodes().remove(index);
-        reindexChildren(index);
-        out.parentNode = null;
+        final ElementIndex elementIndex = beginChildListChange();
+        try {
+            final int index = out.siblingIndex;
+            ensureChildNodes().remove(index);
+            reindexChildren(index);
+            out.parentNode = null;
+            if (elementIndex != null) {
+                elementIndex.nodeRemoved(out);
+            }
+        } finally {
+            endChildListChange(elementIndex);
+        }
     }
 
     protected void addChildren(NodeImpl... children) {
@@ -684,8 +701,16 @@ public abstract class NodeImpl implements Node, Cloneable {
 
         for (NodeImpl child : children) {
             reparentChild(child);
-            nodes.add(child);
-            child.setSiblingIndex(nodes.size() - 1);
+            final ElementIndex elementIndex = beginChildListChange();
+            try {
+                nodes.add(child);
+                child.setSiblingIndex(nodes.size() - 1);
+                if (elementIndex != null) {
+                    elementIndex.nodeAdded(child);
+                }
+            } finally {
+                endChildListChange(elementIndex);
+            }
         }
     }
 
@@ -696,8 +721,38 @@ public abstract class NodeImpl implements Node, Cloneable {
         for (NodeImpl child : children) {
             reparentChild(child);
         }
-        nodes.addAll(index, Arrays.asList(children));
-        reindexChildren(index);
+        final ElementIndex elementIndex = beginChildListChange();
+        try {
+            nodes.addAll(index, Arrays.asList(children));
+            reindexChildren(index);
+            if (elementIndex != null) {
+                for (NodeImpl child : children) {
+                    elementIndex.nodeAdded(child);
+                }
+            }
+        } finally {
+            endChildListChange(elementIndex);
+        }
+    }
+
+    /**
+     * Starts a change of children of this node which updates the {@link ElementIndex} of the document with the added
+     * and removed nodes, instead of making it rebuilt. Has to be followed by {@link #endChildListChange(ElementIndex)}.
+     *
+     * @return index of the document of this node, null if this node is not in a document
+     */
+    ElementIndex beginChildListChange() {
+        final DocumentImpl document = ownerDocument();
+        if (document == null)
+            return null;
+        final ElementIndex elementIndex = document.getElementIndex();
+        elementIndex.beginChange();
+        return elementIndex;
+    }
+
+    void endChildListChange(ElementIndex elementIndex) {
+        if (elementIndex != null)
+            elementIndex.endChange();
     }
 
     protected void reparentChild(NodeImpl child) {
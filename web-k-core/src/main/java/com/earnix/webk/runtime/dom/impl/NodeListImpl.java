@@ -5,8 +5,10 @@ import com.earnix.webk.runtime.web_idl.DOMException;
 import com.earnix.webk.runtime.dom.NodeList;
 import lombok.AccessLevel;
 import lombok.experimental.FieldDefaults;
+import lombok.val;
 
 import java.util.List;
+import java.util.function.Supplier;
 
 /**
  * @author Taras Maslov
@@ -15,18 +17,32 @@ import java.util.List;
 @FieldDefaults(level = AccessLevel.PRIVATE)
 public class NodeListImpl implements NodeList {
 
-    List<NodeImpl> model;
+    final LiveQuery<List<NodeImpl>> model;
     ScriptContext ctx;
 
+    /**
+     * Creates a list of given nodes; it is live only if the model list itself is.
+     */
     public NodeListImpl(List<NodeImpl> model) {
-        this.model = model;
+        this(null, () -> model);
+    }
+
+    /**
+     * Creates a live list, reflecting changes of the document.
+     *
+     * @param root  node the query runs from
+     * @param query evaluated again when the document of root has been changed since the last evaluation
+     */
+    public NodeListImpl(NodeImpl root, Supplier<List<NodeImpl>> query) {
+        this.model = new LiveQuery<>(root, query);
         this.ctx = ctx;
     }
 
     @Override
     public com.earnix.webk.runtime.dom.Node item(int index) {
-        if (model.size() > index) {
-            return model.get(index);
+        val nodes = model.get();
+        if (nodes.size() > index) {
+            return nodes.get(index);
         } else {
             throw new DOMException("RangeError");
         }
@@ -34,6 +50,6 @@ public class NodeListImpl implements NodeList {
 
     @Override
     public int length() {
-        return model.size();
+        return model.get().size();
     }
 }
@@ -95,8 +95,10 @@ public class AttributeModel implements Map.Entry<String, String>, Cloneable {
         String oldVal = parent.get(this.key);
         if (parent != null) {
             int i = parent.indexOfKey(this.key);
-            if (i != AttributesModel.NotFound)
+            if (i != AttributesModel.NotFound) {
                 parent.vals[i] = val;
+                parent.notifyChanged(this.key, oldVal, val);
+            }
         }
         this.val = val;
         return oldVal;
@@ -44,6 +44,33 @@ public class AttributesModel implements Iterable<AttributeModel>, Cloneable {
     private int size = 0; // number of slots used (not capacity, which is keys.length
     String[] keys = Empty;
     String[] vals = Empty;
+    private ChangeListener changeListener; // owning node, notified about value changes
+
+    /**
+     * Receives notifications about attribute additions, updates and removals.
+     */
+    public interface ChangeListener {
+        /**
+         * @param key      attribute key
+         * @param oldValue previous value, or null if the attribute was just added
+         * @param newValue new value, or null if the attribute was removed
+         */
+        void attributeChanged(String key, String oldValue, String newValue);
+    }
+
+    /**
+     * Sets the listener notified on every change of these attributes. Used by owning element to track its mutations.
+     *
+     * @param changeListener listener, or null to stop notifications
+     */
+    public void setChangeListener(ChangeListener changeListener) {
+        this.changeListener = changeListener;
+    }
+
+    void notifyChanged(String key, String oldValue, String newValue) {
+        if (changeListener != null)
+            changeListener.attributeChanged(key, oldValue, newValue);
+    }
 
     // check there's room for more
     private void checkCapacity(int minNewSize) {
@@ -120,6 +147,7 @@ public class AttributesModel implements Iterable<AttributeModel>, Cloneable {
         keys[size] = key;
         vals[size] = value;
         size++;
+        notifyChanged(key, null, value);
     }
 
     /**
@@ -131,9 +159,11 @@ public class AttributesModel implements Iterable<AttributeModel>, Cloneable {
      */
     public AttributesModel put(String key, String value) {
         int i = indexOfKey(key);
-        if (i != NotFound)
+        if (i != NotFound) {
+            String oldValue = vals[i];
             vals[i] = value;
-        else
+            notifyChanged(key, oldValue, value);
+        } else
             add(key, value);
         return this;
     }
@@ -141,9 +171,11 @@ public class AttributesModel implements Iterable<AttributeModel>, Cloneable {
     public void putIgnoreCase(String key, String value) {
         int i = indexOfKeyIgnoreCase(key);
         if (i != NotFound) {
+            String oldValue = vals[i];
             vals[i] = value;
             if (!keys[i].equals(key)) // case changed, update
                 keys[i] = key;
+            notifyChanged(key, oldValue, value);
         } else
             add(key, value);
     }
@@ -179,6 +211,8 @@ public class AttributesModel implements Iterable<AttributeModel>, Cloneable {
     // removes and shifts up
     private void remove(int index) {
         Validate.isFalse(index >= size);
+        String key = keys[index];
+        String oldValue = vals[index];
         int shifted = size - index - 1;
         if (shifted > 0) {
             System.arraycopy(keys, index + 1, keys, index, shifted);
@@ -187,6 +221,7 @@ public class AttributesModel implements Iterable<AttributeModel>, Cloneable {
         size--;
         keys[size] = null; // release hold
         vals[size] = null;
+        notifyChanged(key, oldValue, null);
     }
 
     /**
@@ -384,6 +419,7 @@ public class AttributesModel implements Iterable<AttributeModel>, Cloneable {
             throw new RuntimeException(e);
         }
         clone.size = size;
+        clone.changeListener = null; // clone is not owned by any node yet
         keys = copyOf(keys, size);
         vals = copyOf(vals, size);
         return clone;
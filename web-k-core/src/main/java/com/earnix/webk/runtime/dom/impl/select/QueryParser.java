@@ -3,9 +3,12 @@ package com.earnix.webk.runtime.dom.impl.select;
 import com.earnix.webk.runtime.dom.impl.helper.Validate;
 import com.earnix.webk.runtime.dom.impl.internal.StringUtil;
 import com.earnix.webk.runtime.dom.impl.parser.TokenQueue;
+import com.earnix.webk.util.Configuration;
 
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -18,6 +21,18 @@ public class QueryParser {
     private final static String[] combinators = {",", ">", "+", "~", " "};
     private static final String[] AttributeEvals = new String[]{"=", "!=", "^=", "$=", "*=", "~="};
 
+    private static final int CACHE_SIZE = Configuration.valueAsInt("xr.selector.cache-size", 256);
+
+    /**
+     * Parsed queries; evaluators are not modified once parsed, so they are shared by all callers
+     */
+    private static final Map<String, Evaluator> cache = new LinkedHashMap<String, Evaluator>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Evaluator> eldest) {
+            return size() > CACHE_SIZE;
+        }
+    };
+
     private TokenQueue tq;
     private String query;
     private List<Evaluator> evals = new ArrayList<>();
@@ -33,12 +48,28 @@ public class QueryParser {
     }
 
     /**
-     * Parse a CSS query into an Evaluator.
+     * Parse a CSS query into an Evaluator. Recently parsed queries are served from a bounded cache,
+     * see {@code xr.selector.cache-size}.
      *
      * @param query CSS query
      * @return Evaluator
      */
     public static Evaluator parse(String query) {
+        synchronized (cache) {
+            Evaluator cached = cache.get(query);
+            if (cached != null) {
+                return cached;
+            }
+        }
+        Evaluator evaluator = parseQuery(query);
+        synchronized (cache) {
+            cache.put(query, evaluator);
+        }
+        return evaluator;
+    }
+
+    // sub-queries are parsed with this too, as their evaluators are combined in place
+    private static Evaluator parseQuery(String query) {
         try {
             QueryParser p = new QueryParser(query);
             return p.parse();
@@ -87,7 +118,7 @@ public class QueryParser {
 
         Evaluator rootEval; // the new topmost evaluator
         Evaluator currentEval; // the evaluator the new eval will be combined to. could be root, or rightmost or.
-        Evaluator newEval = parse(subQuery); // the evaluator to add into target evaluator
+        Evaluator newEval = parseQuery(subQuery); // the evaluator to add into target evaluator
         boolean replaceRightMost = false;
 
         if (evals.size() == 1) {
@@ -336,7 +367,7 @@ public class QueryParser {
         tq.consume(":has");
         String subQuery = tq.chompBalanced('(', ')');
         Validate.notEmpty(subQuery, ":has(el) subselect must not be empty");
-        evals.add(new StructuralEvaluator.Has(parse(subQuery)));
+        evals.add(new StructuralEvaluator.Has(parseQuery(subQuery)));
     }
 
     // pseudo selector :contains(text), containsOwn(text)
@@ -376,6 +407,6 @@ public class QueryParser {
         String subQuery = tq.chompBalanced('(', ')');
         Validate.notEmpty(subQuery, ":not(selector) subselect must not be empty");
 
-        evals.add(new StructuralEvaluator.Not(parse(subQuery)));
+        evals.add(new StructuralEvaluator.Not(parseQuery(subQuery)));
     }
 }
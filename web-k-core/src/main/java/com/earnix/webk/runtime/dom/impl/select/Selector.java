@@ -162,6 +162,36 @@ public class Selector {
         return Collector.findFirst(QueryParser.parse(cssQuery), root);
     }
 
+    /**
+     * Find elements under root, not including root itself, that match the query, as DOM {@code querySelectorAll}
+     * does.
+     *
+     * @param cssQuery CSS selector
+     * @param root     root element to descend into
+     * @return matching elements, empty if none
+     */
+    public static Elements selectDescendants(String cssQuery, ElementImpl root) {
+        Validate.notEmpty(cssQuery);
+        return select(descendant(QueryParser.parse(cssQuery)), root);
+    }
+
+    /**
+     * Find the first element under root, not including root itself, that matches the query, as DOM
+     * {@code querySelector} does. Stops at the first match.
+     *
+     * @param cssQuery CSS selector
+     * @param root     root element to descend into
+     * @return the matching element, or <b>null</b> if none.
+     */
+    public static ElementImpl selectFirstDescendant(String cssQuery, ElementImpl root) {
+        Validate.notEmpty(cssQuery);
+        return Collector.findFirst(descendant(QueryParser.parse(cssQuery)), root);
+    }
+
+    private static Evaluator descendant(Evaluator evaluator) {
+        return new CombiningEvaluator.And(new StructuralEvaluator.Not(new StructuralEvaluator.Root()), evaluator);
+    }
+
     public static class SelectorParseException extends IllegalStateException {
         public SelectorParseException(String msg, Object... params) {
             super(String.format(msg, params));
@@ -14,8 +14,7 @@ public interface Headers extends Iterable<Pair<String, String>> {
     void delete(@ByteString String name);
     @Nullable
     @ByteString String get(@ByteString String name);
-    boolean has(ByteString name);
-    void set(ByteString name, ByteString value);
+    boolean has(@ByteString String name);
+    void set(@ByteString String name, @ByteString String value);
 //    iterable<ByteString, ByteString>;
 }
-
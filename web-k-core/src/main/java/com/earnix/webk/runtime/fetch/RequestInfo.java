@@ -1,8 +1,12 @@
 package com.earnix.webk.runtime.fetch;
 
+import com.earnix.webk.runtime.web_idl.Typedef;
+import com.earnix.webk.runtime.web_idl.impl.MultiTypedef;
+
 /**
  * @author Taras Maslov
  * 10/26/2018
  */
-public interface RequestInfo {
+@Typedef({/*Request,*/ /*USVString*/ String.class})
+public final class RequestInfo extends MultiTypedef {
 }
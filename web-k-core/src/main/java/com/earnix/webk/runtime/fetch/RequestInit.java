@@ -1,8 +1,36 @@
 package com.earnix.webk.runtime.fetch;
 
+import com.earnix.webk.runtime.dom.AbortSignal;
+import com.earnix.webk.runtime.web_idl.ByteString;
+import com.earnix.webk.runtime.web_idl.Dictionary;
+import com.earnix.webk.runtime.web_idl.Nullable;
+import com.earnix.webk.runtime.web_idl.USVString;
+
 /**
+ * Supported are method, headers, string body and signal; other members are accepted and ignored.
+ *
  * @author Taras Maslov
  * 10/26/2018
  */
-public interface RequestInit {
+@Dictionary
+public class RequestInit {
+    public @ByteString String method;
+    /**
+     * Headers, record&lt;ByteString, ByteString&gt; (plain object) or sequence of name-value pairs
+     */
+    public Object headers;
+    /**
+     * BodyInit, string only for now
+     */
+    public @Nullable Object body;
+    public @USVString String referrer;
+    public String referrerPolicy;
+    public String mode;
+    public String credentials;
+    public String cache;
+    public String redirect;
+    public String integrity;
+    public Boolean keepalive;
+    public @Nullable AbortSignal signal;
+    public Object window;
 }
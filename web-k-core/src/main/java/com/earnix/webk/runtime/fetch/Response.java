@@ -1,8 +1,63 @@
 package com.earnix.webk.runtime.fetch;
 
+import com.earnix.webk.runtime.dom.Window;
+import com.earnix.webk.runtime.future.Promise;
+import com.earnix.webk.runtime.future.Worker;
+import com.earnix.webk.runtime.streams.ReadableStream;
+import com.earnix.webk.runtime.web_idl.ByteString;
+import com.earnix.webk.runtime.web_idl.Exposed;
+import com.earnix.webk.runtime.web_idl.Nullable;
+import com.earnix.webk.runtime.web_idl.ReadonlyAttribute;
+import com.earnix.webk.runtime.web_idl.SameObject;
+import com.earnix.webk.runtime.web_idl.USVString;
+import com.earnix.webk.runtime.web_idl.Unsigned;
+
 /**
+ * Response interface with Body mixin, no blob() and formData() support.
+ *
  * @author Taras Maslov
  * 10/26/2018
  */
+@Exposed({Window.class, Worker.class})
 public interface Response {
+
+    @ReadonlyAttribute
+    @USVString
+    String url();
+
+    @ReadonlyAttribute
+    boolean redirected();
+
+    @ReadonlyAttribute
+    @Unsigned
+    short status();
+
+    @ReadonlyAttribute
+    boolean ok();
+
+    @ReadonlyAttribute
+    @ByteString
+    String statusText();
+
+    @SameObject
+    @ReadonlyAttribute
+    Headers headers();
+
+    // Body
+
+    @Nullable
+    @ReadonlyAttribute
+    ReadableStream body();
+
+    @ReadonlyAttribute
+    boolean bodyUsed();
+
+    /**
+     * @return promise of ArrayBuffer
+     */
+    Promise<Object> arrayBuffer();
+
+    Promise<Object> json();
+
+    Promise<String> text();
 }
@@ -0,0 +1,261 @@
+package com.earnix.webk.runtime.fetch.impl;
+
+import com.earnix.webk.runtime.ScriptContext;
+import com.earnix.webk.runtime.dom.impl.AbortSignalImpl;
+import com.earnix.webk.runtime.fetch.RequestInfo;
+import com.earnix.webk.runtime.fetch.RequestInit;
+import com.earnix.webk.runtime.fetch.Response;
+import com.earnix.webk.runtime.future.impl.PromiseImpl;
+import com.earnix.webk.runtime.streams.impl.ReadableStreamImpl;
+import com.earnix.webk.util.Configuration;
+import jdk.nashorn.api.scripting.ScriptObjectMirror;
+import lombok.AccessLevel;
+import lombok.experimental.FieldDefaults;
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpUriRequest;
+import org.apache.http.client.methods.RequestBuilder;
+import org.apache.http.client.protocol.HttpClientContext;
+import org.apache.http.entity.StringEntity;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Single fetch, performed on {@link #executor} with the pooled HTTP client of the process, see
+ * {@link com.earnix.webk.resource.SharedHttpClient}.
+ * <p>
+ * Response promise is resolved once headers are received; the body is then read in chunks and pushed to the
+ * response body stream, so scripts may consume it while it arrives. Once {@code xr.fetch.high-water-mark} bytes are
+ * queued in the stream, reading is parked without holding an executor thread, and continued when scripts read queued
+ * chunks; the connection is returned to the pool when the body is read whole. Aborting the signal of the request, or
+ * cancelling the body stream, aborts the connection.
+ */
+@Slf4j
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class FetchImpl implements Runnable {
+
+    /**
+     * Size of reads from response stream, which is also the maximal size of body chunks
+     */
+    private static final int READ_SIZE = 64 * 1024;
+
+    /**
+     * Size of body chunks queued in the response body stream, at which reading of the body is parked
+     */
+    private static final int HIGH_WATER_MARK = Configuration.valueAsInt("xr.fetch.high-water-mark", 1024 * 1024);
+
+    static ExecutorService executor = Executors.newFixedThreadPool(
+            Configuration.valueAsInt("xr.fetch.threads", 8),
+            runnable -> {
+                val thread = new Thread(runnable, "fetch");
+                thread.setDaemon(true);
+                return thread;
+            });
+
+    final ScriptContext scriptContext;
+    final HttpUriRequest request;
+    final PromiseImpl<Response> promise;
+    final AbortSignalImpl signal;
+    final Runnable abortAlgorithm = this::abort;
+
+    volatile boolean aborted;
+    volatile ReadableStreamImpl body;
+
+    /**
+     * Response and its content being read, used by one executor thread at a time
+     */
+    CloseableHttpResponse response;
+    InputStream content;
+
+    private FetchImpl(ScriptContext scriptContext, HttpUriRequest request, PromiseImpl<Response> promise, AbortSignalImpl signal) {
+        this.scriptContext = scriptContext;
+        this.request = request;
+        this.promise = promise;
+        this.signal = signal;
+    }
+
+    /**
+     * Starts fetch, to be called on the event dispatch thread.
+     *
+     * @return promise of response, rejected with TypeError on network error and with AbortError on abort
+     */
+    public static PromiseImpl<Response> fetch(ScriptContext scriptContext, RequestInfo input, RequestInit init) {
+        val promise = new PromiseImpl<Response>(scriptContext);
+        if (init == null) {
+            init = new RequestInit();
+        }
+
+        val url = input != null && input.is(String.class)
+                ? scriptContext.getPanel().getSharedContext().getUac().resolveURI(input.get())
+                : null;
+        URI uri;
+        try {
+            uri = url != null ? new URI(url) : null;
+        } catch (URISyntaxException e) {
+            uri = null;
+        }
+        if (uri == null || uri.getScheme() == null || !uri.getScheme().toLowerCase(Locale.ROOT).startsWith("http")) {
+            promise.reject("TypeError", "Unsupported URL: " + url);
+            return promise;
+        }
+
+        val signal = init.signal instanceof AbortSignalImpl ? (AbortSignalImpl) init.signal : null;
+        if (signal != null && signal.isAborted()) {
+            promise.reject("AbortError", "The operation was aborted");
+            return promise;
+        }
+
+        val method = init.method != null ? init.method.trim().toUpperCase(Locale.ROOT) : "GET";
+        val builder = RequestBuilder.create(method).setUri(uri);
+        headers(init.headers).forEach(builder::addHeader);
+        if (init.body != null) {
+            if (method.equals("GET") || method.equals("HEAD")) {
+                promise.reject("TypeError", "Request with " + method + " method cannot have body");
+                return promise;
+            }
+            builder.setEntity(new StringEntity(init.body.toString(), StandardCharsets.UTF_8));
+        }
+
+        val fetch = new FetchImpl(scriptContext, builder.build(), promise, signal);
+        if (signal != null) {
+            signal.addAlgorithm(fetch.abortAlgorithm);
+        }
+        executor.submit(fetch);
+        return promise;
+    }
+
+    @Override
+    public void run() {
+        val httpContext = HttpClientContext.create();
+        val client = scriptContext.getPanel().getSharedContext().getHttpClient().getClient();
+        try {
+            response = client.execute(request, httpContext);
+
+            val headers = new HeadersImpl();
+            Arrays.stream(response.getAllHeaders()).forEach(header -> headers.append(header.getName(), header.getValue()));
+            headers.setImmutable();
+
+            val redirects = httpContext.getRedirectLocations();
+            val redirected = redirects != null && !redirects.isEmpty();
+            val url = redirected ? redirects.get(redirects.size() - 1).toString() : request.getURI().toString();
+
+            val entity = response.getEntity();
+            body = new ReadableStreamImpl(scriptContext, HIGH_WATER_MARK, this::abort);
+            val statusLine = response.getStatusLine();
+            promise.resolve(new ResponseImpl(scriptContext, url, redirected, (short) statusLine.getStatusCode(),
+                    statusLine.getReasonPhrase(), headers, body, entity == null));
+
+            if (entity != null) {
+                content = entity.getContent();
+            }
+        } catch (IOException | RuntimeException e) {
+            failed(e);
+            return;
+        }
+        readBody();
+    }
+
+    /**
+     * Reads the body into the body stream until it ends, or until the stream parks reading; in that case reading is
+     * continued on the executor once scripts read queued chunks.
+     */
+    private void readBody() {
+        try {
+            if (content != null) {
+                byte[] chunk = new byte[READ_SIZE];
+                while (true) {
+                    if (body.parkSource(() -> executor.submit(this::readBody))) {
+                        return;
+                    }
+                    int read = content.read(chunk);
+                    if (read == -1) {
+                        break;
+                    }
+                    body.enqueue(Arrays.copyOf(chunk, read));
+                }
+            }
+            body.close();
+            finish();
+        } catch (IOException | RuntimeException e) {
+            failed(e);
+        }
+    }
+
+    private void failed(Exception e) {
+        if (!aborted) {
+            log.debug("Fetch of {} failed", request.getURI(), e);
+            fail("TypeError", "Failed to fetch");
+        }
+        finish();
+    }
+
+    /**
+     * Returns the connection to the pool, or closes it if the body was not read whole.
+     */
+    private void finish() {
+        try {
+            if (content != null) {
+                content.close();
+            }
+            if (response != null) {
+                response.close();
+            }
+        } catch (IOException e) {
+            log.debug("Failed to close response of {}", request.getURI(), e);
+        } finally {
+            if (signal != null) {
+                signal.removeAlgorithm(abortAlgorithm);
+            }
+        }
+    }
+
+    /**
+     * Aborts request, on signal abort or cancel of body stream.
+     */
+    private void abort() {
+        aborted = true;
+        fail("AbortError", "The operation was aborted");
+        request.abort();
+    }
+
+    private void fail(String name, String message) {
+        promise.reject(name, message);
+        val stream = body;
+        if (stream != null) {
+            stream.error(name, message);
+        }
+    }
+
+    /**
+     * @param init headers of request init: Headers, sequence of name-value pairs or plain object
+     */
+    private static HeadersImpl headers(Object init) {
+        val result = new HeadersImpl();
+        if (init instanceof HeadersImpl) {
+            ((HeadersImpl) init).forEach(result::append);
+        } else if (init instanceof ScriptObjectMirror) {
+            val mirror = (ScriptObjectMirror) init;
+            if (mirror.isArray()) {
+                for (Object pair : mirror.values()) {
+                    val header = (ScriptObjectMirror) pair;
+                    result.append(String.valueOf(header.getSlot(0)), String.valueOf(header.getSlot(1)));
+                }
+            } else {
+                for (Map.Entry<String, Object> entry : mirror.entrySet()) {
+                    result.append(entry.getKey(), String.valueOf(entry.getValue()));
+                }
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,91 @@
+package com.earnix.webk.runtime.fetch.impl;
+
+import com.earnix.webk.runtime.fetch.Headers;
+import com.earnix.webk.runtime.web_idl.DOMException;
+import lombok.AccessLevel;
+import lombok.experimental.FieldDefaults;
+import lombok.val;
+import org.apache.commons.lang3.tuple.Pair;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.BiConsumer;
+
+/**
+ * Header list keeping order of headers; names are compared case-insensitively and reported in lower case.
+ */
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class HeadersImpl implements Headers {
+
+    final List<Pair<String, String>> list = new ArrayList<>();
+
+    /**
+     * Whether headers may not be modified, e.g. headers of response
+     */
+    boolean immutable;
+
+    @Override
+    public void append(String name, String value) {
+        checkMutable();
+        list.add(Pair.of(name.toLowerCase(Locale.ROOT), value.trim()));
+    }
+
+    @Override
+    public void delete(String name) {
+        checkMutable();
+        val key = name.toLowerCase(Locale.ROOT);
+        list.removeIf(header -> header.getKey().equals(key));
+    }
+
+    @Override
+    public String get(String name) {
+        val key = name.toLowerCase(Locale.ROOT);
+        String result = null;
+        for (Pair<String, String> header : list) {
+            if (header.getKey().equals(key)) {
+                result = result == null ? header.getValue() : result + ", " + header.getValue();
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public boolean has(String name) {
+        return get(name) != null;
+    }
+
+    @Override
+    public void set(String name, String value) {
+        checkMutable();
+        delete(name);
+        append(name, value);
+    }
+
+    @Override
+    public Pair<String, String> item(int index) {
+        return index >= 0 && index < list.size() ? list.get(index) : null;
+    }
+
+    @Override
+    public int length() {
+        return list.size();
+    }
+
+    /**
+     * @param consumer receives each header, values of repeated headers are not combined
+     */
+    public void forEach(BiConsumer<String, String> consumer) {
+        list.forEach(header -> consumer.accept(header.getKey(), header.getValue()));
+    }
+
+    void setImmutable() {
+        immutable = true;
+    }
+
+    private void checkMutable() {
+        if (immutable) {
+            throw new DOMException("TypeError");
+        }
+    }
+}
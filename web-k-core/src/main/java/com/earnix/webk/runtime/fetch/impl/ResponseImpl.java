@@ -0,0 +1,95 @@
+package com.earnix.webk.runtime.fetch.impl;
+
+import com.earnix.webk.runtime.ScriptContext;
+import com.earnix.webk.runtime.fetch.Headers;
+import com.earnix.webk.runtime.fetch.Response;
+import com.earnix.webk.runtime.future.Promise;
+import com.earnix.webk.runtime.streams.ReadableStream;
+import com.earnix.webk.runtime.streams.impl.ReadableStreamImpl;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.experimental.FieldDefaults;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Response of {@link FetchImpl}, available as soon as headers are received; body is streamed while scripts read it.
+ */
+@AllArgsConstructor(access = AccessLevel.PACKAGE)
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class ResponseImpl implements Response {
+
+    ScriptContext scriptContext;
+    String url;
+    boolean redirected;
+    short status;
+    String statusText;
+    HeadersImpl headers;
+
+    /**
+     * Body stream, also consumed by {@link #text()}, {@link #json()} and {@link #arrayBuffer()}
+     */
+    ReadableStreamImpl body;
+
+    /**
+     * Whether response has no body, e.g. response to HEAD request
+     */
+    boolean nullBody;
+
+    @Override
+    public String url() {
+        return url;
+    }
+
+    @Override
+    public boolean redirected() {
+        return redirected;
+    }
+
+    @Override
+    public short status() {
+        return status;
+    }
+
+    @Override
+    public boolean ok() {
+        return status >= 200 && status <= 299;
+    }
+
+    @Override
+    public String statusText() {
+        return statusText;
+    }
+
+    @Override
+    public Headers headers() {
+        return headers;
+    }
+
+    @Override
+    public ReadableStream body() {
+        return nullBody ? null : body;
+    }
+
+    @Override
+    public boolean bodyUsed() {
+        return body.isDisturbed();
+    }
+
+    @Override
+    public Promise<Object> arrayBuffer() {
+        // shares received bytes, no copy
+        return body.readAll(buffer -> scriptContext.newArrayBuffer(buffer.toByteBuffer()));
+    }
+
+    @Override
+    public Promise<Object> json() {
+        return body.readAll(buffer -> scriptContext.parseJson(buffer.toString(StandardCharsets.UTF_8)));
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Promise<String> text() {
+        return (Promise) body.readAll(buffer -> buffer.toString(StandardCharsets.UTF_8));
+    }
+}
@@ -1,10 +1,9 @@
 /**
  * https://fetch.spec.whatwg.org/
- * 
+ * <p>
+ * Implemented are fetch() of window, Response and Headers; Request is not supported.
+ *
  * @author Taras Maslov
  * 2/10/2019
  */
-@Unimplemented
 package com.earnix.webk.runtime.fetch;
-
-import com.earnix.webk.runtime.web_idl.impl.Unimplemented;
\ No newline at end of file
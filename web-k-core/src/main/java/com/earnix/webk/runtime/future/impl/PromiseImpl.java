@@ -0,0 +1,85 @@
+package com.earnix.webk.runtime.future.impl;
+
+import com.earnix.webk.runtime.ScriptContext;
+import com.earnix.webk.runtime.future.Promise;
+import com.earnix.webk.runtime.web_idl.impl.WebIDLAdapter;
+import jdk.nashorn.api.scripting.NashornException;
+import jdk.nashorn.api.scripting.ScriptObjectMirror;
+import lombok.AccessLevel;
+import lombok.experimental.FieldDefaults;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+/**
+ * JavaScript promise returned by Java implementation of an operation, see {@link #getPromise()}.
+ * <p>
+ * May be settled from any thread: settling is queued as a task of the script context event loop, so promise
+ * reactions always run on the event dispatch thread. Only the first settlement has effect.
+ */
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class PromiseImpl<T> implements Promise<T> {
+
+    ScriptContext scriptContext;
+    ScriptObjectMirror deferred;
+    AtomicBoolean settled = new AtomicBoolean();
+
+    /**
+     * Should be created on the event dispatch thread.
+     */
+    public PromiseImpl(ScriptContext scriptContext) {
+        this.scriptContext = scriptContext;
+        this.deferred = scriptContext.newDeferred();
+    }
+
+    /**
+     * @return JavaScript promise object, which is what scripts receive in place of this object
+     */
+    public Object getPromise() {
+        return deferred.getMember("promise");
+    }
+
+    /**
+     * @param value Java or JavaScript value, converted to script presentation on resolution
+     */
+    public void resolve(T value) {
+        settle("resolve", () -> value);
+    }
+
+    /**
+     * Resolves with value computed on the event dispatch thread, e.g. JavaScript object created from received data.
+     */
+    public void resolveWith(Supplier<?> value) {
+        settle("resolve", value);
+    }
+
+    /**
+     * @param name error name, e.g. TypeError or AbortError, see {@link ScriptContext#newError(String, String)}
+     */
+    public void reject(String name, String message) {
+        settle("reject", () -> scriptContext.newError(name, message));
+    }
+
+    /**
+     * @return whether promise is already resolved or rejected (settlement may still be queued)
+     */
+    public boolean isSettled() {
+        return settled.get();
+    }
+
+    private void settle(String function, Supplier<?> value) {
+        if (settled.compareAndSet(false, true)) {
+            scriptContext.getEventLoop().queueTask(() -> {
+                Object result;
+                try {
+                    result = WebIDLAdapter.convertToScript(scriptContext, value.get());
+                } catch (NashornException e) {
+                    // e.g. JSON.parse failure, rejecting with the script error
+                    deferred.callMember("reject", e.getEcmaError());
+                    return;
+                }
+                deferred.callMember(function, result);
+            });
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package com.earnix.webk.runtime.html;
+
+import com.earnix.webk.runtime.web_idl.Mixin;
+import com.earnix.webk.runtime.web_idl.Unsigned;
+
+/**
+ * https://html.spec.whatwg.org/multipage/imagebitmap-and-animations.html#animationframeprovider
+ */
+@Mixin
+public interface AnimationFrameProvider {
+
+    @Unsigned
+    int requestAnimationFrame(FrameRequestCallback callback);
+
+    void cancelAnimationFrame(@Unsigned int handle);
+}
@@ -0,0 +1,15 @@
+package com.earnix.webk.runtime.html;
+
+import com.earnix.webk.runtime.web_idl.Callback;
+
+/**
+ * https://html.spec.whatwg.org/multipage/imagebitmap-and-animations.html#framerequestcallback
+ */
+@Callback
+public interface FrameRequestCallback {
+
+    /**
+     * @param time frame start time, milliseconds since time origin of the document
+     */
+    void call(double time);
+}
@@ -35,6 +35,7 @@ public interface Window extends
         LegacyUnenumerableNamedProperties,
         GlobalEventHandlers,
         WindowOrWorkerGlobalScope,
+        AnimationFrameProvider,
         com.earnix.webk.runtime.cssom.Window // spec connection
 {
     
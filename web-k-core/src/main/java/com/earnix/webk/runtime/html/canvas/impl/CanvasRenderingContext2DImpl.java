@@ -24,6 +24,7 @@ import com.earnix.webk.runtime.web_idl.DOMString;
 import com.earnix.webk.runtime.web_idl.Sequence;
 import com.earnix.webk.runtime.web_idl.impl.SequenceImpl;
 import com.earnix.webk.runtime.dom.Element;
+import com.earnix.webk.swing.ScalableXHTMLPanel;
 import com.earnix.webk.util.GeneralUtil;
 import com.helger.css.ECSSVersion;
 import com.helger.css.decl.CSSDeclaration;
@@ -37,10 +38,12 @@ import lombok.experimental.var;
 import lombok.extern.slf4j.Slf4j;
 import lombok.val;
 
+import javax.swing.SwingUtilities;
 import java.awt.BasicStroke;
 import java.awt.Color;
 import java.awt.Graphics2D;
 import java.awt.GraphicsEnvironment;
+import java.awt.Rectangle;
 import java.awt.RenderingHints;
 import java.awt.geom.AffineTransform;
 import java.awt.geom.Arc2D;
@@ -50,7 +53,6 @@ import java.awt.geom.Rectangle2D;
 import java.awt.image.BufferedImage;
 import java.util.LinkedList;
 import java.util.List;
-import java.util.UUID;
 
 /**
  * @author Taras Maslov
@@ -79,6 +81,12 @@ public class CanvasRenderingContext2DImpl implements CanvasRenderingContext2D {
     boolean wasFill;
     String fontStyle;
 
+    /**
+     * Canvas area drawn since the last repaint, in canvas pixels; null if none
+     */
+    Rectangle damage;
+    boolean repaintScheduled;
+
 
     // region external WebIDL attributes implementations
 
@@ -153,7 +161,6 @@ public class CanvasRenderingContext2DImpl implements CanvasRenderingContext2D {
     public void beginPath() {
         log.trace("beginPath");
         path2D = new java.awt.geom.Path2D.Double();
-        triggerDocumentUpdate();
     }
 
     @Override
@@ -161,7 +168,7 @@ public class CanvasRenderingContext2DImpl implements CanvasRenderingContext2D {
         log.trace("fill");
         ensureState(true);
         g2d.fill(path2D);
-        triggerDocumentUpdate();
+        damage(path2D.getBounds2D(), 0);
     }
 
     @Override
@@ -169,7 +176,7 @@ public class CanvasRenderingContext2DImpl implements CanvasRenderingContext2D {
         log.trace("stroke");
         ensureState(false);
         g2d.draw(path2D);
-        triggerDocumentUpdate();
+        damage(path2D.getBounds2D(), state().getLineWidth());
     }
 
     @Override
@@ -358,48 +365,41 @@ public class CanvasRenderingContext2DImpl implements CanvasRenderingContext2D {
     public void closePath() {
         log.trace("closePath");
         path2D.closePath();
-        triggerDocumentUpdate();
     }
 
     @Override
     public void moveTo(double x, double y) {
         log.trace("moveTo");
         path2D.moveTo(x, y);
-        triggerDocumentUpdate();
     }
 
     @Override
     public void lineTo(double x, double y) {
         log.trace("lineTo");
         path2D.lineTo(x, y);
-        triggerDocumentUpdate();
     }
 
     @Override
     public void quadraticCurveTo(double cpx, double cpy, double x, double y) {
         log.trace("quadraticCurveTo");
         path2D.quadTo(cpx, cpy, x, y);
-        triggerDocumentUpdate();
     }
 
     @Override
     public void bezierCurveTo(double cp1x, double cp1y, double cp2x, double cp2y, double x, double y) {
         log.trace("bezierCurveTo");
         path2D.curveTo(cp1x, cp1y, cp2x, cp2y, x, y);
-        triggerDocumentUpdate();
     }
 
     @Override
     public void arcTo(double x1, double y1, double x2, double y2, double radius) {
         log.trace("arcTo");
-        triggerDocumentUpdate();
     }
 
     @Override
     public void rect(double x, double y, double w, double h) {
         log.trace("rect");
         path2D.append(new Rectangle2D.Double(x, y, w, h), false);
-        triggerDocumentUpdate();
     }
 
     @Override
@@ -416,7 +416,6 @@ public class CanvasRenderingContext2DImpl implements CanvasRenderingContext2D {
                 new Arc2D.Double(top, left, diam, diam,
                         Math.toDegrees(anticlockwise ? -startAngle : endAngle),
                         Math.toDegrees(anticlockwise ? -endAngle : endAngle), Arc2D.OPEN), false);
-        triggerDocumentUpdate();
     }
 
     @Override
@@ -534,7 +533,7 @@ public class CanvasRenderingContext2DImpl implements CanvasRenderingContext2D {
     public void clearRect(double x, double y, double w, double h) {
         log.trace("clearRect {} {} {} {}", x, y, w, h);
         g2d.clearRect((int) x, (int) y, (int) w, (int) h);
-        triggerDocumentUpdate();
+        damage(new Rectangle2D.Double(x, y, w, h), 0);
     }
 
     @Override
@@ -542,7 +541,7 @@ public class CanvasRenderingContext2DImpl implements CanvasRenderingContext2D {
         log.trace("fillRect");
         ensureState(true);
         g2d.fillRect((int) x, (int) y, (int) w, (int) h);
-        triggerDocumentUpdate();
+        damage(new Rectangle2D.Double(x, y, w, h), 0);
     }
 
     @Override
@@ -550,7 +549,7 @@ public class CanvasRenderingContext2DImpl implements CanvasRenderingContext2D {
         log.trace("strokeRect {} {} {} {}", x, y, w, h);
         ensureState(false);
         g2d.drawRect((int) x, (int) y, (int) w, (int) h);
-        triggerDocumentUpdate();
+        damage(new Rectangle2D.Double(x, y, w, h), state().getLineWidth());
     }
 
     @Override
@@ -646,16 +645,16 @@ public class CanvasRenderingContext2DImpl implements CanvasRenderingContext2D {
             floatX -= metrix.getWidth();
         }
 
-        g2d.drawString(text, floatX, (float) (y + metrix.getHeight() / 4));
+        float baseline = (float) (y + metrix.getHeight() / 4);
+        g2d.drawString(text, floatX, baseline);
         // todo handle max width
-        triggerDocumentUpdate();
+        damage(new Rectangle2D.Double(floatX + metrix.getX(), baseline + metrix.getY(), metrix.getWidth(), metrix.getHeight()), 0);
     }
 
     @Override
     public void strokeText(@DOMString String text, double x, double y, Double maxWidth) {
         log.trace("strokeText");
         fillText(text, x, y, maxWidth);
-        triggerDocumentUpdate();
     }
 
     @Override
@@ -860,7 +859,9 @@ public class CanvasRenderingContext2DImpl implements CanvasRenderingContext2D {
 
         g2d.setBackground(Color.WHITE);
         g2d.clearRect(0, 0, width, height);
-        triggerDocumentUpdate();
+        damage = null;
+        repaintScheduled = false;
+        canvasRepaint(null);
     }
 
 
@@ -907,10 +908,70 @@ public class CanvasRenderingContext2DImpl implements CanvasRenderingContext2D {
         }
     }
 
-    private void triggerDocumentUpdate() {
-        // the way to notify script context about rendering requirement 
-        canvas.attr("__update", UUID.randomUUID().toString());
-        canvas.scriptContext().getPanel().repaint();
+    /**
+     * @return canvas area drawn since the last repaint, in canvas pixels; null if none
+     */
+    public Rectangle getDamage() {
+        return damage == null ? null : new Rectangle(damage);
+    }
+
+    /**
+     * Adds the device space bounds of a drawing operation to the damaged area and schedules its repaint, made once for
+     * all operations of the current event dispatch.
+     *
+     * @param bounds  drawn area in user space
+     * @param padding stroke width drawn around the bounds
+     */
+    private void damage(Rectangle2D bounds, double padding) {
+        Rectangle deviceBounds = g2d.getTransform().createTransformedShape(bounds).getBounds();
+        // antialiasing touches one more pixel
+        int grow = (int) Math.ceil(padding * Math.max(1, Math.abs(g2d.getTransform().getScaleX())) / 2) + 1;
+        deviceBounds.grow(grow, grow);
+        deviceBounds = deviceBounds.intersection(new Rectangle(0, 0, width, height));
+        if (deviceBounds.isEmpty()) {
+            return;
+        }
+        if (damage == null) {
+            damage = deviceBounds;
+        } else {
+            damage.add(deviceBounds);
+        }
+        if (!repaintScheduled) {
+            repaintScheduled = true;
+            SwingUtilities.invokeLater(this::repaintDamage);
+        }
+    }
+
+    private void repaintDamage() {
+        repaintScheduled = false;
+        Rectangle region = damage;
+        damage = null;
+        if (region != null) {
+            canvasRepaint(region);
+        }
+    }
+
+    /**
+     * Repaints a region of the canvas box without invalidating its layout.
+     *
+     * @param region region in canvas pixels, null for whole canvas
+     */
+    private void canvasRepaint(Rectangle region) {
+        val scriptContext = canvas.scriptContext();
+        val panel = scriptContext == null ? null : scriptContext.getPanel();
+        if (panel == null) {
+            return;
+        }
+        val box = canvas.getView();
+        if (box == null || region == null || panel instanceof ScalableXHTMLPanel || panel.getLayoutContext() == null) {
+            panel.repaint();
+            return;
+        }
+        Rectangle content = box.getContentAreaEdge(box.getAbsX(), box.getAbsY(), panel.getLayoutContext());
+        Rectangle visible = region.intersection(new Rectangle(0, 0, content.width, content.height));
+        if (!visible.isEmpty()) {
+            panel.repaint(content.x + visible.x, content.y + visible.y, visible.width, visible.height);
+        }
     }
 
     // endregion
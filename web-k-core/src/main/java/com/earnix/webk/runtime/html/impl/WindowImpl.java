@@ -4,15 +4,17 @@ import com.earnix.webk.runtime.ScriptContext;
 import com.earnix.webk.runtime.console.Console;
 import com.earnix.webk.runtime.console.impl.ConsoleImpl;
 import com.earnix.webk.runtime.cssom.CSSStyleDeclaration;
-import com.earnix.webk.runtime.cssom.impl.CSSStyleDeclarationImpl;
+import com.earnix.webk.runtime.cssom.impl.ComputedStyleDeclarationImpl;
 import com.earnix.webk.runtime.fetch.RequestInfo;
 import com.earnix.webk.runtime.fetch.RequestInit;
 import com.earnix.webk.runtime.fetch.Response;
+import com.earnix.webk.runtime.fetch.impl.FetchImpl;
 import com.earnix.webk.runtime.future.Promise;
 import com.earnix.webk.runtime.html.ApplicationCache;
 import com.earnix.webk.runtime.html.BarProp;
 import com.earnix.webk.runtime.html.CustomElementRegistry;
 import com.earnix.webk.runtime.html.Document;
+import com.earnix.webk.runtime.html.FrameRequestCallback;
 import com.earnix.webk.runtime.html.History;
 import com.earnix.webk.runtime.html.ImageBitmap;
 import com.earnix.webk.runtime.html.ImageBitmapOptions;
@@ -39,13 +41,10 @@ import lombok.Setter;
 import lombok.experimental.Delegate;
 import lombok.experimental.FieldDefaults;
 import lombok.extern.slf4j.Slf4j;
-import lombok.val;
 
 import javax.swing.JOptionPane;
 import javax.swing.SwingUtilities;
 import java.util.HashMap;
-import java.util.Timer;
-import java.util.TimerTask;
 
 /**
  * @author Taras Maslov
@@ -619,7 +618,7 @@ public class WindowImpl implements Window {
 
     @Override
     public Promise<Response> fetch(RequestInfo input, RequestInit init) {
-        return null;
+        return FetchImpl.fetch(scriptContext, input, init);
     }
 
     @Override
@@ -639,30 +638,13 @@ public class WindowImpl implements Window {
 
     // region timers
 
-    Timer timer = new Timer();
-    HashMap<Integer, TimerTask> timeoutTasks = new HashMap<>();
-    HashMap<Integer, TimerTask> intervalTasks = new HashMap<>();
-
     @Override
     public int setTimeout(TimerHandler handler, int timeout, Object... arguments) {
         if (handler.is(String.class)) {
             // unimplemented
             return -1;
         } else if (handler.is(com.earnix.webk.runtime.web_idl.Function.class)) {
-            val task = new TimerTask() {
-                @Override
-                public void run() {
-                    SwingUtilities.invokeLater(() -> {
-                        handler.<Function>get().call(this, arguments);
-                        scriptContext.getPanel().relayout();
-                    });
-                }
-            };
-
-            timer.schedule(task, (long) timeout);
-            val handle = timeoutTasks.size();
-            timeoutTasks.put(handle, task);
-            return handle;
+            return scriptContext.getEventLoop().setTimer(() -> handler.<Function>get().call(null, arguments), timeout, false);
         } else {
             throw new IllegalStateException();
         }
@@ -670,13 +652,7 @@ public class WindowImpl implements Window {
 
     @Override
     public void clearTimeout(int handle) {
-        val task = timeoutTasks.get(handle);
-        if (task != null) {
-            task.cancel();
-            timeoutTasks.remove(handle);
-        } else {
-            log.trace("No task to cancel for handle {}", handle);
-        }
+        scriptContext.getEventLoop().clearTimer(handle);
     }
 
     /**
@@ -689,19 +665,7 @@ public class WindowImpl implements Window {
             log.warn("Unimplemented");
             return -1;
         } else if (handler.is(com.earnix.webk.runtime.web_idl.Function.class)) {
-            val task = new TimerTask() {
-                @Override
-                public void run() {
-                    SwingUtilities.invokeLater(() -> {
-                        handler.<Function>get().call(this, arguments);
-                        scriptContext.getPanel().reset();
-                    });
-                }
-            };
-            timer.scheduleAtFixedRate(task, 0, (long) timeout);
-            val handle = intervalTasks.size();
-            intervalTasks.put(handle, task);
-            return handle;
+            return scriptContext.getEventLoop().setTimer(() -> handler.<Function>get().call(null, arguments), timeout, true);
         } else {
             throw new IllegalStateException();
         }
@@ -709,22 +673,27 @@ public class WindowImpl implements Window {
 
     @Override
     public void clearInterval(int handle) {
-        val task = intervalTasks.get(handle);
-        if (task != null) {
-            task.cancel();
-            intervalTasks.remove(handle);
-        } else {
-            log.trace("No task to cancel for handle {}", handle);
-        }
+        scriptContext.getEventLoop().clearTimer(handle);
     }
     
     public void clearTasks() {
-        timer.cancel();
+        scriptContext.getEventLoop().clear();
+        scriptContext.getFrameClock().clear();
     }
 
     @Override
     public void queueMicrotask(VoidFunction callback) {
+        scriptContext.getEventLoop().queueMicrotask(callback::call);
+    }
 
+    @Override
+    public int requestAnimationFrame(FrameRequestCallback callback) {
+        return scriptContext.getFrameClock().request(callback::call);
+    }
+
+    @Override
+    public void cancelAnimationFrame(int handle) {
+        scriptContext.getFrameClock().cancel(handle);
     }
 
     // endregion
@@ -771,10 +740,7 @@ public class WindowImpl implements Window {
 
     @Override
     public CSSStyleDeclaration getComputedStyle(Element elt, String pseudoElt) {
-        val element = ((ElementImpl) elt);
-        return new CSSStyleDeclarationImpl(
-                scriptContext.getPanel().getSharedContext().getStyle(element).toString(),
-                scriptContext);
+        return new ComputedStyleDeclarationImpl((ElementImpl) elt, scriptContext);
     }
 
     private void repaintPanel() {
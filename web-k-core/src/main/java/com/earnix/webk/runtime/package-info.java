@@ -21,8 +21,12 @@
  * Script evaluation entry points:
  * - {@link com.earnix.webk.runtime.ScriptContext#documentLoaded() }
  * - {@link com.earnix.webk.runtime.dom.impl.EventTargetImpl#dispatchEvent(com.earnix.webk.runtime.dom.Event)};
- * - {@link java.util.TimerTask#run()} at {@link com.earnix.webk.runtime.html.impl.WindowImpl#setTimeout(com.earnix.webk.runtime.html.TimerHandler, int, java.lang.Object...)}
- * - {@link java.util.TimerTask#run()} at {@link com.earnix.webk.runtime.html.impl.WindowImpl#setInterval(com.earnix.webk.runtime.html.TimerHandler, int, java.lang.Object...)}
+ * - {@link com.earnix.webk.runtime.EventLoop} turns running timers set with
+ * {@link com.earnix.webk.runtime.html.impl.WindowImpl#setTimeout(com.earnix.webk.runtime.html.TimerHandler, int, java.lang.Object...)},
+ * {@link com.earnix.webk.runtime.html.impl.WindowImpl#setInterval(com.earnix.webk.runtime.html.TimerHandler, int, java.lang.Object...)}
+ * and microtasks queued with {@link com.earnix.webk.runtime.html.impl.WindowImpl#queueMicrotask(com.earnix.webk.runtime.web_idl.VoidFunction)}
+ * - {@link com.earnix.webk.runtime.FrameClock} frames running callbacks registered with
+ * {@link com.earnix.webk.runtime.html.impl.WindowImpl#requestAnimationFrame(com.earnix.webk.runtime.html.FrameRequestCallback)}
  *
  * @author Taras Maslov
  * 11/18/2018
@@ -0,0 +1,22 @@
+package com.earnix.webk.runtime.streams;
+
+import com.earnix.webk.runtime.dom.Window;
+import com.earnix.webk.runtime.future.Promise;
+import com.earnix.webk.runtime.future.Worker;
+import com.earnix.webk.runtime.web_idl.Exposed;
+import com.earnix.webk.runtime.web_idl.Optional;
+import com.earnix.webk.runtime.web_idl.ReadonlyAttribute;
+
+/**
+ * Readable stream without constructor, piping and teeing.
+ */
+@Exposed({Window.class, Worker.class})
+public interface ReadableStream {
+
+    @ReadonlyAttribute
+    boolean locked();
+
+    Promise<Void> cancel(@Optional Object reason);
+
+    ReadableStreamDefaultReader getReader();
+}
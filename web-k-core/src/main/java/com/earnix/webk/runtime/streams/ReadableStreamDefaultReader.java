@@ -0,0 +1,24 @@
+package com.earnix.webk.runtime.streams;
+
+import com.earnix.webk.runtime.dom.Window;
+import com.earnix.webk.runtime.future.Promise;
+import com.earnix.webk.runtime.future.Worker;
+import com.earnix.webk.runtime.web_idl.Exposed;
+import com.earnix.webk.runtime.web_idl.Optional;
+import com.earnix.webk.runtime.web_idl.ReadonlyAttribute;
+
+@Exposed({Window.class, Worker.class})
+public interface ReadableStreamDefaultReader {
+
+    @ReadonlyAttribute
+    Promise<Void> closed();
+
+    Promise<Void> cancel(@Optional Object reason);
+
+    /**
+     * @return promise of read result, object with value and done members
+     */
+    Promise<Object> read();
+
+    void releaseLock();
+}
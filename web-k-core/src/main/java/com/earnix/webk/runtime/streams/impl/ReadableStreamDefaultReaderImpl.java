@@ -0,0 +1,46 @@
+package com.earnix.webk.runtime.streams.impl;
+
+import com.earnix.webk.runtime.ScriptContext;
+import com.earnix.webk.runtime.future.Promise;
+import com.earnix.webk.runtime.future.impl.PromiseImpl;
+import com.earnix.webk.runtime.streams.ReadableStreamDefaultReader;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.experimental.FieldDefaults;
+
+/**
+ * Reader locking {@link ReadableStreamImpl} until released.
+ */
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class ReadableStreamDefaultReaderImpl implements ReadableStreamDefaultReader {
+
+    ReadableStreamImpl stream;
+
+    @Getter(AccessLevel.PACKAGE)
+    PromiseImpl<Void> closed;
+
+    ReadableStreamDefaultReaderImpl(ScriptContext scriptContext, ReadableStreamImpl stream) {
+        this.stream = stream;
+        this.closed = new PromiseImpl<>(scriptContext);
+    }
+
+    @Override
+    public Promise<Void> closed() {
+        return closed;
+    }
+
+    @Override
+    public Promise<Void> cancel(Object reason) {
+        return stream.cancelImpl();
+    }
+
+    @Override
+    public Promise<Object> read() {
+        return stream.read();
+    }
+
+    @Override
+    public void releaseLock() {
+        stream.release(this);
+    }
+}
@@ -0,0 +1,319 @@
+package com.earnix.webk.runtime.streams.impl;
+
+import com.earnix.webk.runtime.ScriptContext;
+import com.earnix.webk.runtime.future.Promise;
+import com.earnix.webk.runtime.future.impl.PromiseImpl;
+import com.earnix.webk.runtime.streams.ReadableStream;
+import com.earnix.webk.runtime.streams.ReadableStreamDefaultReader;
+import com.earnix.webk.runtime.web_idl.DOMException;
+import com.earnix.webk.runtime.xhr.impl.ResponseBuffer;
+import lombok.AccessLevel;
+import lombok.experimental.FieldDefaults;
+import lombok.val;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.function.Function;
+
+/**
+ * Readable byte stream fed by an underlying source running on another thread, e.g. network read of response body.
+ * <p>
+ * The source pushes chunks with {@link #enqueue(byte[])} and finishes with {@link #close()} or
+ * {@link #error(String, String)}. Chunks are delivered to pending reads of the reader as they arrive, or queued until
+ * read; once queued chunks reach the high-water mark, the source parks with {@link #parkSource(Runnable)} until they
+ * are read. Whole content may be consumed at once with {@link #readAll(Function)}. Script-facing methods are called on
+ * the event dispatch thread, promises are settled through the event loop.
+ */
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class ReadableStreamImpl implements ReadableStream {
+
+    private static final int INITIAL_BUFFER_SIZE = 64 * 1024;
+
+    enum State {
+        READABLE, CLOSED, ERRORED
+    }
+
+    final ScriptContext scriptContext;
+
+    /**
+     * Cancels the underlying source, e.g. aborts network request
+     */
+    final Runnable cancelSource;
+
+    /**
+     * Size of queued chunks in bytes, at which the source is parked
+     */
+    final int highWaterMark;
+
+    final ArrayDeque<byte[]> chunks = new ArrayDeque<>();
+    final ArrayDeque<PromiseImpl<Object>> pendingReads = new ArrayDeque<>();
+    int queuedSize;
+
+    /**
+     * Continues the parked source
+     */
+    Runnable resumeSource;
+
+    State state = State.READABLE;
+    String errorName;
+    String errorMessage;
+
+    boolean locked;
+    boolean disturbed;
+    ReadableStreamDefaultReaderImpl reader;
+
+    /**
+     * Whole content collected by {@link #readAll(Function)}
+     */
+    ResponseBuffer collected;
+    PromiseImpl<Object> collectedPromise;
+    Function<ResponseBuffer, Object> collectedResult;
+
+    /**
+     * @param highWaterMark size of queued chunks in bytes, at which the source is parked
+     */
+    public ReadableStreamImpl(ScriptContext scriptContext, int highWaterMark, Runnable cancelSource) {
+        this.scriptContext = scriptContext;
+        this.highWaterMark = highWaterMark;
+        this.cancelSource = cancelSource;
+    }
+
+    // region -- underlying source, called from any thread --
+
+    /**
+     * @param chunk received bytes, not to be modified afterwards
+     */
+    public synchronized void enqueue(byte[] chunk) {
+        if (state != State.READABLE) {
+            return;
+        }
+        if (collected != null) {
+            collected.write(chunk, 0, chunk.length);
+        } else if (!pendingReads.isEmpty()) {
+            resolveRead(pendingReads.poll(), chunk);
+        } else {
+            chunks.add(chunk);
+            queuedSize += chunk.length;
+        }
+    }
+
+    /**
+     * Parks the source if queued chunks reach the high-water mark, so content not read by scripts is not buffered
+     * whole.
+     *
+     * @param resume continues the source once queued chunks are read, or the stream is read whole, cancelled or errored
+     * @return true if the source is parked and has to stop reading, false if it may enqueue more chunks
+     */
+    public synchronized boolean parkSource(Runnable resume) {
+        if (!isFull()) {
+            return false;
+        }
+        resumeSource = resume;
+        return true;
+    }
+
+    public synchronized void close() {
+        if (state != State.READABLE) {
+            return;
+        }
+        state = State.CLOSED;
+        resumeSource();
+        if (collectedPromise != null) {
+            val buffer = collected;
+            val result = collectedResult;
+            collectedPromise.resolveWith(() -> result.apply(buffer));
+        }
+        while (!pendingReads.isEmpty()) {
+            resolveRead(pendingReads.poll(), null);
+        }
+        if (reader != null) {
+            reader.getClosed().resolve(null);
+        }
+    }
+
+    /**
+     * @param name error name, e.g. TypeError or AbortError
+     */
+    public synchronized void error(String name, String message) {
+        if (state != State.READABLE) {
+            return;
+        }
+        state = State.ERRORED;
+        errorName = name;
+        errorMessage = message;
+        chunks.clear();
+        queuedSize = 0;
+        resumeSource();
+        if (collectedPromise != null) {
+            collectedPromise.reject(name, message);
+        }
+        while (!pendingReads.isEmpty()) {
+            pendingReads.poll().reject(name, message);
+        }
+        if (reader != null) {
+            reader.getClosed().reject(name, message);
+        }
+    }
+
+    // endregion
+
+    /**
+     * Reads all remaining content, locking the stream.
+     *
+     * @param result converts received content to resolution value, called on the event dispatch thread
+     */
+    public synchronized PromiseImpl<Object> readAll(Function<ResponseBuffer, Object> result) {
+        val promise = new PromiseImpl<Object>(scriptContext);
+        if (locked) {
+            promise.reject("TypeError", "Body is locked or already used");
+            return promise;
+        }
+        locked = true;
+        disturbed = true;
+
+        val buffer = new ResponseBuffer(INITIAL_BUFFER_SIZE);
+        for (byte[] chunk : chunks) {
+            buffer.write(chunk, 0, chunk.length);
+        }
+        chunks.clear();
+        queuedSize = 0;
+
+        switch (state) {
+            case CLOSED:
+                promise.resolveWith(() -> result.apply(buffer));
+                break;
+            case ERRORED:
+                promise.reject(errorName, errorMessage);
+                break;
+            default:
+                collected = buffer;
+                collectedPromise = promise;
+                collectedResult = result;
+                resumeSource();
+        }
+        return promise;
+    }
+
+    /**
+     * @return whether the stream was read or cancelled, see bodyUsed of Response
+     */
+    public synchronized boolean isDisturbed() {
+        return disturbed;
+    }
+
+    @Override
+    public synchronized boolean locked() {
+        return locked;
+    }
+
+    @Override
+    public Promise<Void> cancel(Object reason) {
+        if (locked) {
+            val promise = new PromiseImpl<Void>(scriptContext);
+            promise.reject("TypeError", "Stream is locked");
+            return promise;
+        }
+        return cancelImpl();
+    }
+
+    @Override
+    public synchronized ReadableStreamDefaultReader getReader() {
+        if (locked) {
+            throw new DOMException("TypeError");
+        }
+        locked = true;
+        reader = new ReadableStreamDefaultReaderImpl(scriptContext, this);
+        switch (state) {
+            case CLOSED:
+                reader.getClosed().resolve(null);
+                break;
+            case ERRORED:
+                reader.getClosed().reject(errorName, errorMessage);
+                break;
+            default:
+        }
+        return reader;
+    }
+
+    // region -- reader support --
+
+    synchronized PromiseImpl<Object> read() {
+        disturbed = true;
+        val promise = new PromiseImpl<Object>(scriptContext);
+        if (!chunks.isEmpty()) {
+            val chunk = chunks.poll();
+            queuedSize -= chunk.length;
+            resolveRead(promise, chunk);
+            resumeSource();
+        } else if (state == State.CLOSED) {
+            resolveRead(promise, null);
+        } else if (state == State.ERRORED) {
+            promise.reject(errorName, errorMessage);
+        } else {
+            pendingReads.add(promise);
+        }
+        return promise;
+    }
+
+    synchronized void release(ReadableStreamDefaultReaderImpl released) {
+        if (reader != released) {
+            return;
+        }
+        while (!pendingReads.isEmpty()) {
+            pendingReads.poll().reject("TypeError", "Reader was released");
+        }
+        if (!released.getClosed().isSettled()) {
+            released.getClosed().reject("TypeError", "Reader was released");
+        }
+        reader = null;
+        locked = false;
+    }
+
+    synchronized PromiseImpl<Void> cancelImpl() {
+        disturbed = true;
+        val promise = new PromiseImpl<Void>(scriptContext);
+        if (state == State.ERRORED) {
+            promise.reject(errorName, errorMessage);
+            return promise;
+        }
+        if (state == State.READABLE) {
+            close();
+            chunks.clear();
+            queuedSize = 0;
+            cancelSource.run();
+        }
+        promise.resolve(null);
+        return promise;
+    }
+
+    // endregion
+
+    /**
+     * @return whether the source has to stop until queued chunks are read
+     */
+    private boolean isFull() {
+        return state == State.READABLE && collected == null && queuedSize >= highWaterMark;
+    }
+
+    private void resumeSource() {
+        val resume = resumeSource;
+        if (resume != null && !isFull()) {
+            resumeSource = null;
+            resume.run();
+        }
+    }
+
+    /**
+     * @param chunk read chunk, null if stream is closed
+     */
+    private void resolveRead(PromiseImpl<Object> promise, byte[] chunk) {
+        promise.resolveWith(() -> {
+            val result = scriptContext.newObject();
+            if (chunk != null) {
+                result.setMember("value", scriptContext.newUint8Array(ByteBuffer.wrap(chunk)));
+            }
+            result.setMember("done", chunk == null);
+            return result;
+        });
+    }
+}
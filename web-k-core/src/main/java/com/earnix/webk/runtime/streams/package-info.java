@@ -0,0 +1,6 @@
+/**
+ * https://streams.spec.whatwg.org/
+ * <p>
+ * Implemented are readable byte streams of fetch response bodies, read by default reader.
+ */
+package com.earnix.webk.runtime.streams;
@@ -57,6 +57,11 @@ public class MouseEventsAdapter implements MouseListener, MouseMotionListener, M
     Set<Integer> pressedKeys = new HashSet<>();
     Set<Integer> pressedMouseButtons = new HashSet<>();
 
+    /**
+     * Latest mouse move or drag not handled yet; moves queued in the same event queue turn are coalesced into it
+     */
+    MouseEvent pendingMove;
+
     public MouseEventsAdapter(ScriptContext context) {
         this.eventManager = context.getEventManager();
         this.context = context;
@@ -132,6 +137,7 @@ public class MouseEventsAdapter implements MouseListener, MouseMotionListener, M
             return;
         }
 
+        flushMouseMove();
         Point point = convertCoordinates(e);
         val optionalElement = getElement(point.x, point.y);
 
@@ -183,6 +189,7 @@ public class MouseEventsAdapter implements MouseListener, MouseMotionListener, M
             return;
         }
 
+        flushMouseMove();
         pressedMouseButtons.add(e.getButton());
         val point = convertCoordinates(e);
         getElement(point.x, point.y).ifPresent((element) -> {
@@ -199,6 +206,7 @@ public class MouseEventsAdapter implements MouseListener, MouseMotionListener, M
             return;
         }
 
+        flushMouseMove();
         pressedMouseButtons.remove(e.getButton());
         val point = convertCoordinates(e);
         getElement(point.x, point.y).ifPresent((element) -> {
@@ -221,6 +229,7 @@ public class MouseEventsAdapter implements MouseListener, MouseMotionListener, M
             });
             return;
         }
+        flushMouseMove();
         if (hovered != null) {
             mouseleave(hovered, e);
             mouseout(hovered, e);
@@ -238,7 +247,7 @@ public class MouseEventsAdapter implements MouseListener, MouseMotionListener, M
             return;
         }
 
-        handleMouseMove(e);
+        queueMouseMove(e);
         lastAwtMouseEvent = e;
     }
 
@@ -251,7 +260,7 @@ public class MouseEventsAdapter implements MouseListener, MouseMotionListener, M
             return;
         }
 
-        handleMouseMove(e);
+        queueMouseMove(e);
         lastAwtMouseEvent = e;
     }
 
@@ -264,6 +273,29 @@ public class MouseEventsAdapter implements MouseListener, MouseMotionListener, M
         return SwingUtilities.convertPoint((JComponent) e.getSource(), e.getX(), e.getY(), panel);
     }
 
+    /**
+     * Defers handling of the mouse move to the end of events already queued, so a burst of moves is hit tested and
+     * dispatched once, for the latest position.
+     */
+    private void queueMouseMove(MouseEvent e) {
+        boolean scheduled = pendingMove != null;
+        pendingMove = e;
+        if (!scheduled) {
+            SwingUtilities.invokeLater(this::flushMouseMove);
+        }
+    }
+
+    /**
+     * Handles the pending mouse move, if any; other mouse events call this first to keep the events order.
+     */
+    private void flushMouseMove() {
+        val e = pendingMove;
+        if (e != null) {
+            pendingMove = null;
+            handleMouseMove(e);
+        }
+    }
+
     private void handleMouseMove(MouseEvent e) {
         val location = SwingUtilities.convertPoint((JComponent) (e.getSource()), e.getPoint(), panel);
         val optionalElement = getElement(location.x, location.y);
@@ -408,6 +440,9 @@ public class MouseEventsAdapter implements MouseListener, MouseMotionListener, M
     }
 
     private void mousemove(Element target, MouseEvent awtEvent) {
+        if (!eventManager.hasListeners("mousemove")) {
+            return;
+        }
         MouseEventInit init = createMouseEventInit(awtEvent);
         init.bubbles = true;
         init.cancelable = true;
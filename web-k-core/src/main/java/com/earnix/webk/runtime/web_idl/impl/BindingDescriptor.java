@@ -0,0 +1,380 @@
+package com.earnix.webk.runtime.web_idl.impl;
+
+import com.earnix.webk.runtime.web_idl.Attribute;
+import com.earnix.webk.runtime.web_idl.DefaultBoolean;
+import com.earnix.webk.runtime.web_idl.DefaultDouble;
+import com.earnix.webk.runtime.web_idl.DefaultLong;
+import com.earnix.webk.runtime.web_idl.DefaultNull;
+import com.earnix.webk.runtime.web_idl.DefaultString;
+import com.earnix.webk.runtime.web_idl.NullTreat;
+import com.earnix.webk.runtime.web_idl.Nullable;
+import com.earnix.webk.runtime.web_idl.ReadonlyAttribute;
+import com.earnix.webk.runtime.web_idl.TreatNullAs;
+import com.earnix.webk.util.AssertHelper;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.experimental.FieldDefaults;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.ClassUtils;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Parameter;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * WebIDL binding metadata of an implementation class: attributes, operations and their parameters, property
+ * getter and setter. Computed once per class (see {@link #of(Class)}) and shared by all {@link WebIDLAdapter}
+ * instances wrapping objects of that class, so wrapping an object does not involve reflection.
+ * <p>
+ * Members are invoked through {@link MethodHandle}s instead of {@link Method#invoke(Object, Object...)}.
+ */
+@Slf4j
+@Getter
+@FieldDefaults(level = AccessLevel.PRIVATE)
+class BindingDescriptor {
+
+    private static final ClassValue<BindingDescriptor> DESCRIPTORS = new ClassValue<BindingDescriptor>() {
+        @Override
+        protected BindingDescriptor computeValue(Class<?> type) {
+            return new BindingDescriptor(type);
+        }
+    };
+
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+    private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+    private static final MethodType INVOKER_TYPE = MethodType.methodType(Object.class, Object.class, Object[].class);
+
+    /**
+     * Names of members added to every adapter by {@link WebIDLAdapter} itself.
+     */
+    static final String TO_STRING = "toString";
+    static final String EQUALS = "equals";
+
+    final Map<String, Member> members = new LinkedHashMap<>();
+
+    /**
+     * Operation annotated with {@link PropertyGetter}
+     */
+    Operation propertyGetter;
+
+    /**
+     * Operation annotated with {@link PropertySetter}
+     */
+    Operation propertySetter;
+
+    static BindingDescriptor of(Class<?> type) {
+        return DESCRIPTORS.get(type);
+    }
+
+    private BindingDescriptor(Class<?> type) {
+        for (Class<?> i : ClassUtils.getAllInterfaces(type)) {
+            for (Method m : i.getMethods()) {
+                try {
+                    processMethod(m);
+                } catch (RuntimeException e) {
+                    log.error("Unable to bind {} of {}", m, type.getName(), e);
+                }
+            }
+        }
+
+        members.remove(TO_STRING);
+        members.remove(EQUALS);
+
+        AssertHelper.assertState(propertyGetter != null ^ propertySetter == null, type.getName());
+    }
+
+    private void processMethod(Method m) {
+        // Attribute member
+        if (m.getReturnType().equals(Attribute.class)) {
+            members.put(m.getName(), new AttributeMember(m, false, typeArgument(m.getGenericReturnType())));
+            return;
+        }
+
+        if (m.isAnnotationPresent(ReadonlyAttribute.class)) {
+            members.put(m.getName(), new AttributeMember(m, true, m.getReturnType()));
+            return;
+        }
+
+        // Operation member
+        Operation operation = new Operation(m);
+
+        if (m.getAnnotation(PropertyGetter.class) != null) {
+            AssertHelper.assertState(propertyGetter == null);
+            propertyGetter = operation;
+        }
+
+        if (m.getAnnotation(PropertySetter.class) != null) {
+            AssertHelper.assertState(propertySetter == null);
+            propertySetter = operation;
+        }
+
+        // multiple operations are supported for different number of arguments
+        Member current = members.get(m.getName());
+        if (current instanceof OperationMember) {
+            ((OperationMember) current).overloads.put(m.getParameterCount(), operation);
+            return;
+        } else if (current != null) {
+            log.error("Overriding member {} of {}", m.getName(), m.getDeclaringClass().getName());
+        }
+        OperationMember member = new OperationMember(m.getName());
+        member.overloads.put(m.getParameterCount(), operation);
+        members.put(m.getName(), member);
+    }
+
+    Member getMember(String name) {
+        return members.get(name);
+    }
+
+    boolean hasMember(String name) {
+        return members.containsKey(name) || TO_STRING.equals(name) || EQUALS.equals(name);
+    }
+
+    Set<String> getMemberNames() {
+        return Collections.unmodifiableSet(members.keySet());
+    }
+
+    /**
+     * @return first type argument of given parameterized type, or null if it is not parameterized with a class
+     */
+    @javax.annotation.Nullable
+    private static Class<?> typeArgument(Type type) {
+        if (type instanceof ParameterizedType) {
+            Type argument = ((ParameterizedType) type).getActualTypeArguments()[0];
+            if (argument instanceof Class) {
+                return (Class<?>) argument;
+            } else if (argument instanceof ParameterizedType) {
+                return (Class<?>) ((ParameterizedType) argument).getRawType();
+            }
+        }
+        return null;
+    }
+
+    private static MethodHandle unreflect(Method method) {
+        try {
+            return LOOKUP.unreflect(method);
+        } catch (IllegalAccessException e) {
+            // method of non-public interface
+            method.setAccessible(true);
+            try {
+                return LOOKUP.unreflect(method);
+            } catch (IllegalAccessException ex) {
+                throw new IllegalStateException(ex);
+            }
+        }
+    }
+
+    private static Object invoke(MethodHandle invoker, Object target, Object[] args) {
+        try {
+            return (Object) invoker.invokeExact(target, args);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Named member of WebIDL interface
+     */
+    @Getter
+    @FieldDefaults(level = AccessLevel.PRIVATE)
+    abstract static class Member {
+        final String name;
+
+        Member(String name) {
+            this.name = name;
+        }
+    }
+
+    /**
+     * Attribute member, either method returning {@link Attribute} or method annotated with {@link ReadonlyAttribute}.
+     */
+    @Getter
+    @FieldDefaults(level = AccessLevel.PRIVATE)
+    static class AttributeMember extends Member {
+        final boolean readonly;
+        final Class<?> attributeClass;
+        final MethodHandle getter;
+
+        AttributeMember(Method method, boolean readonly, Class<?> attributeClass) {
+            super(method.getName());
+            this.readonly = readonly;
+            this.attributeClass = attributeClass;
+            this.getter = unreflect(method).asType(GETTER_TYPE);
+        }
+
+        /**
+         * @return attribute value for readonly attribute, {@link Attribute} instance otherwise
+         */
+        Object get(Object target) {
+            try {
+                return (Object) getter.invokeExact(target);
+            } catch (RuntimeException | Error e) {
+                throw e;
+            } catch (Throwable e) {
+                throw new RuntimeException(e);
+            }
+        }
+    }
+
+    /**
+     * Operation member, possibly overloaded by arguments count.
+     */
+    @FieldDefaults(level = AccessLevel.PRIVATE)
+    static class OperationMember extends Member {
+        final TreeMap<Integer, Operation> overloads = new TreeMap<>();
+
+        OperationMember(String name) {
+            super(name);
+        }
+
+        boolean isOverloaded() {
+            return overloads.size() > 1;
+        }
+
+        /**
+         * @return arguments count of not overloaded operation, null otherwise
+         */
+        Integer getArgsCount() {
+            return isOverloaded() ? null : overloads.firstKey();
+        }
+
+        /**
+         * Selects operation to be called with given arguments count: one having exactly that count of parameters or,
+         * if there is no such, closest one with larger count.
+         */
+        @javax.annotation.Nullable
+        Operation select(int argsCount) {
+            if (!isOverloaded()) {
+                return overloads.firstEntry().getValue();
+            }
+            Map.Entry<Integer, Operation> entry = overloads.ceilingEntry(argsCount);
+            return entry != null ? entry.getValue() : null;
+        }
+    }
+
+    /**
+     * Single Java method implementing WebIDL operation.
+     */
+    @Getter
+    @FieldDefaults(level = AccessLevel.PRIVATE)
+    static class Operation {
+        final Method method;
+        final ParameterBinding[] parameters;
+        final boolean varArgs;
+        final MethodHandle invoker;
+
+        Operation(Method method) {
+            this.method = method;
+            this.varArgs = method.isVarArgs();
+
+            Parameter[] reflected = method.getParameters();
+            Type[] genericTypes = method.getGenericParameterTypes();
+            parameters = new ParameterBinding[reflected.length];
+            for (int i = 0; i < reflected.length; i++) {
+                parameters[i] = new ParameterBinding(reflected[i], genericTypes[i]);
+            }
+
+            invoker = unreflect(method)
+                    .asFixedArity()
+                    .asSpreader(Object[].class, method.getParameterCount())
+                    .asType(INVOKER_TYPE);
+        }
+
+        /**
+         * Invokes operation on given target.
+         *
+         * @param args Java arguments, exactly matching operation parameters
+         */
+        Object invoke(Object target, Object[] args) {
+            return BindingDescriptor.invoke(invoker, target, args);
+        }
+
+        /**
+         * Invokes operation replacing its last missing arguments with null's.
+         *
+         * @see ReflectionHelper#relaxedInvoke(Object, Method, Object...)
+         */
+        Object relaxedInvoke(Object target, Object... args) {
+            if (args.length > parameters.length) {
+                throw new IllegalArgumentException();
+            }
+            if (args.length < parameters.length) {
+                Object[] padded = new Object[parameters.length];
+                System.arraycopy(args, 0, padded, 0, args.length);
+                args = padded;
+            }
+            return invoke(target, args);
+        }
+    }
+
+    /**
+     * Operation parameter with its WebIDL annotations resolved.
+     */
+    @Getter
+    @FieldDefaults(level = AccessLevel.PRIVATE)
+    static class ParameterBinding {
+        final Parameter parameter;
+        final Class<?> type;
+
+        /**
+         * Type argument of parameterized parameter type, e.g. element type of sequence
+         */
+        final Class<?> genericType;
+        final boolean optional;
+        final boolean nullable;
+        final boolean treatNullAsEmptyString;
+        final boolean defaultNull;
+        final Optional<Object> defaultValue;
+
+        ParameterBinding(Parameter parameter, Type genericParameterType) {
+            this.parameter = parameter;
+            this.type = parameter.getType();
+            this.genericType = typeArgument(genericParameterType);
+            this.optional = parameter.isAnnotationPresent(com.earnix.webk.runtime.web_idl.Optional.class);
+            this.nullable = parameter.isAnnotationPresent(Nullable.class);
+            this.treatNullAsEmptyString = parameter.isAnnotationPresent(TreatNullAs.class)
+                    && parameter.getAnnotation(TreatNullAs.class).value() == NullTreat.EmptyString;
+            this.defaultNull = parameter.isAnnotationPresent(DefaultNull.class);
+            this.defaultValue = resolveDefaultValue(parameter);
+        }
+
+        @SuppressWarnings("unchecked")
+        private static Optional<Object> resolveDefaultValue(Parameter parameter) {
+
+            final Object result;
+
+            if (parameter.isAnnotationPresent(DefaultString.class)) {
+                result = parameter.getAnnotation(DefaultString.class).value();
+            } else if (parameter.isAnnotationPresent(DefaultBoolean.class)) {
+                result = parameter.getAnnotation(DefaultBoolean.class).value();
+            } else if (parameter.isAnnotationPresent(DefaultDouble.class)) {
+                result = parameter.getAnnotation(DefaultDouble.class).value();
+            } else if (parameter.isAnnotationPresent(DefaultLong.class)) {
+                result = parameter.getAnnotation(DefaultLong.class).value();
+            } else {
+                result = null;
+            }
+
+            if (parameter.getType().isEnum()) {
+                try {
+                    return Optional.of(Enum.valueOf((Class) parameter.getType(), String.valueOf(result)));
+                } catch (IllegalArgumentException e) {
+                    return Optional.ofNullable(result);
+                }
+            }
+
+            return Optional.ofNullable(result);
+        }
+    }
+}
@@ -1,24 +1,17 @@
 package com.earnix.webk.runtime.web_idl.impl;
 
 import com.earnix.webk.runtime.ScriptContext;
+import com.earnix.webk.runtime.future.impl.PromiseImpl;
 import com.earnix.webk.runtime.web_idl.Attribute;
-import com.earnix.webk.runtime.web_idl.DefaultBoolean;
-import com.earnix.webk.runtime.web_idl.DefaultDouble;
-import com.earnix.webk.runtime.web_idl.DefaultLong;
-import com.earnix.webk.runtime.web_idl.DefaultNull;
-import com.earnix.webk.runtime.web_idl.DefaultString;
 import com.earnix.webk.runtime.web_idl.Dictionary;
 import com.earnix.webk.runtime.web_idl.Function;
 import com.earnix.webk.runtime.web_idl.Indexed;
 import com.earnix.webk.runtime.web_idl.Iterable;
 import com.earnix.webk.runtime.web_idl.LegacyUnenumerableNamedProperties;
-import com.earnix.webk.runtime.web_idl.NullTreat;
 import com.earnix.webk.runtime.web_idl.Nullable;
-import com.earnix.webk.runtime.web_idl.ReadonlyAttribute;
 import com.earnix.webk.runtime.web_idl.Sequence;
-import com.earnix.webk.runtime.web_idl.TreatNullAs;
 import com.earnix.webk.runtime.web_idl.Typedef;
-import com.earnix.webk.util.AssertHelper;
+import com.earnix.webk.runtime.web_idl.VoidFunction;
 import jdk.nashorn.api.scripting.JSObject;
 import jdk.nashorn.api.scripting.ScriptObjectMirror;
 import jdk.nashorn.api.scripting.ScriptUtils;
@@ -26,27 +19,19 @@ import lombok.AccessLevel;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.experimental.FieldDefaults;
-import lombok.experimental.var;
 import lombok.extern.slf4j.Slf4j;
 import lombok.val;
 import org.apache.commons.lang3.ClassUtils;
-import org.apache.commons.lang3.reflect.MethodUtils;
 
-import java.lang.annotation.Annotation;
 import java.lang.reflect.Array;
-import java.lang.reflect.InvocationTargetException;
-import java.lang.reflect.Method;
-import java.lang.reflect.Parameter;
-import java.lang.reflect.ParameterizedType;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
-import java.util.Optional;
 import java.util.Set;
 import java.util.WeakHashMap;
-import java.util.stream.Stream;
 
 
 /**
@@ -67,22 +52,17 @@ public class WebIDLAdapter<T> implements JSObject {
 
     T target;
     ScriptContext scriptContext;
-    HashMap<String, Object> members = new HashMap<>();
-
-    /**
-     * Reference on the method annotated with {@link PropertyGetter}
-     */
-    Method propertyGetter;
+    BindingDescriptor descriptor;
 
     /**
-     * Reference on the method annotated with {@link PropertySetter}
+     * Members bound to this object on first access and values set by js runtime
      */
-    Method propertySetter;
+    HashMap<String, Object> members = new HashMap<>();
     
     private WebIDLAdapter(ScriptContext js, T target) {
         this.target = target;
         this.scriptContext = js;
-        processTarget();
+        this.descriptor = BindingDescriptor.of(target.getClass());
     }
 
     public T getTarget() {
@@ -98,7 +78,10 @@ public class WebIDLAdapter<T> implements JSObject {
         return result;
     }
 
-    private static final Object READONLY_ATTRIBUTE_MARK = new Object();
+    /**
+     * Marks member of WebIDL interface removed by js runtime
+     */
+    private static final Object REMOVED = new Object();
 
     @Getter
     @AllArgsConstructor
@@ -107,133 +90,47 @@ public class WebIDLAdapter<T> implements JSObject {
         Class attributeClass;
     }
 
-
-    class MultiArgFunctionCallback implements Function<T> {
-        private HashMap<Integer, Function> callbacks = new HashMap<>();
-
-        public T call(Object ctx, Object... args) {
-            // calling callback with closest but larger args count
-            // todo thing about NPE
-            val callback = get(args.length);
-            if (callback != null) {
-                return (T) callback.call(ctx, args);
-            } else {
-                log.error("No matching function to call with given args count");
-                throw new RuntimeException();
-            }
-        }
-
-        MultiArgFunctionCallback add(Function callback, int argsCount) {
-            callbacks.put(argsCount, callback);
-            return this;
+    /**
+     * @return member set by js runtime or bound from {@link BindingDescriptor}, null if there is no such
+     */
+    private Object member(String key) {
+        Object member = members.get(key);
+        if (member == REMOVED) {
+            return null;
         }
-
-        @javax.annotation.Nullable
-        Function get(Integer argsCount) {
-            var callback = callbacks.get(argsCount);
-            if (callback == null) {
-                // finding first with larger args count
-                int approximateCount = callbacks.keySet().stream().filter(i -> i > argsCount).mapToInt(i -> i).min().getAsInt();
-                callback = callbacks.get(approximateCount);
+        if (member == null && !members.containsKey(key)) {
+            member = bindMember(key);
+            if (member != null) {
+                members.put(key, member);
             }
-
-            // only functions with less number of args...
-            return callback;
         }
+        return member;
     }
 
-    private void processTarget() {
-
-        try {
-
-            ClassUtils.getAllInterfaces(target.getClass())
-                    .stream()
-                    .flatMap(i -> Stream.of(i.getMethods()))
-                    .forEach(m -> {
-
-
-                        // Attribute member
-                        try {
-                            if (m.getReturnType().equals(Attribute.class)) {
-                                members.put(m.getName(), new AttributeLink(
-                                        (Attribute<?>) m.invoke(target),
-                                        (Class<?>) ((ParameterizedType) m.getGenericReturnType()).getActualTypeArguments()[0])
-                                );
-                                return;
-                            }
-                        } catch (IllegalAccessException | InvocationTargetException e) {
-                            throw new RuntimeException(e);
-                        } catch (RuntimeException e) {
-                            throw e; // todo rem
-                        }
-
-
-                        if (m.isAnnotationPresent(ReadonlyAttribute.class)) {
-                            members.put(m.getName(), READONLY_ATTRIBUTE_MARK);
-                            return;
-                        }
-
-                        // Function member
-
-                        @SuppressWarnings("RedundantCast")
-                        val callback = (Function) (ctx, args) -> {
-                            final Object res;
-
-                            try {
-                                res = MethodUtils.invokeMethod(target, m.getName(), prepareArguments(m, args), m.getParameterTypes());
-                            } catch (IllegalAccessException | InvocationTargetException | NoSuchMethodException | IllegalArgumentException e) {
-                                throw new RuntimeException(e);
-                            }
-                            return convertToScript(res);
-                        };
-
-                        if (m.getAnnotation(PropertyGetter.class) != null) {
-                            AssertHelper.assertState(propertyGetter == null);
-                            propertyGetter = m;
-                        }
-
-
-                        if (m.getAnnotation(PropertySetter.class) != null) {
-                            AssertHelper.assertState(propertySetter == null);
-                            propertySetter = m;
-                        }
-                        
-//                        val function = new Function<>(js, 
-//
-//                        }, m.getName());
-                        // multiple functions are supported for different number of arguments
-                        val currentMember = members.get(m.getName());
-                        if (currentMember != null) {
-                            if (currentMember.getClass().equals(FunctionAdapter.class)) {
-                                val function = (FunctionAdapter) currentMember;
-                                if (function.getCallback() instanceof WebIDLAdapter.MultiArgFunctionCallback) {
-                                    val multiArgCallback = (MultiArgFunctionCallback) function.getCallback();
-                                    multiArgCallback.add(callback, m.getParameterCount());
-                                } else {
-                                    val multiArgCallback = new MultiArgFunctionCallback();
-                                    multiArgCallback.add(function.getCallback(), function.getArgsCount()).add(callback, m.getParameterCount());
-                                    function.setCallback(multiArgCallback);
-                                    function.setArgsCount(null);
-                                }
-                                return;
-                            } else {
-                                log.error("Overriding member {} of {}", m.getName(), m.getDeclaringClass().getName());
-                            }
-                        }
-                        members.put(m.getName(), new FunctionAdapter<>(scriptContext, callback, m.getParameterCount(), m.getName()));
-                    });
-
-
-            members.put("toString", new FunctionAdapter<>(scriptContext, (ctx, arg) -> WebIDLAdapter.this.toString() + " " + target.toString(), 0, "toString"));
-
-            members.put("equals", new FunctionAdapter<>(scriptContext, (ctx, arg) ->
-                    WebIDLAdapter.this.equals(arg[0]), 1, "equals"));
+    private Object bindMember(String key) {
+        if (BindingDescriptor.TO_STRING.equals(key)) {
+            return new FunctionAdapter<>(scriptContext, (ctx, arg) -> WebIDLAdapter.this.toString() + " " + target.toString(), 0, key);
+        }
+        if (BindingDescriptor.EQUALS.equals(key)) {
+            return new FunctionAdapter<>(scriptContext, (ctx, arg) -> WebIDLAdapter.this.equals(arg[0]), 1, key);
+        }
 
-        } catch (RuntimeException e) {
-            e.printStackTrace();
+        val member = descriptor.getMember(key);
+        if (member instanceof BindingDescriptor.AttributeMember) {
+            val attribute = (BindingDescriptor.AttributeMember) member;
+            return attribute.isReadonly() ? attribute : new AttributeLink((Attribute<?>) attribute.get(target), attribute.getAttributeClass());
+        } else if (member instanceof BindingDescriptor.OperationMember) {
+            val operation = (BindingDescriptor.OperationMember) member;
+            return new FunctionAdapter<>(scriptContext, (ctx, args) -> {
+                val overload = operation.select(args.length);
+                if (overload == null) {
+                    log.error("No matching function to call with given args count");
+                    throw new RuntimeException();
+                }
+                return convertToScript(overload.invoke(target, prepareArguments(overload, args)));
+            }, operation.getArgsCount(), key);
         }
-        
-        AssertHelper.assertState(propertyGetter != null ^ propertySetter == null, target.toString());
+        return null;
     }
 
     @Override
@@ -256,20 +153,14 @@ public class WebIDLAdapter<T> implements JSObject {
     public Object getMember(String key) {
         log.trace("Getting member {} of {}", key, target);
         try {
-            val member = members.get(key);
+            val member = member(key);
             Object namedItem = null;
 
 
             if (member instanceof WebIDLAdapter.AttributeLink) {
                 return convertToScript((((AttributeLink) member).attribute).get());
-            } else if (READONLY_ATTRIBUTE_MARK.equals(member)) {
-                
-                try {
-                    return convertToScript(MethodUtils.invokeMethod(target, key));
-                } catch (NoSuchMethodException | IllegalAccessException | InvocationTargetException e) {
-                    throw new RuntimeException(e);
-                }
-                
+            } else if (member instanceof BindingDescriptor.AttributeMember) {
+                return convertToScript(((BindingDescriptor.AttributeMember) member).get(target));
             } else if (target instanceof LegacyUnenumerableNamedProperties) {
                 namedItem = ((LegacyUnenumerableNamedProperties) target).namedItem(key);
             }
@@ -280,8 +171,8 @@ public class WebIDLAdapter<T> implements JSObject {
                 return convertToScript(namedItem);
             }
 //
-            if (member == null && propertyGetter != null) {
-                return convertToScript(ReflectionHelper.relaxedInvoke(target, propertyGetter, key));
+            if (member == null && descriptor.getPropertyGetter() != null) {
+                return convertToScript(descriptor.getPropertyGetter().relaxedInvoke(target, key));
             }
 
             // function or custom value set by js runtime
@@ -308,7 +199,11 @@ public class WebIDLAdapter<T> implements JSObject {
 
     @Override
     public boolean hasMember(String s) {
-        return members.containsKey(s);
+        val member = members.get(s);
+        if (member == REMOVED) {
+            return false;
+        }
+        return member != null || members.containsKey(s) || descriptor.hasMember(s);
     }
 
     @Override
@@ -327,12 +222,17 @@ public class WebIDLAdapter<T> implements JSObject {
 
     @Override
     public void removeMember(String s) {
-        members.remove(s);
+        if (descriptor.hasMember(s)) {
+            members.put(s, REMOVED);
+        } else {
+            members.remove(s);
+        }
     }
 
     @Override
     public void setMember(String key, Object value) {
-        val member = members.get(key);
+        val member = member(key);
+        val propertySetter = descriptor.getPropertySetter();
         if (member instanceof WebIDLAdapter.AttributeLink) {
             try {
                 val att = ((AttributeLink) member).attribute;
@@ -348,17 +248,16 @@ public class WebIDLAdapter<T> implements JSObject {
             members.put(key, value);
         } else if (propertySetter != null) {
             try {
-                ReflectionHelper.relaxedInvoke(
+                propertySetter.relaxedInvoke(
                         target, 
-                        propertySetter, 
                         key, 
-                        toJavaPresentation(value, propertySetter.getParameterTypes()[1])
+                        toJavaPresentation(value, propertySetter.getParameters()[1].getType())
                 );
-            } catch (IllegalArgumentException e) {
+            } catch (IllegalArgumentException | ClassCastException e) {
                 log.warn("setMember", e);
                 members.put(key, value);
             }
-        } else if (READONLY_ATTRIBUTE_MARK.equals(members.get(key))){
+        } else if (member instanceof BindingDescriptor.AttributeMember){
            log.error("An attempt to change readonly attribute {} of {}", key, target);
         } else {
             members.put(key, value);
@@ -373,12 +272,25 @@ public class WebIDLAdapter<T> implements JSObject {
 
     @Override
     public Set<String> keySet() {
-        return members.keySet();
+        Set<String> result = new LinkedHashSet<>(descriptor.getMemberNames());
+        result.add(BindingDescriptor.TO_STRING);
+        result.add(BindingDescriptor.EQUALS);
+        result.addAll(members.keySet());
+        members.forEach((key, value) -> {
+            if (value == REMOVED) {
+                result.remove(key);
+            }
+        });
+        return result;
     }
 
     @Override
     public Collection<Object> values() {
-        return members.values();
+        List<Object> result = new ArrayList<>();
+        for (String key : keySet()) {
+            result.add(member(key));
+        }
+        return result;
     }
 
     @Override
@@ -429,10 +341,21 @@ public class WebIDLAdapter<T> implements JSObject {
 
 
     private Object convertToScript(Object source) {
+        return convertToScript(scriptContext, source);
+    }
+
+    /**
+     * Adapts Java value to be passed to script runtime.
+     */
+    public static Object convertToScript(ScriptContext scriptContext, Object source) {
 
         if (source instanceof JSObject) {
             return source;
         }
+
+        if (source instanceof PromiseImpl) {
+            return ((PromiseImpl) source).getPromise();
+        }
         
         if (source == null || ClassUtils.isPrimitiveOrWrapper(source.getClass())) {
             return source;
@@ -449,15 +372,16 @@ public class WebIDLAdapter<T> implements JSObject {
 
     /**
      * Adapts JavaScript arguments tobe passed to Java implementation methods
-     * @param method java method to be called
+     * @param operation java method to be called
      * @param rawArgs Nashorn JavaScript objects
      * @return Java objects (convenient method parameters)
      */
-    private Object[] prepareArguments(Method method, Object[] rawArgs) {
-        Object[] result = new Object[method.getParameterTypes().length];
+    private Object[] prepareArguments(BindingDescriptor.Operation operation, Object[] rawArgs) {
+        val parameters = operation.getParameters();
+        Object[] result = new Object[parameters.length];
         if (log.isDebugEnabled()) {
-            if (result.length < rawArgs.length && !method.isVarArgs()) {
-                log.debug("Too many params from JS call to {}", method.toString());
+            if (result.length < rawArgs.length && !operation.isVarArgs()) {
+                log.debug("Too many params from JS call to {}", operation.getMethod().toString());
             }
         }
 
@@ -466,12 +390,9 @@ public class WebIDLAdapter<T> implements JSObject {
         for (int i = 0; i < result.length; i++) {
             Object arg;
             Object rawArg;
-            val parameter = method.getParameters()[i];
-            val parameterType = method.getParameterTypes()[i];
-            val genericParameterType = method.getGenericParameterTypes()[i];
-            val genericType = (Class) (genericParameterType instanceof ParameterizedType ? ((ParameterizedType) genericParameterType).getActualTypeArguments()[0] : null);
+            val parameter = parameters[i];
 
-            if (i == method.getParameterCount() - 1 && method.isVarArgs()) {
+            if (i == parameters.length - 1 && operation.isVarArgs()) {
                 // all next args are targeted to vararg parameter
                 varargFromIndex = i;
                 break;
@@ -480,37 +401,37 @@ public class WebIDLAdapter<T> implements JSObject {
             if (rawArgs.length < i + 1) {
                 // absent parameter
 
-                if (!hasAnnotation(parameter, com.earnix.webk.runtime.web_idl.Optional.class)) {
-                    log.warn("Absent required argument {} for method {}", parameter, method);
+                if (!parameter.isOptional()) {
+                    log.warn("Absent required argument {} for method {}", parameter.getParameter(), operation.getMethod());
                 }
 
-                arg = getDefaultValue(parameter).orElse(null);
+                arg = parameter.getDefaultValue().orElse(null);
 
             } else {
                 rawArg = rawArgs[i];
 
                 if (rawArg != null) {
 
-                    arg = toJavaPresentation(rawArg, parameterType, genericType);
+                    arg = toJavaPresentation(rawArg, parameter.getType(), parameter.getGenericType());
 
                 } else {
                     // null parameter
 
-                    if (hasAnnotation(parameter, TreatNullAs.class) && parameter.getAnnotation(TreatNullAs.class).value() == NullTreat.EmptyString) {
+                    if (parameter.isTreatNullAsEmptyString()) {
                         arg = "";
                     } else {
-                        if (!hasAnnotation(parameter, Nullable.class) && hasAnnotation(parameter, com.earnix.webk.runtime.web_idl.Optional.class)) {
-                            val optionalDefaultValue = getDefaultValue(parameter);
+                        if (!parameter.isNullable() && parameter.isOptional()) {
+                            val optionalDefaultValue = parameter.getDefaultValue();
                             if (optionalDefaultValue.isPresent()) {
                                 arg = optionalDefaultValue.get();
                             } else {
                                 arg = null;
-                                if (!isDefaultNull(parameter)) {
-                                    log.warn("Non-nullable non-optional parameter {} of method {} received null", parameter, method);
+                                if (!parameter.isDefaultNull()) {
+                                    log.warn("Non-nullable non-optional parameter {} of method {} received null", parameter.getParameter(), operation.getMethod());
                                 }
                             }
-                        } else if (!hasAnnotation(parameter, Nullable.class)) {
-                            log.warn("Absent required parameter {} for method {}", parameter, method);
+                        } else if (!parameter.isNullable()) {
+                            log.warn("Absent required parameter {} for method {}", parameter.getParameter(), operation.getMethod());
                             arg = null;
                         } else {
                             arg = null;
@@ -519,13 +440,13 @@ public class WebIDLAdapter<T> implements JSObject {
                 }
             }
 
-            result[i] = toJavaPresentation(arg, parameterType);
+            result[i] = toJavaPresentation(arg, parameter.getType());
 
         }
 
         if (varargFromIndex > -1) {
             List<Object> varArgs = new ArrayList<>();
-            val varArgsArrayType = method.getParameterTypes()[method.getParameterCount() - 1];
+            val varArgsArrayType = parameters[parameters.length - 1].getType();
             val varArgsElementType = varArgsArrayType.getComponentType();
             for (int i = varargFromIndex; i < rawArgs.length; i++) {
                 varArgs.add(toJavaPresentation(rawArgs[i], varArgsElementType));
@@ -576,6 +497,9 @@ public class WebIDLAdapter<T> implements JSObject {
                 return new SequenceImpl<>(items);
             } else if (object instanceof ScriptObjectMirror && target.equals(Function.class)) {
                 return (Function<Object>) ((ScriptObjectMirror) object)::call;
+            } else if (object instanceof ScriptObjectMirror && target.equals(VoidFunction.class)) {
+                val function = (ScriptObjectMirror) object;
+                return (VoidFunction) () -> function.call(null);
             } else if (object instanceof ScriptObjectMirror && target.equals(String.class)) {
                 // we do not want to expose js entities as code strings for now
                 return null;
@@ -629,41 +553,6 @@ public class WebIDLAdapter<T> implements JSObject {
         }
     }
 
-    private boolean hasAnnotation(Parameter parameter, Class<? extends Annotation> annotation) {
-        return parameter.isAnnotationPresent(annotation);
-    }
-
-    private boolean isDefaultNull(Parameter parameter) {
-        return parameter.isAnnotationPresent(DefaultNull.class);
-    }
-
-    private java.util.Optional<Object> getDefaultValue(Parameter parameter) {
-
-        final Object result;
-
-        if (parameter.isAnnotationPresent(DefaultString.class)) {
-            result = parameter.getAnnotation(DefaultString.class).value();
-        } else if (parameter.isAnnotationPresent(DefaultBoolean.class)) {
-            result = parameter.getAnnotation(DefaultBoolean.class).value();
-        } else if (parameter.isAnnotationPresent(DefaultDouble.class)) {
-            result = parameter.getAnnotation(DefaultDouble.class).value();
-        } else if (parameter.isAnnotationPresent(DefaultLong.class)) {
-            result = parameter.getAnnotation(DefaultLong.class).value();
-        } else {
-            result = null;
-        }
-
-        if (parameter.getType().isEnum()) {
-            try {
-                return Optional.of(Enum.valueOf((Class) parameter.getType(), String.valueOf(result)));
-            } catch (IllegalArgumentException e) {
-                return Optional.ofNullable(result);
-            }
-        }
-
-        return java.util.Optional.ofNullable(result);
-    }
-
     @Override
     public String toString() {
         return target.toString();
@@ -0,0 +1,26 @@
+package com.earnix.webk.runtime.xhr.impl;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+
+/**
+ * Growable buffer of received response body, which exposes its content without copying.
+ */
+public class ResponseBuffer extends ByteArrayOutputStream {
+
+    public ResponseBuffer(int initialSize) {
+        super(initialSize);
+    }
+
+    /**
+     * @return read-write view of received bytes, its capacity equals to count of bytes
+     */
+    public synchronized ByteBuffer toByteBuffer() {
+        return ByteBuffer.wrap(buf, 0, count).slice();
+    }
+
+    public synchronized String toString(Charset charset) {
+        return new String(buf, 0, count, charset);
+    }
+}
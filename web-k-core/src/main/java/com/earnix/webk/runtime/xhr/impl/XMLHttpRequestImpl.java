@@ -16,6 +16,7 @@ import com.earnix.webk.runtime.dom.impl.Level1EventTarget;
 import com.earnix.webk.runtime.xhr.XMLHttpRequest;
 import com.earnix.webk.runtime.xhr.XMLHttpRequestResponseType;
 import com.earnix.webk.runtime.xhr.XMLHttpRequestUpload;
+import com.earnix.webk.util.Configuration;
 import lombok.AccessLevel;
 import lombok.experimental.Delegate;
 import lombok.experimental.FieldDefaults;
@@ -38,7 +39,6 @@ import org.apache.http.conn.ConnectTimeoutException;
 import org.apache.http.entity.StringEntity;
 import org.apache.http.impl.client.BasicCredentialsProvider;
 import org.apache.http.impl.client.CloseableHttpClient;
-import org.apache.http.impl.client.HttpClients;
 
 import javax.swing.SwingUtilities;
 import java.io.IOException;
@@ -47,12 +47,13 @@ import java.io.UnsupportedEncodingException;
 import java.net.MalformedURLException;
 import java.net.SocketTimeoutException;
 import java.net.URL;
-import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
 import java.util.HashMap;
 import java.util.NoSuchElementException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.stream.Stream;
 
 /**
@@ -85,20 +86,43 @@ public class XMLHttpRequestImpl implements XMLHttpRequest {
 
     static ExecutorService executor = Executors.newFixedThreadPool(10);
 
+    /**
+     * Size of reads from response stream
+     */
+    private static final int READ_SIZE = 64 * 1024;
+
+    /**
+     * Limit of response buffer pre-allocated according to Content-Length
+     */
+    private static final int MAX_PREALLOCATED_SIZE = 16 * 1024 * 1024;
+
+    /**
+     * Minimal interval between progress events, as recommended by specification
+     */
+    private static final long PROGRESS_INTERVAL_NANOS = TimeUnit.MILLISECONDS.toNanos(
+            Configuration.valueAsInt("xr.xhr.progress-interval", 50));
+
     final Level1EventTarget level1EventTarget;
 
-    byte[] response;
     String username;
     String password;
     String requestBody;
 
-    boolean aborted;
-    int loaded;
-    int total;
+    volatile boolean aborted;
+    volatile int loaded;
+    volatile int total;
     short readyState = UNSENT;
 
     HashMap<String, String> responseHeaders = new HashMap<>();
-    ByteBuffer responseBytes;
+    ResponseBuffer responseBuffer;
+    XMLHttpRequestResponseType responseType = XMLHttpRequestResponseType.none;
+
+    /**
+     * Response decoded according to {@link #responseType}, created once
+     */
+    Object responseObject;
+
+    final AtomicBoolean progressQueued = new AtomicBoolean();
     
     public XMLHttpRequestImpl(ScriptContext scriptContext) {
         this.context = scriptContext;
@@ -207,7 +231,8 @@ public class XMLHttpRequestImpl implements XMLHttpRequest {
     private void reset() {
         send = false;
         responseHeaders.clear();
-        response = null;
+        responseBuffer = null;
+        responseObject = null;
         loaded = 0;
         total = 0;
         setReadyState(UNSENT);
@@ -221,8 +246,11 @@ public class XMLHttpRequestImpl implements XMLHttpRequest {
                     throw new DOMException("Forbidden");
                 }
                 try (InputStream stream = requestUrl.openStream()) {
-                    this.response = IOUtils.toByteArray(stream);
+                    responseBuffer = new ResponseBuffer(READ_SIZE);
+                    IOUtils.copy(stream, responseBuffer, READ_SIZE);
+                    loaded = responseBuffer.size();
                 }
+                setReadyState(DONE);
             } else if (requestUrl.getProtocol().toLowerCase().startsWith("http")) {
 
                 HttpRequestBase request = createRequest();
@@ -243,8 +271,8 @@ public class XMLHttpRequestImpl implements XMLHttpRequest {
                     ctx.setCredentialsProvider(credentialsProvider);
                 }
 
-                requestHeaders.forEach(ctx::setAttribute);
-                CloseableHttpClient httpClient = HttpClients.createDefault();
+                requestHeaders.forEach(request::setHeader);
+                CloseableHttpClient httpClient = context.getPanel().getSharedContext().getHttpClient().getClient();
 
                 try (CloseableHttpResponse response = httpClient.execute(request, ctx)) {
 
@@ -254,33 +282,36 @@ public class XMLHttpRequestImpl implements XMLHttpRequest {
 
                     setReadyState(HEADERS_RECEIVED);
 
-                    responseBytes = ByteBuffer.allocate(0);
-
-                    try (val responseStream = response.getEntity().getContent()) {
-
-                        setReadyState(LOADING);
-
-                        total = (int) response.getEntity().getContentLength();
-                        loaded = 0;
-                        byte[] buffer = new byte[256];
-                        int read;
-                        while ((read = responseStream.read(buffer)) != 0) {
-                            responseBytes.put(buffer, 0, read);
-                            loaded += read;
-                            val event = new ProgressEventImpl("progress", null);
-                            event.setTotal(total);
-                            event.setLoaded(loaded);
-                            SwingUtilities.invokeLater(() -> {
-                                context.storeDocumentHash();
-                                context.getEventManager().publishEvent(eventTarget, event);
-                                context.handleDocumentHashUpdate();
-                            });
-                            if (aborted) {
-                                fireEvent("abort");
-                                return;
+                    val entity = response.getEntity();
+                    long contentLength = entity != null ? entity.getContentLength() : 0;
+                    total = (int) Math.max(0, Math.min(Integer.MAX_VALUE, contentLength));
+                    loaded = 0;
+                    responseBuffer = new ResponseBuffer(total > 0 ? Math.min(total, MAX_PREALLOCATED_SIZE) : READ_SIZE);
+
+                    if (entity != null) {
+                        try (val responseStream = entity.getContent()) {
+
+                            setReadyState(LOADING);
+
+                            byte[] chunk = new byte[READ_SIZE];
+                            long lastProgress = System.nanoTime();
+                            int read;
+                            while ((read = responseStream.read(chunk)) != -1) {
+                                responseBuffer.write(chunk, 0, read);
+                                loaded += read;
+                                if (aborted) {
+                                    fireEvent("abort");
+                                    return;
+                                }
+                                long now = System.nanoTime();
+                                if (now - lastProgress >= PROGRESS_INTERVAL_NANOS) {
+                                    lastProgress = now;
+                                    queueProgress();
+                                }
                             }
                         }
                     }
+                    queueProgress();
 
                     setReadyState(DONE);
                     
@@ -384,29 +415,69 @@ public class XMLHttpRequestImpl implements XMLHttpRequest {
         return new Attribute<XMLHttpRequestResponseType>() {
             @Override
             public XMLHttpRequestResponseType get() {
-                return null;
+                return responseType;
             }
 
             @Override
-            public void set(XMLHttpRequestResponseType xmlHttpRequestResponseType) {
-
+            public void set(XMLHttpRequestResponseType type) {
+                if (readyState == LOADING || readyState == DONE) {
+                    throw new DOMException("InvalidStateError");
+                }
+                responseType = type != null ? type : XMLHttpRequestResponseType.none;
             }
         };
     }
 
     @Override
     public Object response() {
-        return response;
+        switch (responseType) {
+            case none:
+            case text:
+                return responseText();
+            case document:
+                return responseXML();
+            case arraybuffer:
+                if (readyState != DONE || responseBuffer == null) {
+                    return null;
+                }
+                if (responseObject == null) {
+                    // shares received bytes, no copy
+                    responseObject = context.newArrayBuffer(responseBuffer.toByteBuffer());
+                }
+                return responseObject;
+            case json:
+                if (readyState != DONE || responseBuffer == null || responseBuffer.size() == 0) {
+                    return null;
+                }
+                if (responseObject == null) {
+                    try {
+                        responseObject = context.parseJson(responseBuffer.toString(StandardCharsets.UTF_8));
+                    } catch (RuntimeException e) {
+                        log.debug("Invalid JSON response", e);
+                        return null;
+                    }
+                }
+                return responseObject;
+            default:
+                // blob is not supported
+                return null;
+        }
     }
 
     @Override
     public String responseText() {
-        return new String(response, StandardCharsets.UTF_8);
+        if (responseType != XMLHttpRequestResponseType.none && responseType != XMLHttpRequestResponseType.text) {
+            throw new DOMException("InvalidStateError");
+        }
+        return responseBuffer != null ? responseBuffer.toString(StandardCharsets.UTF_8) : "";
     }
 
     @Override
     public Document responseXML() {
-        val doc = Jsoup.parse(new String(response, StandardCharsets.UTF_8));
+        if (responseBuffer == null || readyState != DONE) {
+            return null;
+        }
+        val doc = Jsoup.parse(responseBuffer.toString(StandardCharsets.UTF_8));
         doc.setScriptContext(context);
         doc.setBaseUri(requestUrl.toString());
         return doc;
@@ -452,6 +523,18 @@ public class XMLHttpRequestImpl implements XMLHttpRequest {
 
     // endregion
 
+    /**
+     * Queues progress event, unless one is already queued; the event reports progress as of its dispatch.
+     */
+    private void queueProgress() {
+        if (progressQueued.compareAndSet(false, true)) {
+            SwingUtilities.invokeLater(() -> {
+                progressQueued.set(false);
+                fireEvent("progress");
+            });
+        }
+    }
+
     private void fireEvent(String type) {
         val event = new ProgressEventImpl(type, null);
         event.setLoaded(loaded);
@@ -461,9 +544,9 @@ public class XMLHttpRequestImpl implements XMLHttpRequest {
 
     private void fireEvent(EventImpl event) {
         if (SwingUtilities.isEventDispatchThread()) {
-            context.storeDocumentHash();
+            val version = context.getDocumentVersion();
             context.getEventManager().publishEvent(eventTarget, event);
-            context.handleDocumentHashUpdate();
+            context.handleDocumentVersionUpdate(version);
         } else {
             SwingUtilities.invokeLater(() -> fireEvent(event));
         }
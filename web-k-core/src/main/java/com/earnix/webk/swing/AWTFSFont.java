@@ -20,12 +20,25 @@
 package com.earnix.webk.swing;
 
 import com.earnix.webk.render.FSFont;
+import com.earnix.webk.render.FSFontMetrics;
+import com.earnix.webk.render.LineMetricsAdapter;
 
 import java.awt.Font;
+import java.awt.font.FontRenderContext;
 
 public class AWTFSFont implements FSFont {
     private Font _font;
 
+    /**
+     * Widths cache for the render context this font was last measured with
+     */
+    private volatile TextWidthCache _widthCache;
+
+    /**
+     * Line metrics for the render context this font was last measured with
+     */
+    private volatile Metrics _metrics;
+
     public AWTFSFont(Font font) {
         _font = font;
     }
@@ -37,4 +50,36 @@ public class AWTFSFont implements FSFont {
     public Font getAWTFont() {
         return _font;
     }
+
+    TextWidthCache getWidthCache(FontRenderContext frc) {
+        TextWidthCache result = _widthCache;
+        if (result == null || !result.getFontRenderContext().equals(frc)) {
+            result = TextWidthCache.get(_font, frc);
+            _widthCache = result;
+        }
+        return result;
+    }
+
+    /**
+     * Returns line metrics of this font, shared by all callers with the same render context. Metrics are font wide,
+     * the text only selects the baseline when they are created.
+     */
+    FSFontMetrics getMetrics(FontRenderContext frc, String text) {
+        Metrics result = _metrics;
+        if (result == null || !result.frc.equals(frc)) {
+            result = new Metrics(frc, new LineMetricsAdapter(_font.getLineMetrics(text, frc)));
+            _metrics = result;
+        }
+        return result.metrics;
+    }
+
+    private static class Metrics {
+        final FontRenderContext frc;
+        final FSFontMetrics metrics;
+
+        Metrics(FontRenderContext frc, FSFontMetrics metrics) {
+            this.frc = frc;
+            this.metrics = metrics;
+        }
+    }
 }
@@ -28,6 +28,8 @@ import com.earnix.webk.render.FSFont;
 import java.awt.Font;
 import java.awt.GraphicsEnvironment;
 import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 
 /**
@@ -44,6 +46,14 @@ public class AWTFontResolver implements FontResolver {
      * Description of the Field
      */
     HashMap available_fonts_hash;
+    /**
+     * Resolved fonts by specification, shared by all styles with equal font properties
+     */
+    private final Map<FontSpecification, FSFont> font_cache = new ConcurrentHashMap<>();
+    /**
+     * Font scale of the text renderer the cached fonts were created with
+     */
+    private volatile float font_cache_scale = Float.NaN;
 
     public AWTFontResolver() {
         init();
@@ -55,6 +65,7 @@ public class AWTFontResolver implements FontResolver {
         //Uu.p("available fonts =");
         //Uu.p(available_fonts);
         instance_hash = new HashMap();
+        font_cache.clear();
 
         // preload the font map with the font names as keys
         // don't add the actual font objects because that would be a waste of memory
@@ -121,6 +132,7 @@ public class AWTFontResolver implements FontResolver {
      */
     public void setFontMapping(String name, Font font) {
         available_fonts_hash.put(name, font.deriveFont(1f));
+        font_cache.clear();
     }
 
     /**
@@ -252,7 +264,26 @@ public class AWTFontResolver implements FontResolver {
         return name + "-" + (size * ctx.getTextRenderer().getFontScale()) + "-" + weight + "-" + style + "-" + variant;
     }
 
+    /**
+     * Resolves font of the specification, returning the same instance for equal specifications until the cache is
+     * flushed or the font scale changes.
+     */
     public FSFont resolveFont(SharedContext renderingContext, FontSpecification spec) {
-        return resolveFont(renderingContext, spec.families, spec.size, spec.fontWeight, spec.fontStyle, spec.variant);
+        float scale = renderingContext.getTextRenderer().getFontScale();
+        if (scale != font_cache_scale) {
+            font_cache.clear();
+            font_cache_scale = scale;
+        }
+        FSFont font = font_cache.get(spec);
+        if (font == null) {
+            synchronized (this) {
+                font = font_cache.get(spec);
+                if (font == null) {
+                    font = resolveFont(renderingContext, spec.families, spec.size, spec.fontWeight, spec.fontStyle, spec.variant);
+                    font_cache.put(spec, font);
+                }
+            }
+        }
+        return font;
     }
 }
@@ -50,6 +50,7 @@ import java.awt.LayoutManager;
 import java.awt.Point;
 import java.awt.Rectangle;
 import java.awt.Shape;
+import java.awt.image.BufferedImage;
 import java.awt.print.PrinterGraphics;
 import java.io.BufferedReader;
 import java.io.InputStream;
@@ -58,6 +59,7 @@ import java.net.MalformedURLException;
 import java.net.URL;
 import java.util.Iterator;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 import java.util.logging.Level;
 
 
@@ -78,6 +80,10 @@ public abstract class BasicPanel extends RootPanel implements FormSubmissionList
     private boolean centeredPagedView;
     protected FormSubmissionListener formSubmissionListener;
 
+    private long forcedLayoutCount;
+    private long thrashingLayoutCount;
+    private boolean forcedLayoutSincePaint;
+
     public BasicPanel() {
         this(new NaiveUserAgent());
     }
@@ -115,21 +121,83 @@ public abstract class BasicPanel extends RootPanel implements FormSubmissionList
         // if this is the first time painting this document, then calc layout
         Layer root = getRootLayer();
         if (root == null || isNeedRelayout()) {
+            long layoutStart = System.nanoTime();
             doDocumentLayout(g.create());
+            scriptContext.getFrameClock().recordLayout(System.nanoTime() - layoutStart);
             root = getRootLayer();
         }
         setNeedRelayout(false);
+        forcedLayoutSincePaint = false;
         if (root == null) {
             //Uu.p("dispatching an initial resize event");
             //queue.dispatchLayoutEvent(new ReflowEvent(ReflowEvent.CANVAS_RESIZED, this.getSize()));
             XRLog.render(Level.FINE, "skipping the actual painting");
         } else {
             RenderingContext c = newRenderingContext((Graphics2D) g.create());
-            long start = System.currentTimeMillis();
+            long start = System.nanoTime();
             doRender(c, root);
-            long end = System.currentTimeMillis();
-            XRLog.render(Level.FINE, "RENDERING TOOK " + (end - start) + " ms");
+            long end = System.nanoTime();
+            scriptContext.getFrameClock().recordPaint(end - start);
+            XRLog.render(Level.FINE, "RENDERING TOOK " + TimeUnit.NANOSECONDS.toMillis(end - start) + " ms");
+        }
+    }
+
+    /**
+     * Brings layout up to date for script geometry reads ("forced layout"): applies pending document changes and lays
+     * out the document synchronously if its layout is invalid. Painting is left to the regular paint cycle.
+     * <p>
+     * Another forced layout before the panel was painted means the document was changed between two geometry reads,
+     * which is counted as layout thrashing.
+     *
+     * @return true if the document was laid out
+     */
+    public boolean flushLayout() {
+        if (doc == null) {
+            return false;
+        }
+        update();
+        if (getRootLayer() != null && !isNeedRelayout()) {
+            return false;
+        }
+        Graphics g = getGraphics();
+        if (g == null) {
+            // not displayed yet
+            g = new BufferedImage(1, 1, BufferedImage.TYPE_INT_ARGB).createGraphics();
+        }
+        try {
+            long layoutStart = System.nanoTime();
+            doDocumentLayout(g);
+            scriptContext.getFrameClock().recordLayout(System.nanoTime() - layoutStart);
+        } finally {
+            g.dispose();
+        }
+        setNeedRelayout(false);
+
+        forcedLayoutCount++;
+        if (forcedLayoutSincePaint) {
+            thrashingLayoutCount++;
+            XRLog.layout(Level.FINE, "Layout thrashing: document was laid out again before painting, " +
+                    thrashingLayoutCount + " of " + forcedLayoutCount + " forced layouts");
         }
+        forcedLayoutSincePaint = true;
+        return true;
+    }
+
+    /**
+     * @return count of layouts forced by script geometry reads
+     * @see #flushLayout()
+     */
+    public long getForcedLayoutCount() {
+        return forcedLayoutCount;
+    }
+
+    /**
+     * @return count of forced layouts which followed another forced layout before painting, i.e. which were caused
+     * by interleaved document changes and geometry reads
+     * @see #flushLayout()
+     */
+    public long getThrashingLayoutCount() {
+        return thrashingLayoutCount;
     }
 
     protected void doRender(RenderingContext c, Layer root) {
@@ -1,11 +1,11 @@
 package com.earnix.webk.swing;
 
+import com.earnix.webk.runtime.html.canvas.impl.CanvasRenderingContext2DImpl;
 import com.earnix.webk.runtime.html.canvas.impl.HTMLCanvasElementImpl;
 import lombok.AllArgsConstructor;
 
 import javax.swing.JPanel;
 import java.awt.Graphics;
-import java.awt.image.BufferedImage;
 
 /**
  * @author Taras Maslov
@@ -14,20 +14,23 @@ import java.awt.image.BufferedImage;
 public class CanvasReplacedElement extends SwingReplacedElement {
 
     public CanvasReplacedElement(HTMLCanvasElementImpl impl) {
-        super(new CanvasPanel(impl.getContextImpl().getImage()));
+        super(new CanvasPanel(impl.getContextImpl()));
         getJComponent().setSize(impl.getContextImpl().getWidth(), impl.getContextImpl().getHeight());
     }
 
 
+    /**
+     * Paints the current image of the context, which is replaced on canvas resize.
+     */
     @AllArgsConstructor
     static class CanvasPanel extends JPanel {
 
-        private BufferedImage bufferedImage;
+        private CanvasRenderingContext2DImpl context;
 
         @Override
         protected void paintComponent(Graphics g) {
             super.paintComponent(g);
-            g.drawImage(bufferedImage, 0, 0, null);
+            g.drawImage(context.getImage(), 0, 0, null);
         }
     }
 
@@ -26,7 +26,6 @@ import com.earnix.webk.extend.TextRenderer;
 import com.earnix.webk.render.FSFont;
 import com.earnix.webk.render.FSFontMetrics;
 import com.earnix.webk.render.JustificationInfo;
-import com.earnix.webk.render.LineMetricsAdapter;
 import com.earnix.webk.util.Configuration;
 
 import java.awt.Font;
@@ -34,6 +33,7 @@ import java.awt.Graphics2D;
 import java.awt.Rectangle;
 import java.awt.RenderingHints;
 import java.awt.Toolkit;
+import java.awt.font.FontRenderContext;
 import java.awt.font.GlyphVector;
 import java.awt.geom.Point2D;
 import java.util.Map;
@@ -184,33 +184,23 @@ public class Java2DTextRenderer implements TextRenderer {
     public void setSmoothingLevel(int level) { /* no-op */ }
 
     public FSFontMetrics getFSFontMetrics(FontContext fc, FSFont font, String string) {
-        Object fracHint = null;
-        Graphics2D graphics = ((Java2DFontContext) fc).getGraphics();
-        fracHint = graphics.getRenderingHint(RenderingHints.KEY_FRACTIONALMETRICS);
-        graphics.setRenderingHint(RenderingHints.KEY_FRACTIONALMETRICS, fractionalFontMetricsHint);
-        LineMetricsAdapter adapter = new LineMetricsAdapter(
-                ((AWTFSFont) font).getAWTFont().getLineMetrics(
-                        string, graphics.getFontRenderContext()));
-        graphics.setRenderingHint(RenderingHints.KEY_FRACTIONALMETRICS, fracHint);
-        return adapter;
+        FontRenderContext graphicsFrc = ((Java2DFontContext) fc).getGraphics().getFontRenderContext();
+        FontRenderContext frc = new FontRenderContext(
+                graphicsFrc.getTransform(), graphicsFrc.getAntiAliasingHint(), fractionalFontMetricsHint);
+        return ((AWTFSFont) font).getMetrics(frc, string);
     }
 
     public int getWidth(FontContext fc, FSFont font, String string) {
-        Object fracHint = null;
-        Graphics2D graphics = ((Java2DFontContext) fc).getGraphics();
-        fracHint = graphics.getRenderingHint(RenderingHints.KEY_FRACTIONALMETRICS);
-        graphics.setRenderingHint(RenderingHints.KEY_FRACTIONALMETRICS, fractionalFontMetricsHint);
-        Font awtFont = ((AWTFSFont) font).getAWTFont();
-        int width = 0;
+        // measures with render context the hint would give, without changing hints of the graphics
+        FontRenderContext graphicsFrc = ((Java2DFontContext) fc).getGraphics().getFontRenderContext();
+        FontRenderContext frc = new FontRenderContext(
+                graphicsFrc.getTransform(), graphicsFrc.getAntiAliasingHint(), fractionalFontMetricsHint);
+        float width = ((AWTFSFont) font).getWidthCache(frc).getWidth(string);
         if (fractionalFontMetricsHint == RenderingHints.VALUE_FRACTIONALMETRICS_ON) {
-            width = (int) Math.round(
-                    graphics.getFontMetrics(awtFont).getStringBounds(string, graphics).getWidth());
+            return Math.round(width);
         } else {
-            width = (int) Math.ceil(
-                    graphics.getFontMetrics(awtFont).getStringBounds(string, graphics).getWidth());
+            return (int) Math.ceil(width);
         }
-        graphics.setRenderingHint(RenderingHints.KEY_FRACTIONALMETRICS, fracHint);
-        return width;
     }
 
     public float getFontScale() {
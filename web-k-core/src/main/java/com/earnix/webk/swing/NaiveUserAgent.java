@@ -23,6 +23,7 @@ import com.earnix.webk.event.DocumentListener;
 import com.earnix.webk.extend.UserAgentCallback;
 import com.earnix.webk.resource.CSSResource;
 import com.earnix.webk.resource.ImageResource;
+import com.earnix.webk.resource.SharedHttpClient;
 import com.earnix.webk.resource.XMLResource;
 import com.earnix.webk.runtime.ScriptContext;
 import com.earnix.webk.runtime.html.impl.DocumentImpl;
@@ -30,6 +31,8 @@ import com.earnix.webk.util.FontUtil;
 import com.earnix.webk.util.ImageUtil;
 import com.earnix.webk.util.XRLog;
 import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.Setter;
 import lombok.experimental.FieldDefaults;
 import lombok.extern.slf4j.Slf4j;
 import lombok.val;
@@ -82,6 +85,13 @@ public class NaiveUserAgent implements UserAgentCallback, DocumentListener {
     String _baseURL;
     ScriptContext scriptContext;
 
+    /**
+     * Client used for http(s) resources, if set; otherwise they are loaded by {@link #openConnection(String)}
+     */
+    @Getter
+    @Setter
+    SharedHttpClient httpClient;
+
     /**
      * Creates a new instance of NaiveUserAgent with a max image cache of 16 images.
      */
@@ -116,6 +126,14 @@ public class NaiveUserAgent implements UserAgentCallback, DocumentListener {
         }
     }
 
+    /**
+     * @param uri resolved image URI
+     * @return true if the image is cached, so {@link #getImageResource(String)} is not going to load it
+     */
+    public boolean isImageCached(String uri) {
+        return _imageCache.containsKey(uri);
+    }
+
     /**
      * Empties the image cache entirely.
      */
@@ -150,6 +168,9 @@ public class NaiveUserAgent implements UserAgentCallback, DocumentListener {
     }
 
     protected InputStream openStream(String uri) throws MalformedURLException, IOException {
+        if (httpClient != null && (uri.startsWith("http:") || uri.startsWith("https:"))) {
+            return httpClient.openStream(uri);
+        }
         return openConnection(uri).getInputStream();
     }
 
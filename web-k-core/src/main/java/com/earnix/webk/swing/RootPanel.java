@@ -41,6 +41,7 @@ import com.earnix.webk.render.PageBox;
 import com.earnix.webk.render.RenderingContext;
 import com.earnix.webk.render.ViewportBox;
 import com.earnix.webk.runtime.ScriptContext;
+import com.earnix.webk.runtime.dom.impl.DirtyTracker;
 import com.earnix.webk.runtime.dom.impl.ElementImpl;
 import com.earnix.webk.runtime.html.impl.DocumentImpl;
 import com.earnix.webk.util.Configuration;
@@ -63,8 +64,11 @@ import java.awt.Graphics2D;
 import java.awt.Insets;
 import java.awt.Rectangle;
 import java.awt.event.MouseEvent;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.Map;
 import java.util.Set;
 import java.util.logging.Level;
 
@@ -86,6 +90,11 @@ public class RootPanel extends JPanel implements Scrollable, UserInterface, FSCa
     // initialize to JViewport default mode
     private int default_scroll_mode = JViewport.BLIT_SCROLL_MODE;
 
+    private Layer lastFoundLayer;
+    private int lastFoundX;
+    private int lastFoundY;
+    private Box lastFound;
+
     protected DocumentImpl doc = null;
 
     /*
@@ -122,6 +131,9 @@ public class RootPanel extends JPanel implements Scrollable, UserInterface, FSCa
         resetScrollPosition();
         setRootBox(null);
         this.doc = doc;
+        if (doc != null) {
+            doc.getDirtyTracker().clear();
+        }
 
         //have to do this first
         if (Configuration.isTrue("xr.cache.stylesheets", true)) {
@@ -133,7 +145,11 @@ public class RootPanel extends JPanel implements Scrollable, UserInterface, FSCa
         getSharedContext().reset();
         getSharedContext().setBaseURL(url);
         getSharedContext().setNamespaceHandler(nsh);
+        if (doc != null) {
+            getSharedContext().prefetchResources(doc);
+        }
         getSharedContext().getCss().setDocumentContext(getSharedContext(), getSharedContext().getNamespaceHandler(), doc, this);
+        getSharedContext().loadFontFaces(this::fontFacesLoaded);
 
         repaint();
         documentListeners.forEach(DocumentListener::documentLoaded);
@@ -146,6 +162,9 @@ public class RootPanel extends JPanel implements Scrollable, UserInterface, FSCa
         scriptContext.setRendered(false);
         scriptContext.getMouseEventsAdapter().reset();
         setRootBox(null);
+        if (doc != null) {
+            doc.getDirtyTracker().clear();
+        }
 
         //have to do this first
         if (Configuration.isTrue("xr.cache.stylesheets", true)) {
@@ -156,9 +175,143 @@ public class RootPanel extends JPanel implements Scrollable, UserInterface, FSCa
 
         getSharedContext().reset();
         getSharedContext().getCss().setDocumentContext(getSharedContext(), getSharedContext().getNamespaceHandler(), doc, this);
+        getSharedContext().loadFontFaces(this::fontFacesLoaded);
         relayout();
     }
 
+    /**
+     * Renders the document again with fonts of its {@code @font-face} rules, once they are loaded.
+     */
+    private void fontFacesLoaded() {
+        if (doc != null) {
+            doc.getDirtyTracker().requireReset();
+            update();
+        }
+    }
+
+    /**
+     * Applies document changes collected by {@link DirtyTracker} since the last render.
+     * <ul>
+     * <li>attribute changes restyle boxes of the changed elements, or of their parents if stylesheets contain sibling
+     * selectors, the existing box tree is re-laid-out unless a restyled element changes its box type</li>
+     * <li>children or text changes re-create the box tree, keeping parsed stylesheets and styles of unchanged
+     * elements</li>
+     * <li>stylesheet changes, or changes which can't be applied incrementally, fall back to {@link #reset()}</li>
+     * </ul>
+     * Does nothing if document was not changed.
+     */
+    public void update() {
+        if (doc == null) {
+            return;
+        }
+        doc.flushInlineStyles();
+        DirtyTracker tracker = doc.getDirtyTracker();
+        if (!tracker.isDirty()) {
+            return;
+        }
+
+        LayoutContext c = getLayoutContext();
+        if (tracker.isResetRequired() || getRootBox() == null || c == null
+                || !Configuration.isTrue("xr.incremental.restyle.enabled", true)) {
+            reset();
+            return;
+        }
+
+        boolean rebuild = !tracker.getRebuildRoots().isEmpty();
+        for (ElementImpl e : tracker.getRebuildRoots()) {
+            removeStyles(e);
+        }
+        // following siblings of changed elements may match sibling selectors, they are restyled with the parent
+        boolean siblingSelectors = getSharedContext().getCss().hasSiblingSelectors();
+        Set<ElementImpl> restyleRoots = new LinkedHashSet<>();
+        for (ElementImpl e : tracker.getRestyleRoots()) {
+            ElementImpl parent = e.parent();
+            restyleRoots.add(siblingSelectors && parent != null && !(parent instanceof DocumentImpl) ? parent : e);
+        }
+        for (ElementImpl e : restyleRoots) {
+            if (!rebuild && !hasAncestorIn(e, restyleRoots)) {
+                rebuild = !restyle(c, e);
+            } else {
+                removeStyles(e);
+            }
+        }
+        tracker.clear();
+
+        if (rebuild) {
+            scriptContext.setRendered(false);
+            scriptContext.getMouseEventsAdapter().reset();
+            setRootBox(null);
+        }
+        relayout();
+    }
+
+    /**
+     * Restyles boxes of the given element and its descendants.
+     *
+     * @return false if a style change of the element or of its descendants can't be applied to the existing boxes and
+     * box tree needs rebuild
+     */
+    private boolean restyle(LayoutContext c, ElementImpl e) {
+        Map<ElementImpl, CalculatedStyle> before = new HashMap<>();
+        e.walkElementsTree(element -> {
+            CalculatedStyle style = getSharedContext().getCachedStyle(element);
+            if (style != null) {
+                before.put(element, style);
+            }
+        });
+        removeStyles(e);
+        getSharedContext().getReplacedElementFactory().remove(e);
+
+        // inline boxes are re-created by layout, restyling nearest block keeps them in sync
+        ElementImpl current = e;
+        while (current != null && !(current.getView() instanceof BlockBox)) {
+            current = current.parent();
+        }
+        if (current == null) {
+            return false;
+        }
+        Box box = current.getView().getRestyleTarget();
+        box.restyle(c);
+        restyleInlineContent(c, box);
+
+        // elements without calculated style had no boxes, unless their ancestors change, they still don't have them
+        for (Map.Entry<ElementImpl, CalculatedStyle> entry : before.entrySet()) {
+            if (!isSameBoxType(entry.getValue(), getSharedContext().getStyle(entry.getKey()))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isSameBoxType(CalculatedStyle before, CalculatedStyle after) {
+        return before.getIdent(CSSName.DISPLAY) == after.getIdent(CSSName.DISPLAY)
+                && before.getIdent(CSSName.POSITION) == after.getIdent(CSSName.POSITION)
+                && before.getIdent(CSSName.FLOAT) == after.getIdent(CSSName.FLOAT)
+                && before.getIdent(CSSName.WHITE_SPACE) == after.getIdent(CSSName.WHITE_SPACE);
+    }
+
+    private void restyleInlineContent(LayoutContext c, Box box) {
+        if (box instanceof BlockBox && ((BlockBox) box).getChildrenContentType() == BlockBox.CONTENT_INLINE) {
+            ((BlockBox) box).styleText(c);
+        }
+        for (int i = 0; i < box.getChildCount(); i++) {
+            restyleInlineContent(c, box.getChild(i));
+        }
+    }
+
+    private void removeStyles(ElementImpl e) {
+        e.walkElementsTree(getSharedContext()::removeStyle);
+    }
+
+    private static boolean hasAncestorIn(ElementImpl e, Set<ElementImpl> elements) {
+        for (ElementImpl parent = e.parent(); parent != null; parent = parent.parent()) {
+            if (elements.contains(parent)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     // iterates over all boxes and, if they have a BG url assigned, makes a call to the UAC
     // to request it. when running with async image loading, this means BG images will start
     // loading before the box ever shows on screen
@@ -560,6 +713,8 @@ public class RootPanel extends JPanel implements Scrollable, UserInterface, FSCa
 
     public synchronized void setRootBox(Box rootBox) {
         this.rootBox = rootBox;
+        lastFoundLayer = null;
+        lastFound = null;
     }
 
     public synchronized Layer getRootLayer() {
@@ -570,10 +725,25 @@ public class RootPanel extends JPanel implements Scrollable, UserInterface, FSCa
         return find(e.getX(), e.getY());
     }
 
+    /**
+     * Finds the topmost box at the given point. The last result is reused for the same point until the next layout,
+     * which creates a new root layer, as several mouse events are usually handled for one point.
+     */
     public Box find(int x, int y) {
         Layer l = getRootLayer();
         if (l != null) {
-            return l.find(layoutContext, x, y, false);
+            if (l == lastFoundLayer && x == lastFoundX && y == lastFoundY) {
+                return lastFound;
+            }
+            Box result = l.find(layoutContext, x, y, false);
+            // fixed content moves on scrolling without layout
+            if (!l.containsFixedContent()) {
+                lastFoundLayer = l;
+                lastFoundX = x;
+                lastFoundY = y;
+                lastFound = result;
+            }
+            return result;
         }
         return null;
     }
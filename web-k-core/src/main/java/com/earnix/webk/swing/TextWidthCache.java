@@ -0,0 +1,140 @@
+package com.earnix.webk.swing;
+
+import com.earnix.webk.util.Configuration;
+
+import java.awt.Font;
+import java.awt.font.FontRenderContext;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Widths of text measured with one font and font render context (which includes the fractional metrics mode).
+ * <p>
+ * Simple text (Latin characters, font without kerning or ligatures) is measured by summing per-character advances,
+ * which is what Java2D does for such text; advances are cached per character. Other text is measured with Java2D
+ * and cached by string in a bounded LRU map, see {@code xr.text.width-cache-size}.
+ */
+class TextWidthCache {
+
+    /**
+     * Characters below this limit (Latin-1 and Latin Extended-A/B) are never laid out as complex text
+     */
+    private static final char SIMPLE_LIMIT = '\u0250';
+
+    private static final int MAX_FONTS = 256;
+
+    private static final int MAX_WIDTHS = Configuration.valueAsInt("xr.text.width-cache-size", 2048);
+
+    private static final Map<Key, TextWidthCache> CACHES = new LinkedHashMap<Key, TextWidthCache>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Key, TextWidthCache> eldest) {
+            return size() > MAX_FONTS;
+        }
+    };
+
+    private final Font font;
+    private final FontRenderContext frc;
+    private final boolean simpleFont;
+    private final float[] advances = new float[SIMPLE_LIMIT];
+    private final Map<String, Float> widths = new LinkedHashMap<String, Float>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Float> eldest) {
+            return size() > MAX_WIDTHS;
+        }
+    };
+
+    /**
+     * @return cache shared by all users of equal font and render context
+     */
+    static TextWidthCache get(Font font, FontRenderContext frc) {
+        Key key = new Key(font, frc);
+        synchronized (CACHES) {
+            TextWidthCache result = CACHES.get(key);
+            if (result == null) {
+                result = new TextWidthCache(font, frc);
+                CACHES.put(key, result);
+            }
+            return result;
+        }
+    }
+
+    private TextWidthCache(Font font, FontRenderContext frc) {
+        this.font = font;
+        this.frc = frc;
+        this.simpleFont = !font.hasLayoutAttributes();
+        Arrays.fill(advances, Float.NaN);
+    }
+
+    FontRenderContext getFontRenderContext() {
+        return frc;
+    }
+
+    /**
+     * @return logical width of text, equal to width of its string bounds
+     */
+    float getWidth(String text) {
+        if (simpleFont && isSimple(text)) {
+            float width = 0;
+            for (int i = 0; i < text.length(); i++) {
+                width += getAdvance(text.charAt(i));
+            }
+            return width;
+        }
+        synchronized (widths) {
+            Float cached = widths.get(text);
+            if (cached != null) {
+                return cached;
+            }
+        }
+        float width = (float) font.getStringBounds(text, frc).getWidth();
+        synchronized (widths) {
+            widths.put(text, width);
+        }
+        return width;
+    }
+
+    private float getAdvance(char c) {
+        float advance = advances[c];
+        if (Float.isNaN(advance)) {
+            // concurrent computation stores the same value
+            advance = (float) font.createGlyphVector(frc, new char[]{c}).getGlyphPosition(1).getX();
+            advances[c] = advance;
+        }
+        return advance;
+    }
+
+    private static boolean isSimple(String text) {
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c >= SIMPLE_LIMIT || c < ' ') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static class Key {
+        final Font font;
+        final FontRenderContext frc;
+
+        Key(Font font, FontRenderContext frc) {
+            this.font = font;
+            this.frc = frc;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key key = (Key) o;
+            return font.equals(key.font) && frc.equals(key.frc);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * font.hashCode() + frc.hashCode();
+        }
+    }
+}
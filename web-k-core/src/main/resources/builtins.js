@@ -0,0 +1,28 @@
+/*
+ * Captures built-ins of the global object used by Java implementations of WebIDL interfaces, before document
+ * scripts could replace them.
+ *
+ * Evaluates to an object holding the built-ins; its "defer" function creates a pending promise together with
+ * functions settling it, so Java code can resolve promises it returns to scripts.
+ */
+(function (global) {
+    var P = global.Promise;
+    return {
+        Object: global.Object,
+        Error: global.Error,
+        TypeError: global.TypeError,
+        SyntaxError: global.SyntaxError,
+        ArrayBuffer: global.ArrayBuffer,
+        Uint8Array: global.Uint8Array,
+        JSON: global.JSON,
+        Promise: P,
+        defer: function () {
+            var deferred = {};
+            deferred.promise = new P(function (resolve, reject) {
+                deferred.resolve = resolve;
+                deferred.reject = reject;
+            });
+            return deferred;
+        }
+    };
+})(this);
@@ -0,0 +1,62 @@
+/*
+ * Binds members of the window WebIDL adapter to the global object.
+ *
+ * Every member becomes an accessor property delegating to the adapter, so globals always reflect the current
+ * window state and global assignments reach the window implementation.
+ *
+ * Evaluates to a function (global, win, keys) returning synchronization function, which is to be called after
+ * each script evaluation: it propagates window members re-declared by the script (e.g. "function onload() {}"
+ * replaces the accessor with a data property) back to the adapter. Its cost depends on count of script globals
+ * only, not on count of window members.
+ */
+(function (global, win, keys) {
+    var bound = Object.create(null);
+    var shadowed = [];
+
+    function bind(key) {
+        Object.defineProperty(global, key, {
+            get: function () {
+                return win[key];
+            },
+            set: function (value) {
+                win[key] = value;
+            },
+            enumerable: false,
+            configurable: true
+        });
+    }
+
+    for (var i = 0; i < keys.length; i++) {
+        try {
+            bind(keys[i]);
+            bound[keys[i]] = true;
+        } catch (e) {
+            // non-configurable built-in
+        }
+    }
+
+    return function () {
+        var own = Object.keys(global);
+        for (var i = 0; i < own.length; i++) {
+            var key = own[i];
+            if (bound[key] === true) {
+                var value = global[key];
+                if (value) {
+                    win[key] = value;
+                }
+                try {
+                    bind(key);
+                } catch (e) {
+                    // declared as non-configurable global, keep copying it
+                    delete bound[key];
+                    shadowed.push(key);
+                }
+            }
+        }
+        for (var j = 0; j < shadowed.length; j++) {
+            if (global[shadowed[j]]) {
+                win[shadowed[j]] = global[shadowed[j]];
+            }
+        }
+    };
+})
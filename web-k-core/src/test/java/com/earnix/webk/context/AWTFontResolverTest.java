@@ -0,0 +1,62 @@
+package com.earnix.webk.context;
+
+import com.earnix.webk.css.constants.IdentValue;
+import com.earnix.webk.css.value.FontSpecification;
+import com.earnix.webk.layout.SharedContext;
+import com.earnix.webk.render.FSFont;
+import com.earnix.webk.swing.Java2DTextRenderer;
+import org.junit.Test;
+
+import java.awt.Font;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+public class AWTFontResolverTest {
+
+    @Test
+    public void equalSpecificationsShareFont() {
+        SharedContext context = new SharedContext();
+        context.setTextRenderer(new Java2DTextRenderer());
+        AWTFontResolver resolver = new AWTFontResolver();
+
+        FontSpecification spec = spec(new String[]{"\"Serif\"", "sans-serif"}, 12);
+        // equal specification of another style
+        FontSpecification equal = spec(new String[]{"\"Serif\"", "sans-serif"}, 12);
+
+        assertSame(resolver.resolveFont(context, spec), resolver.resolveFont(context, equal));
+        assertNotSame(resolver.resolveFont(context, spec), resolver.resolveFont(context, spec(spec.families, 13)));
+    }
+
+    @Test
+    public void mappingSameFontAgainKeepsResolvedFonts() {
+        SharedContext context = new SharedContext();
+        context.setTextRenderer(new Java2DTextRenderer());
+        AWTFontResolver resolver = new AWTFontResolver();
+        Font font = new Font("Serif", Font.PLAIN, 1);
+
+        resolver.setFontMapping("Web", font);
+        FontSpecification spec = spec(new String[]{"Web"}, 12);
+        FSFont resolved = resolver.resolveFont(context, spec);
+        int count = resolver.getFontMappingCount();
+
+        resolver.setFontMapping("Web", font);
+        assertEquals(count, resolver.getFontMappingCount());
+        assertSame(resolved, resolver.resolveFont(context, spec));
+
+        resolver.setFontMapping("Web", new Font("SansSerif", Font.PLAIN, 1));
+        assertEquals(count + 1, resolver.getFontMappingCount());
+        assertNotSame(resolved, resolver.resolveFont(context, spec));
+    }
+
+    private static FontSpecification spec(String[] families, float size) {
+        FontSpecification spec = new FontSpecification();
+        spec.families = families;
+        spec.size = size;
+        spec.fontWeight = IdentValue.NORMAL;
+        spec.fontStyle = IdentValue.NORMAL;
+        spec.variant = IdentValue.NORMAL;
+        return spec;
+    }
+}
@@ -0,0 +1,34 @@
+package com.earnix.webk.css.newmatch;
+
+import com.earnix.webk.css.constants.CSSName;
+import com.earnix.webk.css.constants.IdentValue;
+import com.earnix.webk.runtime.dom.impl.Jsoup;
+import com.earnix.webk.simple.XHTMLPanel;
+import lombok.val;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class MatcherTest {
+
+    @Test
+    public void indexedSelectorsKeepCascadeOrder() {
+        val panel = new XHTMLPanel();
+        panel.setDocument(Jsoup.parse("<html><head><style>"
+                + "* { display: inline; }"
+                + "SPAN { display: block; }"
+                + ".list span { display: list-item; }"
+                + "#first { display: table; }"
+                + "div > .hidden.x { display: none; }"
+                + "</style></head><body><div class='a  list'>"
+                + "<span id='first'></span><span id='second'></span><span class='x hidden'></span><p></p>"
+                + "</div><span id='outside'></span></body></html>"));
+        val doc = panel.getDocument();
+        val context = panel.getSharedContext();
+
+        Assert.assertEquals(IdentValue.TABLE, context.getStyle(doc.getElementById("first")).getIdent(CSSName.DISPLAY));
+        Assert.assertEquals(IdentValue.LIST_ITEM, context.getStyle(doc.getElementById("second")).getIdent(CSSName.DISPLAY));
+        Assert.assertEquals(IdentValue.NONE, context.getStyle(doc.select(".hidden").first()).getIdent(CSSName.DISPLAY));
+        Assert.assertEquals(IdentValue.INLINE, context.getStyle(doc.select("p").first()).getIdent(CSSName.DISPLAY));
+        Assert.assertEquals(IdentValue.BLOCK, context.getStyle(doc.getElementById("outside")).getIdent(CSSName.DISPLAY));
+    }
+}
@@ -0,0 +1,65 @@
+package com.earnix.webk.css.newmatch;
+
+import com.earnix.webk.css.extend.StylesheetFactory;
+import com.earnix.webk.css.sheet.Ruleset;
+import com.earnix.webk.css.sheet.Stylesheet;
+import com.earnix.webk.css.sheet.StylesheetInfo;
+import org.junit.Test;
+
+import java.io.Reader;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+public class StyleDeclarationCacheTest {
+
+    @Test
+    public void equalDeclarationsAreParsedOnce() {
+        CountingFactory factory = new CountingFactory();
+        StyleDeclarationCache cache = new StyleDeclarationCache(2);
+
+        Ruleset first = cache.get(factory, "color: red");
+        assertSame(first, cache.get(factory, new String("color: red")));
+        assertEquals(1, factory.parsed);
+        assertEquals(1, cache.getHits());
+        assertEquals(StylesheetInfo.AUTHOR, first.getOrigin());
+    }
+
+    @Test
+    public void leastRecentlyUsedDeclarationIsEvicted() {
+        CountingFactory factory = new CountingFactory();
+        StyleDeclarationCache cache = new StyleDeclarationCache(2);
+
+        Ruleset red = cache.get(factory, "color: red");
+        cache.get(factory, "color: green");
+        cache.get(factory, "color: red");
+        cache.get(factory, "color: blue");
+
+        assertEquals(2, cache.size());
+        assertSame(red, cache.get(factory, "color: red"));
+        // "color: blue" is evicted by "color: green"
+        cache.get(factory, "color: green");
+        cache.get(factory, "color: blue");
+        assertEquals(5, factory.parsed);
+    }
+
+    private static class CountingFactory implements StylesheetFactory {
+        int parsed;
+
+        @Override
+        public Stylesheet parse(Reader reader, StylesheetInfo info) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Ruleset parseStyleDeclaration(int author, String style) {
+            parsed++;
+            return new Ruleset(author);
+        }
+
+        @Override
+        public Stylesheet getStylesheet(StylesheetInfo si) {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
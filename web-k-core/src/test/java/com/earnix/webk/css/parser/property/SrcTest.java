@@ -0,0 +1,31 @@
+package com.earnix.webk.css.parser.property;
+
+import com.earnix.webk.css.parser.CSSParser;
+import com.earnix.webk.css.sheet.PropertyDeclaration;
+import com.earnix.webk.css.sheet.StylesheetInfo;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class SrcTest {
+
+    @Test
+    public void firstTrueTypeOrOpenTypeSourceIsKept() {
+        Assert.assertEquals("a.ttf", parseSrc(
+                "url(a.woff2) format('woff2'), local('A'), url(a.ttf) format('truetype'), url(a.otf)"));
+        Assert.assertEquals("a.otf", parseSrc("url(a.woff) format('woff'), url(a.otf)"));
+        Assert.assertEquals("a.otf", parseSrc("url(a.otf) format('opentype')"));
+        Assert.assertEquals("a.ttf", parseSrc("url(a.ttf)"));
+    }
+
+    @Test
+    public void sourcesOfUnsupportedFormatsAreSkipped() {
+        Assert.assertEquals("none", parseSrc("url(a.woff2) format('woff2'), url(a.woff) format('woff')"));
+    }
+
+    private static String parseSrc(String value) {
+        CSSParser parser = new CSSParser((uri, message) -> Assert.fail(message));
+        PropertyDeclaration declaration = (PropertyDeclaration) parser.parseDeclaration(
+                StylesheetInfo.AUTHOR, "src: " + value).getPropertyDeclarations().get(0);
+        return declaration.getValue().getStringValue();
+    }
+}
@@ -0,0 +1,94 @@
+package com.earnix.webk.css.style;
+
+import com.earnix.webk.css.newmatch.StyleFingerprint;
+import com.earnix.webk.css.value.FontSpecification;
+import com.earnix.webk.runtime.dom.impl.Jsoup;
+import com.earnix.webk.simple.XHTMLPanel;
+import lombok.val;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+public class StyleCacheTest {
+
+    private static final String HTML = "<html><head><style>p { color: red; margin: 2px; }</style></head>"
+            + "<body><p id='p'>A</p></body></html>";
+
+    @Test
+    public void stylesAreSharedByPanels() {
+        val first = new XHTMLPanel();
+        first.setDocument(Jsoup.parse(HTML));
+        val second = new XHTMLPanel();
+        second.setDocument(Jsoup.parse(HTML));
+
+        Assert.assertSame(first.getSharedContext().getRootStyle(), second.getSharedContext().getRootStyle());
+        Assert.assertSame(
+                first.getSharedContext().getStyle(first.getDocument().getElementById("p")),
+                second.getSharedContext().getStyle(second.getDocument().getElementById("p")));
+    }
+
+    @Test
+    public void zoomedPanelDoesNotShareFonts() {
+        val first = new XHTMLPanel();
+        first.setDocument(Jsoup.parse(HTML));
+        val second = new XHTMLPanel();
+        second.setDocument(Jsoup.parse(HTML));
+        second.incrementFontSize();
+
+        float firstSize = getFontSize(first);
+        float secondSize = getFontSize(second);
+        Assert.assertEquals(firstSize * 1.2f, secondSize, 0.01f);
+
+        second.resetFontSize();
+        Assert.assertEquals(firstSize, getFontSize(second), 0.01f);
+    }
+
+    private static float getFontSize(XHTMLPanel panel) {
+        val context = panel.getSharedContext();
+        return context.getStyle(panel.getDocument().getElementById("p"))
+                .getFSFont(context.newLayoutContextInstance()).getSize2D();
+    }
+
+    @Test
+    public void sharedStyleFontIsResolvedCompletelyByConcurrentThreads() throws Exception {
+        val panel = new XHTMLPanel();
+        panel.setDocument(Jsoup.parse("<html><head><style>p { font-size: 17px; font-family: serif; }</style></head>"
+                + "<body><p id='p'>A</p></body></html>"));
+        val context = panel.getSharedContext();
+        val style = context.getStyle(panel.getDocument().getElementById("p"));
+
+        val executor = Executors.newFixedThreadPool(4);
+        try {
+            val results = new ArrayList<Future<FontSpecification>>();
+            for (int i = 0; i < 8; i++) {
+                val ctx = context.newLayoutContextInstance();
+                results.add(executor.submit(() -> style.getFont(ctx)));
+            }
+            for (Future<FontSpecification> result : results) {
+                val font = result.get(10, TimeUnit.SECONDS);
+                Assert.assertEquals(17f, font.size, 0.01f);
+                Assert.assertArrayEquals(new String[]{"serif"}, font.families);
+                Assert.assertSame(style.getFont(context.newLayoutContextInstance()), style.getFontSpecification());
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void oldestStylesAreEvicted() {
+        val cache = new StyleCache(2);
+        val parents = new CalculatedStyle[]{new EmptyStyle(), new EmptyStyle(), new EmptyStyle()};
+        for (CalculatedStyle parent : parents) {
+            cache.put(parent, StyleFingerprint.EMPTY, new EmptyStyle());
+        }
+
+        Assert.assertEquals(2, cache.size());
+        Assert.assertNull(cache.get(parents[0], StyleFingerprint.EMPTY));
+        Assert.assertNotNull(cache.get(parents[2], StyleFingerprint.EMPTY));
+    }
+}
@@ -0,0 +1,38 @@
+package com.earnix.webk.render;
+
+import com.earnix.webk.runtime.dom.impl.Jsoup;
+import com.earnix.webk.simple.XHTMLPanel;
+import org.junit.Test;
+
+import javax.swing.SwingUtilities;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+
+import static org.junit.Assert.assertEquals;
+
+public class BoxFindTest {
+
+    @Test
+    public void findUsesChildBoundsIndex() throws Exception {
+        StringBuilder html = new StringBuilder("<html><head><style>body { margin: 0 } div div { height: 10px }</style>" +
+                "</head><body><div id='list'>");
+        for (int i = 0; i < 100; i++) {
+            html.append("<div id='d").append(i).append("'>").append(i).append("</div>");
+        }
+        html.append("</div><div id='overlay' style='margin-top: -50px; height: 20px'></div></body></html>");
+
+        SwingUtilities.invokeAndWait(() -> {
+            XHTMLPanel panel = new XHTMLPanel();
+            panel.setSize(400, 2000);
+            panel.setDocument(Jsoup.parse(html.toString()));
+            Graphics2D g = new BufferedImage(400, 2000, BufferedImage.TYPE_INT_ARGB).createGraphics();
+            panel.doDocumentLayout(g);
+
+            assertEquals("d0", panel.find(5, 5).getElement().getId());
+            assertEquals("d42", panel.find(5, 425).getElement().getId());
+            assertEquals("d99", panel.find(5, 999).getElement().getId());
+            // children are tested in order, the list is found before the block overlapping its end
+            assertEquals("d96", panel.find(5, 965).getElement().getId());
+        });
+    }
+}
@@ -0,0 +1,112 @@
+package com.earnix.webk.resource;
+
+import com.earnix.webk.context.StyleReference;
+import com.earnix.webk.runtime.dom.impl.Jsoup;
+import com.earnix.webk.runtime.dom.impl.integration.TestServer;
+import com.earnix.webk.runtime.dom.impl.integration.servlets.BaseServlet;
+import com.earnix.webk.runtime.html.impl.DocumentImpl;
+import com.earnix.webk.simple.extend.XhtmlNamespaceHandler;
+import com.earnix.webk.swing.NaiveUserAgent;
+import org.apache.commons.io.IOUtils;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+
+public class PreloadScannerTest {
+
+    @BeforeClass
+    public static void setUp() {
+        TestServer.start();
+    }
+
+    @AfterClass
+    public static void tearDown() {
+        TestServer.stop();
+    }
+
+    @Test
+    public void prefetchedResourcesAreHandedOver() throws IOException {
+        String url = ResourceServlet.Url;
+        DocumentImpl doc = Jsoup.parse("<html><head>" +
+                "<link rel='stylesheet' href='" + url + "?css'>" +
+                "<link rel='alternate stylesheet' href='" + url + "?alternate'>" +
+                "<script src='" + url + "?js'></script>" +
+                "</head><body>" +
+                "<img src='" + url + "?img'><img src='" + url + "?img'>" +
+                "<img src='data:image/png;base64,AA=='>" +
+                "</body></html>");
+
+        try (SharedHttpClient client = new SharedHttpClient()) {
+            NaiveUserAgent uac = new NaiveUserAgent();
+            uac.setHttpClient(client);
+
+            assertEquals(3, PreloadScanner.scan(doc, new XhtmlNamespaceHandler(), new StyleReference(uac), "screen",
+                    uac, client));
+            for (String resource : new String[]{"css", "js", "img"}) {
+                try (InputStream stream = client.openStream(url + "?" + resource)) {
+                    assertEquals(resource, IOUtils.toString(stream, StandardCharsets.UTF_8));
+                }
+            }
+        }
+        assertEquals(3, ResourceServlet.requests.get());
+    }
+
+    @Test
+    public void cachedResourcesAreNotPrefetched() {
+        String url = CachedResourceServlet.Url;
+        DocumentImpl doc = Jsoup.parse("<html><head>" +
+                "<link rel='stylesheet' href='" + url + "?cached-css'>" +
+                "<script src='" + url + "?cached-js'></script>" +
+                "</head><body><img src='" + url + "?cached-img'></body></html>");
+
+        try (SharedHttpClient client = new SharedHttpClient()) {
+            NaiveUserAgent uac = new NaiveUserAgent() {
+                @Override
+                public boolean isImageCached(String uri) {
+                    return uri.endsWith("?cached-img");
+                }
+            };
+            uac.setHttpClient(client);
+            StyleReference css = new StyleReference(uac) {
+                @Override
+                public boolean isStylesheetCached(String uri) {
+                    return uri.endsWith("?cached-css");
+                }
+            };
+
+            // scripts aren't cached by the user agent
+            assertEquals(1, PreloadScanner.scan(doc, new XhtmlNamespaceHandler(), css, "screen", uac, client));
+        }
+    }
+
+    public static class ResourceServlet extends BaseServlet {
+        public static final String Url = TestServer.map(ResourceServlet.class);
+        static final AtomicInteger requests = new AtomicInteger();
+
+        @Override
+        protected void doGet(HttpServletRequest req, HttpServletResponse res) throws IOException {
+            requests.incrementAndGet();
+            res.setContentType("text/plain; charset=UTF-8");
+            res.getWriter().write(req.getQueryString());
+        }
+    }
+
+    public static class CachedResourceServlet extends BaseServlet {
+        public static final String Url = TestServer.map(CachedResourceServlet.class);
+
+        @Override
+        protected void doGet(HttpServletRequest req, HttpServletResponse res) throws IOException {
+            res.setContentType("text/plain; charset=UTF-8");
+            res.getWriter().write(req.getQueryString());
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.earnix.webk.resource;
+
+import com.earnix.webk.runtime.dom.impl.integration.TestServer;
+import com.earnix.webk.runtime.dom.impl.integration.servlets.BaseServlet;
+import org.apache.commons.io.IOUtils;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+public class SharedHttpClientTest {
+
+    @BeforeClass
+    public static void setUp() {
+        TestServer.start();
+    }
+
+    @AfterClass
+    public static void tearDown() {
+        TestServer.stop();
+    }
+
+    @Test
+    public void cacheableResponseIsRequestedOnce() throws IOException {
+        try (SharedHttpClient client = new SharedHttpClient()) {
+            for (int i = 0; i < 3; i++) {
+                try (InputStream stream = client.openStream(CacheableServlet.Url)) {
+                    assertEquals("cached", IOUtils.toString(stream, StandardCharsets.UTF_8));
+                }
+            }
+        }
+        assertEquals(1, CacheableServlet.requests.get());
+    }
+
+    @Test
+    public void clientIsSharedByInstances() {
+        SharedHttpClient first = new SharedHttpClient();
+        SharedHttpClient second = new SharedHttpClient();
+        assertSame(first.getClient(), second.getClient());
+
+        // closing an instance leaves the shared client usable by others
+        first.close();
+        assertSame(first.getClient(), new SharedHttpClient().getClient());
+    }
+
+    @Test(expected = FileNotFoundException.class)
+    public void errorStatusIsReported() throws IOException {
+        try (SharedHttpClient client = new SharedHttpClient()) {
+            client.openStream(CacheableServlet.Url + "/missing");
+        }
+    }
+
+    public static class CacheableServlet extends BaseServlet {
+        public static final String Url = TestServer.map(CacheableServlet.class);
+        static final AtomicInteger requests = new AtomicInteger();
+
+        @Override
+        protected void doGet(HttpServletRequest req, HttpServletResponse res) throws IOException {
+            requests.incrementAndGet();
+            res.setContentType("text/plain; charset=UTF-8");
+            res.setHeader("Cache-Control", "max-age=60");
+            res.setHeader("ETag", "\"1\"");
+            res.getWriter().write("cached");
+        }
+    }
+}
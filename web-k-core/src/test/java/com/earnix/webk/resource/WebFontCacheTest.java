@@ -0,0 +1,72 @@
+package com.earnix.webk.resource;
+
+import com.earnix.webk.swing.NaiveUserAgent;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class WebFontCacheTest {
+
+    @Test
+    public void fontDataIsStoredByContentHash() throws IOException {
+        assertEquals("ba7816bf8f01cfea414140de5dae2223b00361a396177a9cb410ff61f20015ad",
+                WebFontCache.hash("abc".getBytes(UTF_8)));
+
+        byte[] data = "font data".getBytes(UTF_8);
+        String hash = WebFontCache.hash(data);
+        File file = WebFontCache.store(hash, data);
+        assertEquals(hash + ".font", file.getName());
+        assertArrayEquals(data, Files.readAllBytes(file.toPath()));
+        assertEquals(file, WebFontCache.store(hash, data));
+
+        // a stored file of different content is replaced
+        Files.write(file.toPath(), "fake data".getBytes(UTF_8));
+        assertEquals(file, WebFontCache.store(hash, data));
+        assertArrayEquals(data, Files.readAllBytes(file.toPath()));
+    }
+
+    @Test
+    public void failedFetchesAreNotCached() throws Exception {
+        AtomicInteger requests = new AtomicInteger();
+        NaiveUserAgent uac = new NaiveUserAgent() {
+            @Override
+            public byte[] getBinaryResource(String uri) {
+                requests.incrementAndGet();
+                return null;
+            }
+        };
+        String uri = "http://localhost/missing.ttf";
+
+        assertNull(WebFontCache.load(uri, uac).get(10, TimeUnit.SECONDS));
+        assertNull(WebFontCache.getLoaded(uri));
+        assertNull(WebFontCache.load(uri, uac).get(10, TimeUnit.SECONDS));
+        assertEquals(2, requests.get());
+    }
+
+    @Test
+    public void undecodableFontsAreNotFetchedAgain() throws Exception {
+        AtomicInteger requests = new AtomicInteger();
+        NaiveUserAgent uac = new NaiveUserAgent() {
+            @Override
+            public byte[] getBinaryResource(String uri) {
+                requests.incrementAndGet();
+                return "not a font".getBytes(UTF_8);
+            }
+        };
+        String uri = "http://localhost/broken.woff";
+
+        assertNull(WebFontCache.load(uri, uac).get(10, TimeUnit.SECONDS));
+        assertNull(WebFontCache.getLoaded(uri));
+        assertNull(WebFontCache.load(uri, uac).get(10, TimeUnit.SECONDS));
+        assertEquals(1, requests.get());
+    }
+}
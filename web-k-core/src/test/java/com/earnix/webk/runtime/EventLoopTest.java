@@ -0,0 +1,84 @@
+package com.earnix.webk.runtime;
+
+import org.junit.After;
+import org.junit.Test;
+
+import javax.swing.SwingUtilities;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+
+public class EventLoopTest {
+
+    private final AtomicLong time = new AtomicLong();
+    private final AtomicInteger renderingUpdates = new AtomicInteger();
+    private final EventLoop loop = new EventLoop(renderingUpdates::incrementAndGet, time::get);
+
+    @After
+    public void tearDown() throws Exception {
+        SwingUtilities.invokeAndWait(loop::clear);
+    }
+
+    private void advance(long millis) {
+        time.addAndGet(TimeUnit.MILLISECONDS.toNanos(millis));
+    }
+
+    @Test
+    public void dueIntervalsShareSingleRenderingUpdate() throws Exception {
+        SwingUtilities.invokeAndWait(() -> {
+            AtomicInteger calls = new AtomicInteger();
+            for (int i = 0; i < 10; i++) {
+                loop.setTimer(calls::incrementAndGet, 16, true);
+            }
+
+            advance(16);
+            loop.runTurn();
+            assertEquals(10, calls.get());
+            assertEquals(1, renderingUpdates.get());
+
+            advance(16);
+            loop.runTurn();
+            assertEquals(20, calls.get());
+            assertEquals(2, renderingUpdates.get());
+        });
+    }
+
+    @Test
+    public void clearedTimerIsNotRun() throws Exception {
+        SwingUtilities.invokeAndWait(() -> {
+            AtomicInteger calls = new AtomicInteger();
+            int first = loop.setTimer(calls::incrementAndGet, 10, false);
+            int second = loop.setTimer(calls::incrementAndGet, 10, false);
+            assertNotEquals(first, second);
+
+            loop.clearTimer(first);
+            advance(10);
+            loop.runTurn();
+            assertEquals(1, calls.get());
+
+            // handles are not reused
+            assertNotEquals(first, loop.setTimer(() -> { }, 10, false));
+        });
+    }
+
+    @Test
+    public void microtasksRunAfterEachTask() throws Exception {
+        SwingUtilities.invokeAndWait(() -> {
+            List<String> log = new ArrayList<>();
+            loop.setTimer(() -> {
+                log.add("timer1");
+                loop.queueMicrotask(() -> log.add("microtask"));
+            }, 0, false);
+            loop.setTimer(() -> log.add("timer2"), 0, false);
+
+            loop.runTurn();
+            assertEquals(Arrays.asList("timer1", "microtask", "timer2"), log);
+        });
+    }
+}
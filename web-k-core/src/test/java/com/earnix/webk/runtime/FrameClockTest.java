@@ -0,0 +1,43 @@
+package com.earnix.webk.runtime;
+
+import com.earnix.webk.runtime.dom.impl.Jsoup;
+import com.earnix.webk.simple.XHTMLPanel;
+import org.junit.Test;
+
+import javax.swing.SwingUtilities;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.assertEquals;
+
+public class FrameClockTest {
+
+    @Test
+    public void callbacksRunOncePerFrame() throws Exception {
+        SwingUtilities.invokeAndWait(() -> {
+            XHTMLPanel panel = new XHTMLPanel();
+            panel.setDocument(Jsoup.parse("<html></html>"));
+            AtomicLong time = new AtomicLong();
+            FrameClock clock = new FrameClock(panel, new EventLoop(() -> { }, time::get), time::get);
+
+            List<Double> times = new ArrayList<>();
+            clock.request(times::add);
+            int cancelled = clock.request(times::add);
+            clock.cancel(cancelled);
+
+            time.addAndGet(TimeUnit.MILLISECONDS.toNanos(16));
+            clock.runFrame();
+            // requested during the frame, so runs by the next one
+            clock.request(t -> clock.request(times::add));
+            clock.runFrame();
+            clock.clear();
+
+            assertEquals(Arrays.asList(16d), times);
+            assertEquals(2, clock.getFrameCount());
+            assertEquals(2, clock.getLastFrame().getFrame());
+        });
+    }
+}
@@ -0,0 +1,45 @@
+package com.earnix.webk.runtime;
+
+import com.earnix.webk.runtime.dom.impl.Jsoup;
+import com.earnix.webk.simple.XHTMLPanel;
+import lombok.val;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class ScriptContextTest {
+
+    @Test
+    public void windowMembersAreBoundToGlobals() {
+        val panel = new XHTMLPanel();
+        panel.setDocument(Jsoup.parse("<html><body><p id='p'>A</p></body></html>"));
+        ScriptContext sc = panel.getScriptContext();
+
+        Assert.assertEquals("function", sc.eval("typeof setTimeout"));
+        Assert.assertEquals(true, sc.eval("document === window.document"));
+        Assert.assertEquals("A", sc.eval("document.getElementById('p').textContent"));
+    }
+
+    @Test
+    public void declaredHandlerIsPropagatedToWindow() {
+        val panel = new XHTMLPanel();
+        panel.setDocument(Jsoup.parse("<html></html>"));
+        ScriptContext sc = panel.getScriptContext();
+
+        sc.eval("function onclick() { return 1; }");
+        Assert.assertNotNull(sc.getWindow().onclick().get());
+    }
+
+    @Test
+    public void globalsArePutPerDocument() {
+        val first = new XHTMLPanel();
+        first.setDocument(Jsoup.parse("<html></html>"));
+        val second = new XHTMLPanel();
+        second.setDocument(Jsoup.parse("<html></html>"));
+
+        first.getScriptContext().put("value", "first");
+        second.getScriptContext().put("value", "second");
+
+        Assert.assertEquals("first", first.getScriptContext().eval("value"));
+        Assert.assertEquals("second", second.getScriptContext().eval("value"));
+    }
+}
@@ -0,0 +1,31 @@
+package com.earnix.webk.runtime;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import javax.script.ScriptContext;
+
+public class ScriptEnginePoolTest {
+
+    @Test
+    public void compiledScriptIsCachedByUrlAndSource() throws Exception {
+        ScriptEnginePool pool = ScriptEnginePool.getInstance();
+
+        Assert.assertSame(pool.compile("a.js", "var x = 1;"), pool.compile("a.js", "var x = 1;"));
+        Assert.assertNotSame(pool.compile("a.js", "var x = 1;"), pool.compile("a.js", "var x = 2;"));
+    }
+
+    @Test
+    public void contextsHaveSeparateGlobals() throws Exception {
+        ScriptEnginePool pool = ScriptEnginePool.getInstance();
+        ScriptContext first = pool.acquireContext();
+        ScriptContext second = pool.acquireContext();
+
+        pool.compile("b.js", "var y = 1;").eval(first);
+
+        Assert.assertEquals("number", pool.getEngine().eval("typeof y", first));
+        Assert.assertEquals("undefined", pool.getEngine().eval("typeof y", second));
+        // polyfills are already evaluated
+        Assert.assertEquals("function", pool.getEngine().eval("typeof Symbol", second));
+    }
+}
@@ -2,9 +2,14 @@ package com.earnix.webk.runtime.cssom.impl;
 
 import com.earnix.webk.runtime.cssom.CSSStyleDeclaration;
 import com.earnix.webk.runtime.dom.impl.ElementImpl;
+import com.earnix.webk.runtime.dom.impl.Jsoup;
+import com.earnix.webk.runtime.html.impl.DocumentImpl;
+import com.earnix.webk.simple.XHTMLPanel;
 import org.junit.Assert;
 import org.junit.Test;
 
+import javax.swing.SwingUtilities;
+
 public class CSSStyleDeclarationImplTest
 {
 	@Test public void readElementStyle()
@@ -40,7 +45,7 @@ public class CSSStyleDeclarationImplTest
 
 		// read style from HTML element
 		String htmlElementStyle = model.attr("style");
-		Assert.assertEquals(" \n" + " background-color: #f00; \n" + " display: none; \n" + " font-size: 22px;",
+		Assert.assertEquals("background-color: #f00; display: none; font-size: 22px;",
 				htmlElementStyle);
 	}
 
@@ -55,4 +60,53 @@ public class CSSStyleDeclarationImplTest
 		String display = cssStyle.getPropertyValue("display");
 		Assert.assertEquals("none", display);
 	}
-}
\ No newline at end of file
+
+	@Test public void changesAreWrittenBackOnce() throws Exception
+	{
+		SwingUtilities.invokeAndWait(() -> {
+			XHTMLPanel panel = new XHTMLPanel();
+			DocumentImpl doc = Jsoup.parse("<html><body><div id='box' style='color: red'></div></body></html>");
+			panel.setDocument(doc);
+			ElementImpl box = doc.getElementById("box");
+			long version = doc.getMutationJournal().getVersion();
+
+			CSSStyleDeclaration style = box.style();
+			Assert.assertSame(style, box.style());
+			style.setProperty("left", "1px", null);
+			style.setProperty("top", "2px", null);
+			Assert.assertEquals("2px", box.style().getPropertyValue("top"));
+			Assert.assertEquals(version, doc.getMutationJournal().getVersion());
+
+			doc.flushInlineStyles();
+			Assert.assertEquals(version + 1, doc.getMutationJournal().getVersion());
+			Assert.assertEquals("color: red; left: 1px; top: 2px;", box.attr("style"));
+
+			// direct attribute changes are parsed again
+			box.attr("style", "width: 5px");
+			Assert.assertEquals("", style.getPropertyValue("color"));
+			Assert.assertEquals("5px", style.getPropertyValue("width"));
+		});
+	}
+
+	@Test public void attributeReadsSeePendingChanges()
+	{
+		DocumentImpl doc = Jsoup.parse("<html><body><div id='box'></div></body></html>");
+		ElementImpl box = doc.getElementById("box");
+		box.style().setProperty("marginTop", "3px", null);
+		Assert.assertEquals("margin-top: 3px;", box.attr("style"));
+	}
+
+	@Test public void attributeReadsOfElementWithoutAttributesSeePendingChanges() throws Exception
+	{
+		SwingUtilities.invokeAndWait(() -> {
+			XHTMLPanel panel = new XHTMLPanel();
+			DocumentImpl doc = Jsoup.parse("<html><body><div></div></body></html>");
+			panel.setDocument(doc);
+			ElementImpl div = doc.selectFirst("div");
+
+			div.style().setProperty("color", "red", null);
+			Assert.assertTrue(div.hasAttr("style"));
+			Assert.assertEquals("color: red;", div.attr("style"));
+		});
+	}
+}
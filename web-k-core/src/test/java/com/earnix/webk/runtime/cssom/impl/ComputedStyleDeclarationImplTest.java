@@ -0,0 +1,39 @@
+package com.earnix.webk.runtime.cssom.impl;
+
+import com.earnix.webk.runtime.dom.impl.ElementImpl;
+import com.earnix.webk.runtime.dom.impl.Jsoup;
+import com.earnix.webk.runtime.html.impl.DocumentImpl;
+import com.earnix.webk.simple.XHTMLPanel;
+import org.junit.Test;
+
+import javax.swing.SwingUtilities;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class ComputedStyleDeclarationImplTest {
+
+    @Test
+    public void propertiesAreResolvedFromCalculatedStyle() throws Exception {
+        SwingUtilities.invokeAndWait(() -> {
+            XHTMLPanel panel = new XHTMLPanel();
+            DocumentImpl doc = Jsoup.parse("<html><body style='font-style: italic'><div id='box'></div></body></html>");
+            panel.setDocument(doc);
+            ElementImpl box = doc.getElementById("box");
+            ComputedStyleDeclarationImpl style = new ComputedStyleDeclarationImpl(box, panel.getScriptContext());
+
+            assertEquals("block", style.getPropertyValue("display"));
+            // inherited
+            assertEquals("italic", style.getPropertyValue("fontStyle"));
+            // shorthands and unknown properties
+            assertEquals("", style.getPropertyValue("margin"));
+            assertEquals("", style.getPropertyValue("no-such-property"));
+            assertTrue(style.length() > 0);
+            assertEquals("", style.item(style.length()));
+
+            // view is live
+            box.attr("style", "display: none");
+            assertEquals("none", style.getPropertyValue("display"));
+        });
+    }
+}
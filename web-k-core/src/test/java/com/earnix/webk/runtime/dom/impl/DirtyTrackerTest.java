@@ -0,0 +1,83 @@
+package com.earnix.webk.runtime.dom.impl;
+
+import com.earnix.webk.runtime.html.impl.DocumentImpl;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class DirtyTrackerTest {
+
+    private DocumentImpl doc;
+    private DirtyTracker tracker;
+
+    @Before
+    public void setUp() {
+        doc = Jsoup.parse("<html><head><style>p {}</style></head><body><div id=d><p id=p>One</p></div></body></html>");
+        tracker = doc.getDirtyTracker();
+        tracker.clear();
+    }
+
+    @Test
+    public void attributeChangeMarksRestyleRoot() {
+        ElementImpl p = doc.getElementById("p");
+        p.attr("class", "x");
+
+        assertTrue(tracker.isDirty());
+        assertFalse(tracker.isResetRequired());
+        assertEquals(1, tracker.getRestyleRoots().size());
+        assertTrue(tracker.getRestyleRoots().contains(p));
+        assertTrue(tracker.getRebuildRoots().isEmpty());
+    }
+
+    @Test
+    public void attributeRemovalMarksRestyleRoot() {
+        ElementImpl p = doc.getElementById("p");
+        p.removeAttr("id");
+
+        assertTrue(tracker.getRestyleRoots().contains(p));
+    }
+
+    @Test
+    public void childrenChangeMarksRebuildRoot() {
+        ElementImpl div = doc.getElementById("d");
+        div.appendElement("span");
+
+        assertTrue(tracker.getRebuildRoots().contains(div));
+        assertFalse(tracker.isResetRequired());
+    }
+
+    @Test
+    public void textChangeMarksParentRebuildRoot() {
+        ElementImpl p = doc.getElementById("p");
+        p.textNodes().get(0).text("Two");
+
+        assertTrue(tracker.getRebuildRoots().contains(p));
+    }
+
+    @Test
+    public void stylesheetChangeRequiresReset() {
+        doc.select("style").first().textNodes().get(0).text("p { color: red }");
+
+        assertTrue(tracker.isResetRequired());
+    }
+
+    @Test
+    public void detachedElementIsNotTracked() {
+        ElementImpl detached = new ElementImpl("div");
+        detached.attr("class", "x");
+        detached.appendElement("span");
+
+        assertFalse(tracker.isDirty());
+    }
+
+    @Test
+    public void clearForgetsChanges() {
+        doc.getElementById("p").attr("class", "x");
+        tracker.clear();
+
+        assertFalse(tracker.isDirty());
+    }
+}
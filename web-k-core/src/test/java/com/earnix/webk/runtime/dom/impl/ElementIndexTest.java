@@ -0,0 +1,79 @@
+package com.earnix.webk.runtime.dom.impl;
+
+import com.earnix.webk.runtime.html.impl.DocumentImpl;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class ElementIndexTest {
+
+    @Test
+    public void indexFollowsMutations() {
+        DocumentImpl doc = Jsoup.parse("<html><body><p id=a class='x Y'>One</p><div><p id=b>Two</p></div></body></html>");
+        ElementImpl a = doc.getElementById("a");
+        ElementImpl b = doc.getElementById("b");
+        assertEquals(2, doc.getElementsByTag("P").size());
+        assertEquals(1, doc.getElementsByClass("y").size());
+
+        // attribute changes are applied in place, keeping document order
+        b.attr("class", "x");
+        assertEquals("b", doc.getElementsByClass("x").get(1).getId());
+        a.attr("id", "c");
+        assertNull(doc.getElementById("a"));
+        assertSame(a, doc.getElementById("c"));
+        b.attr("id", "c");
+        assertSame(a, doc.getElementById("c"));
+        a.removeAttribute("id");
+        assertSame(b, doc.getElementById("c"));
+
+        // child list changes rebuild the index
+        b.remove();
+        assertNull(doc.getElementById("c"));
+        assertEquals(1, doc.getElementsByClass("x").size());
+        doc.selectFirst("body").prependElement("p").attr("id", "d");
+        assertEquals("d", doc.getElementsByTag("p").get(0).getId());
+        assertEquals(1, doc.getElementsByClassName("Y x").length());
+    }
+
+    @Test
+    public void addedAndRemovedSubtreesAreIndexedIncrementally() {
+        DocumentImpl doc = Jsoup.parse("<html><body><div id=list></div><p id=last class=x></p></body></html>");
+        ElementImpl list = doc.getElementById("list");
+        for (int i = 0; i < 10; i++) {
+            ElementImpl item = doc.createElement("p");
+            item.attr("id", "p" + i);
+            item.appendElement("span").addClass("x");
+            list.appendChild(item);
+            assertSame(item, doc.getElementById("p" + i));
+        }
+        assertTrue(doc.getElementIndex().isValid());
+        assertEquals(11, doc.getElementsByTag("p").size());
+        assertEquals("last", doc.getElementsByTag("p").get(10).getId());
+        assertEquals(11, doc.getElementsByClass("x").size());
+
+        ElementImpl first = doc.getElementById("p0");
+        first.remove();
+        assertNull(doc.getElementById("p0"));
+        assertEquals(10, doc.getElementsByClass("x").size());
+        list.prependChild(first);
+        assertSame(first, doc.getElementsByTag("p").get(0));
+        doc.getElementById("p1").replaceWith(doc.createElement("p").attr("id", "q"));
+        assertNull(doc.getElementById("p1"));
+        assertEquals("q", doc.getElementsByTag("p").get(1).getId());
+        assertTrue(doc.getElementIndex().isValid());
+    }
+
+    @Test
+    public void querySelectorExcludesScopeElement() {
+        DocumentImpl doc = Jsoup.parse("<html><body><div id=outer><div id=inner><span></span></div></div></body></html>");
+        ElementImpl outer = doc.getElementById("outer");
+
+        assertSame(outer, doc.querySelector("div"));
+        assertSame(doc.getElementById("inner"), outer.querySelector("div"));
+        assertEquals(1, ((NodeListImpl) outer.querySelectorAll("div")).length());
+        assertNull(outer.querySelector("p"));
+    }
+}
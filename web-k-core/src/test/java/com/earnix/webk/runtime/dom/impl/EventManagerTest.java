@@ -0,0 +1,51 @@
+package com.earnix.webk.runtime.dom.impl;
+
+import com.earnix.webk.runtime.ScriptContext;
+import com.earnix.webk.runtime.dom.EventInit;
+import com.earnix.webk.runtime.dom.EventListener;
+import com.earnix.webk.simple.XHTMLPanel;
+import org.junit.Test;
+
+import javax.swing.SwingUtilities;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class EventManagerTest {
+
+    @Test
+    public void listenersAreCountedPerType() throws Exception {
+        SwingUtilities.invokeAndWait(() -> {
+            XHTMLPanel panel = new XHTMLPanel();
+            panel.setDocument(Jsoup.parse("<html><body><p id=p></p></body></html>"));
+            ScriptContext context = panel.getScriptContext();
+            EventManager manager = context.getEventManager();
+            ElementImpl p = panel.getDocument().getElementById("p");
+
+            int[] count = new int[1];
+            EventListener listener = e -> count[0]++;
+            EventInit init = new EventInit();
+            init.bubbles = true;
+
+            manager.publishEvent(p, new EventImpl("custom", init));
+            assertFalse(manager.hasListeners("custom"));
+
+            p.parent().addEventListener("custom", listener, null);
+            assertTrue(manager.hasListeners("custom"));
+            manager.publishEvent(p, new EventImpl("custom", init));
+            assertEquals(1, count[0]);
+
+            p.parent().removeEventListener("custom", listener, null);
+            assertFalse(manager.hasListeners("custom"));
+
+            // reading a handler attribute doesn't register a listener
+            context.eval("var p = document.getElementById('p'); p.onclick;");
+            assertFalse(manager.hasListeners("click"));
+            context.eval("p.onclick = function () {};");
+            assertTrue(manager.hasListeners("click"));
+            context.eval("p.onclick = null;");
+            assertFalse(manager.hasListeners("click"));
+        });
+    }
+}
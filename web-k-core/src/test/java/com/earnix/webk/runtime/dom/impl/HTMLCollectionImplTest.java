@@ -0,0 +1,55 @@
+package com.earnix.webk.runtime.dom.impl;
+
+import com.earnix.webk.runtime.dom.HTMLCollection;
+import com.earnix.webk.runtime.html.impl.DocumentImpl;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+public class HTMLCollectionImplTest {
+
+    @Test
+    public void collectionIsLive() {
+        DocumentImpl doc = Jsoup.parse("<html><body><table><tr><td>1</td></tr></table></body></html>");
+        HTMLCollection cells = doc.getElementsByTagName("td");
+        ElementImpl row = doc.selectFirst("tr");
+        assertEquals(1, cells.length());
+
+        ElementImpl cell = row.appendElement("td");
+        assertEquals(2, cells.length());
+        assertSame(cell, cells.item(1));
+        assertNull(cells.item(2));
+
+        cell.remove();
+        assertEquals(1, cells.length());
+    }
+
+    @Test
+    public void resultIsReusedUntilDocumentChanges() {
+        DocumentImpl doc = Jsoup.parse("<html><body><p class=x>1</p></body></html>");
+        HTMLCollectionImpl collection = (HTMLCollectionImpl) doc.getElementsByClassName("x");
+        assertSame(collection.getModel(), collection.getModel());
+
+        doc.selectFirst("body").appendElement("p").attr("class", "x");
+        assertEquals(2, collection.length());
+    }
+
+    @Test
+    public void repeatedCallsShareCollection() {
+        DocumentImpl doc = Jsoup.parse("<html><body><table><tr><td>1</td><td>2</td></tr></table></body></html>");
+        HTMLCollectionImpl cells = (HTMLCollectionImpl) doc.getElementsByTagName("td");
+        assertSame(cells, doc.getElementsByTagName("td"));
+        assertSame(cells.getModel(), ((HTMLCollectionImpl) doc.getElementsByTagName("td")).getModel());
+        assertNotSame(cells, doc.getElementsByTagName("tr"));
+
+        ElementImpl row = doc.selectFirst("tr");
+        assertSame(row.getElementsByTagName("td"), row.getElementsByTagName("td"));
+        assertSame(row.children(), row.children());
+
+        row.appendElement("td");
+        assertEquals(3, doc.getElementsByTagName("td").length());
+    }
+}
@@ -0,0 +1,50 @@
+package com.earnix.webk.runtime.dom.impl;
+
+import com.earnix.webk.runtime.html.impl.DocumentImpl;
+import org.junit.Test;
+
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class MutationJournalTest {
+
+    @Test
+    public void documentChangesIncrementVersion() {
+        DocumentImpl doc = Jsoup.parse("<html><body><p id=p>One</p></body></html>");
+        MutationJournal journal = doc.getMutationJournal();
+        long version = journal.getVersion();
+        assertFalse(journal.isChangedSince(version));
+
+        ElementImpl p = doc.getElementById("p");
+        p.attr("class", "x");
+        p.textNodes().get(0).text("Two");
+        p.appendElement("span");
+
+        assertTrue(journal.isChangedSince(version));
+        List<MutationJournal.Entry> changes = journal.getChangesSince(version);
+        assertEquals(3, changes.size());
+        assertSame(p, changes.get(0).getTarget());
+        assertEquals(MutationJournal.Type.ATTRIBUTES, changes.get(0).getType());
+        assertEquals("class", changes.get(0).getAttributeName());
+        assertEquals(MutationJournal.Type.CHARACTER_DATA, changes.get(1).getType());
+        assertEquals(MutationJournal.Type.CHILD_LIST, changes.get(2).getType());
+    }
+
+    @Test
+    public void evictedChangesAreReportedAsIncomplete() {
+        MutationJournal journal = new MutationJournal(2);
+        ElementImpl e = new ElementImpl("div");
+        journal.record(e, MutationJournal.Type.CHILD_LIST, null);
+        journal.record(e, MutationJournal.Type.CHILD_LIST, null);
+        journal.record(e, MutationJournal.Type.CHILD_LIST, null);
+
+        assertNull(journal.getChangesSince(0));
+        assertEquals(2, journal.getChangesSince(1).size());
+        assertTrue(journal.getChangesSince(3).isEmpty());
+    }
+}
@@ -0,0 +1,105 @@
+package com.earnix.webk.runtime.fetch.impl;
+
+import com.earnix.webk.runtime.ScriptContext;
+import com.earnix.webk.runtime.dom.impl.Jsoup;
+import com.earnix.webk.runtime.dom.impl.integration.TestServer;
+import com.earnix.webk.runtime.dom.impl.integration.servlets.BaseServlet;
+import com.earnix.webk.runtime.dom.impl.integration.servlets.SlowRider;
+import com.earnix.webk.simple.XHTMLPanel;
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import javax.swing.SwingUtilities;
+import java.io.IOException;
+
+public class FetchImplTest {
+
+    @BeforeClass
+    public static void setUp() {
+        TestServer.start();
+    }
+
+    @AfterClass
+    public static void tearDown() {
+        TestServer.stop();
+    }
+
+    @Test
+    public void responseIsResolvedOnEventLoop() throws Exception {
+        ScriptContext context = start("var result, status;" +
+                "fetch('" + FetchServlet.Url + "').then(function (r) {" +
+                "    status = r.status + ' ' + r.ok + ' ' + r.headers.has('Content-Type');" +
+                "    return r.json();" +
+                "}).then(function (json) { result = status + ' ' + json.key; });");
+
+        Assert.assertEquals("200 true true value", await(context, "result"));
+    }
+
+    @Test
+    public void bodyIsStreamed() throws Exception {
+        ScriptContext context = start("var result = 0;" +
+                "fetch('" + FetchServlet.Url + "').then(function (r) {" +
+                "    var reader = r.body.getReader();" +
+                "    function pump(chunk) {" +
+                "        if (chunk.done) { return result; }" +
+                "        result += chunk.value.length;" +
+                "        return reader.read().then(pump);" +
+                "    }" +
+                "    return reader.read().then(pump);" +
+                "}).then(function (length) { result = 'read ' + length; });");
+
+        Assert.assertEquals("read " + FetchServlet.BODY.length(), await(context, "result"));
+    }
+
+    @Test
+    public void abortRejectsResponse() throws Exception {
+        ScriptContext context = start("var result;" +
+                "var controller = new AbortController();" +
+                "fetch('" + SlowRider.Url + "', { signal: controller.signal }).catch(function (e) { result = e.name; });" +
+                "controller.abort();");
+
+        Assert.assertEquals("AbortError", await(context, "result"));
+    }
+
+    private static ScriptContext start(String script) throws Exception {
+        ScriptContext[] result = new ScriptContext[1];
+        SwingUtilities.invokeAndWait(() -> {
+            XHTMLPanel panel = new XHTMLPanel();
+            panel.setDocument(Jsoup.parse("<html></html>"));
+            result[0] = panel.getScriptContext();
+            result[0].eval(script);
+        });
+        return result[0];
+    }
+
+    /**
+     * @return value of global variable once defined, waiting for event loop to settle promises
+     */
+    private static Object await(ScriptContext context, String variable) throws Exception {
+        Object[] result = new Object[1];
+        long deadline = System.currentTimeMillis() + 10000;
+        while (System.currentTimeMillis() < deadline) {
+            SwingUtilities.invokeAndWait(() -> result[0] = context.eval("typeof " + variable + " === 'string' ? " + variable + " : undefined"));
+            if (result[0] instanceof String) {
+                return result[0];
+            }
+            Thread.sleep(10);
+        }
+        return null;
+    }
+
+    public static class FetchServlet extends BaseServlet {
+        public static final String Url = TestServer.map(FetchServlet.class);
+        static final String BODY = "{\"key\": \"value\"}";
+
+        @Override
+        protected void doGet(HttpServletRequest req, HttpServletResponse res) throws IOException {
+            res.setContentType("application/json; charset=UTF-8");
+            res.getWriter().write(BODY);
+        }
+    }
+}
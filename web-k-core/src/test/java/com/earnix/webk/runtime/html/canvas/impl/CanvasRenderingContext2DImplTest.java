@@ -0,0 +1,39 @@
+package com.earnix.webk.runtime.html.canvas.impl;
+
+import com.earnix.webk.runtime.dom.impl.Jsoup;
+import com.earnix.webk.runtime.html.impl.DocumentImpl;
+import org.junit.Test;
+
+import javax.swing.SwingUtilities;
+import java.awt.Rectangle;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+
+public class CanvasRenderingContext2DImplTest {
+
+    @Test
+    public void drawingAccumulatesDamageWithoutMutatingDocument() throws Exception {
+        SwingUtilities.invokeAndWait(() -> {
+            DocumentImpl doc = Jsoup.parse("<html><body><canvas width=100 height=50></canvas></body></html>");
+            HTMLCanvasElementImpl canvas = (HTMLCanvasElementImpl) doc.selectFirst("canvas");
+            CanvasRenderingContext2DImpl context = canvas.getContextImpl();
+            long version = doc.getMutationJournal().getVersion();
+
+            // path construction alone draws nothing
+            context.beginPath();
+            context.moveTo(0, 0);
+            context.lineTo(10, 10);
+            assertNull(context.getDamage());
+
+            context.fillRect(10, 10, 20, 20);
+            assertEquals(new Rectangle(9, 9, 22, 22), context.getDamage());
+            context.fillRect(60, 30, 100, 100);
+            assertEquals(new Rectangle(9, 9, 91, 41), context.getDamage());
+
+            assertEquals(version, doc.getMutationJournal().getVersion());
+            assertFalse(canvas.hasAttr("__update"));
+        });
+    }
+}
@@ -0,0 +1,60 @@
+package com.earnix.webk.runtime.streams.impl;
+
+import com.earnix.webk.runtime.dom.impl.Jsoup;
+import com.earnix.webk.runtime.streams.ReadableStreamDefaultReader;
+import com.earnix.webk.simple.XHTMLPanel;
+import org.junit.Assert;
+import org.junit.Test;
+
+import javax.swing.SwingUtilities;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class ReadableStreamImplTest {
+
+    @Test
+    public void sourceIsParkedUntilQueuedChunksAreRead() throws Exception {
+        SwingUtilities.invokeAndWait(() -> {
+            XHTMLPanel panel = new XHTMLPanel();
+            panel.setDocument(Jsoup.parse("<html></html>"));
+            AtomicInteger resumed = new AtomicInteger();
+            AtomicInteger cancelled = new AtomicInteger();
+            ReadableStreamImpl stream = new ReadableStreamImpl(panel.getScriptContext(), 10, cancelled::incrementAndGet);
+
+            stream.enqueue(new byte[6]);
+            Assert.assertFalse(stream.parkSource(resumed::incrementAndGet));
+            stream.enqueue(new byte[6]);
+            Assert.assertTrue(stream.parkSource(resumed::incrementAndGet));
+
+            ReadableStreamDefaultReader reader = stream.getReader();
+            reader.read();
+            Assert.assertEquals(1, resumed.get());
+            Assert.assertFalse(stream.parkSource(resumed::incrementAndGet));
+
+            // cancel resumes the parked source, so it finds out the stream is not read anymore
+            stream.enqueue(new byte[6]);
+            Assert.assertTrue(stream.parkSource(resumed::incrementAndGet));
+            reader.cancel(null);
+            Assert.assertEquals(2, resumed.get());
+            Assert.assertEquals(1, cancelled.get());
+            Assert.assertFalse(stream.parkSource(resumed::incrementAndGet));
+        });
+    }
+
+    @Test
+    public void sourceIsNotParkedWhileReadWhole() throws Exception {
+        SwingUtilities.invokeAndWait(() -> {
+            XHTMLPanel panel = new XHTMLPanel();
+            panel.setDocument(Jsoup.parse("<html></html>"));
+            AtomicInteger resumed = new AtomicInteger();
+            ReadableStreamImpl stream = new ReadableStreamImpl(panel.getScriptContext(), 10, () -> {
+            });
+
+            stream.enqueue(new byte[12]);
+            Assert.assertTrue(stream.parkSource(resumed::incrementAndGet));
+            stream.readAll(buffer -> null);
+            Assert.assertEquals(1, resumed.get());
+            stream.enqueue(new byte[12]);
+            Assert.assertFalse(stream.parkSource(resumed::incrementAndGet));
+        });
+    }
+}
@@ -3,6 +3,7 @@ package com.earnix.webk.runtime.web_idl.impl;
 import com.earnix.webk.runtime.dom.impl.Jsoup;
 import com.earnix.webk.runtime.ScriptContext;
 import com.earnix.webk.runtime.web_idl.Iterable;
+import com.earnix.webk.runtime.web_idl.ReadonlyAttribute;
 import com.earnix.webk.simple.XHTMLPanel;
 import lombok.val;
 import org.junit.Assert;
@@ -23,6 +24,33 @@ public class WebIDLAdapterTest {
         }
     }
     
+    public interface TestOperations {
+        String join(String a);
+
+        String join(String a, String b);
+
+        @ReadonlyAttribute
+        int count();
+    }
+
+    public class TestOperationsImpl implements TestOperations {
+
+        @Override
+        public String join(String a) {
+            return a;
+        }
+
+        @Override
+        public String join(String a, String b) {
+            return a + b;
+        }
+
+        @Override
+        public int count() {
+            return 2;
+        }
+    }
+    
     
     @Test
     public void testIterable(){
@@ -33,7 +61,7 @@ public class WebIDLAdapterTest {
         
         val impl = new TestIterableImpl();
         WebIDLAdapter adapter = WebIDLAdapter.obtain(sc, impl);
-        sc.getEngine().put("testObject", adapter);
+        sc.put("testObject", adapter);
         
         Object returned = sc.eval("testObject[0]");
         Object returnedLength = sc.eval("testObject.length");
@@ -41,4 +69,27 @@ public class WebIDLAdapterTest {
         Assert.assertEquals("A", returned);
         Assert.assertEquals(1, returnedLength);
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testOperations() {
+        val doc = Jsoup.parse("<html></html>");
+        val panel = new XHTMLPanel();
+        panel.setDocument(doc);
+        ScriptContext sc = panel.getScriptContext();
+
+        sc.put("testObject", WebIDLAdapter.obtain(sc, new TestOperationsImpl()));
+
+        Assert.assertEquals("a", sc.eval("testObject.join('a')"));
+        Assert.assertEquals("ab", sc.eval("testObject.join('a', 'b')"));
+        Assert.assertEquals(2, sc.eval("testObject.count"));
+        Assert.assertEquals(true, sc.eval("testObject.join === testObject.join"));
+    }
+
+    @Test
+    public void testDescriptorIsSharedByClass() {
+        Assert.assertSame(
+                BindingDescriptor.of(TestOperationsImpl.class),
+                BindingDescriptor.of(new TestOperationsImpl().getClass())
+        );
+    }
+}
@@ -0,0 +1,67 @@
+package com.earnix.webk.runtime.xhr.impl;
+
+import com.earnix.webk.runtime.dom.impl.Jsoup;
+import com.earnix.webk.runtime.dom.impl.integration.TestServer;
+import com.earnix.webk.runtime.dom.impl.integration.servlets.BaseServlet;
+import com.earnix.webk.runtime.xhr.XMLHttpRequest;
+import com.earnix.webk.runtime.xhr.XMLHttpRequestResponseType;
+import com.earnix.webk.simple.XHTMLPanel;
+import jdk.nashorn.api.scripting.ScriptObjectMirror;
+import lombok.val;
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+public class XMLHttpRequestImplTest {
+
+    @BeforeClass
+    public static void setUp() {
+        TestServer.start();
+    }
+
+    @AfterClass
+    public static void tearDown() {
+        TestServer.stop();
+    }
+
+    @Test
+    public void responseIsDecodedByResponseType() {
+        val panel = new XHTMLPanel();
+        panel.setDocument(Jsoup.parse("<html></html>"));
+
+        val json = send(new XMLHttpRequestImpl(panel.getScriptContext()), XMLHttpRequestResponseType.json);
+        Assert.assertEquals("value", ((ScriptObjectMirror) json.response()).getMember("key"));
+        Assert.assertSame(json.response(), json.response());
+
+        val text = send(new XMLHttpRequestImpl(panel.getScriptContext()), XMLHttpRequestResponseType.text);
+        Assert.assertEquals(JsonServlet.BODY, text.responseText());
+
+        val buffer = send(new XMLHttpRequestImpl(panel.getScriptContext()), XMLHttpRequestResponseType.arraybuffer);
+        Assert.assertEquals(JsonServlet.BODY.length(),
+                ((Number) ((ScriptObjectMirror) buffer.response()).getMember("byteLength")).intValue());
+    }
+
+    private static XMLHttpRequestImpl send(XMLHttpRequestImpl request, XMLHttpRequestResponseType type) {
+        request.open("GET", JsonServlet.Url, false, null, null);
+        request.responseType().set(type);
+        request.send(null);
+        Assert.assertEquals(XMLHttpRequest.DONE, request.readyState());
+        return request;
+    }
+
+    public static class JsonServlet extends BaseServlet {
+        public static final String Url = TestServer.map(JsonServlet.class);
+        static final String BODY = "{\"key\": \"value\"}";
+
+        @Override
+        protected void doGet(HttpServletRequest req, HttpServletResponse res) throws IOException {
+            res.setContentType("application/json; charset=UTF-8");
+            res.getWriter().write(BODY);
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.earnix.webk.swing;
+
+import com.earnix.webk.runtime.dom.impl.ElementImpl;
+import com.earnix.webk.runtime.dom.impl.Jsoup;
+import com.earnix.webk.runtime.html.impl.DocumentImpl;
+import com.earnix.webk.simple.XHTMLPanel;
+import org.junit.Test;
+
+import javax.swing.SwingUtilities;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+public class ForcedLayoutTest {
+
+    @Test
+    public void geometryReadsLayOutChangedDocument() throws Exception {
+        SwingUtilities.invokeAndWait(() -> {
+            XHTMLPanel panel = new XHTMLPanel();
+            panel.setSize(400, 300);
+            DocumentImpl doc = Jsoup.parse("<html><head><style>body { margin: 0 }</style></head><body>" +
+                    "<div id='outer' style='position: relative; padding: 5px'>" +
+                    "<div id='box' style='width: 100px; height: 20px; margin-left: 10px'></div></div></body></html>");
+            panel.setDocument(doc);
+            ElementImpl box = doc.getElementById("box");
+
+            assertEquals(100, box.offsetWidth());
+            assertEquals(20, box.offsetHeight());
+            assertSame(doc.getElementById("outer"), box.offsetParent());
+            assertEquals(15, box.offsetLeft());
+            assertEquals(5, box.offsetTop());
+            assertEquals(1, panel.getForcedLayoutCount());
+
+            // reads of unchanged document don't lay it out again
+            assertEquals(100, box.clientWidth());
+            assertEquals(1, panel.getForcedLayoutCount());
+
+            // write followed by read before painting
+            box.attr("style", "width: 200px; height: 20px");
+            assertEquals(200, box.offsetWidth());
+            assertEquals(5, box.offsetLeft());
+            assertEquals(2, panel.getForcedLayoutCount());
+            assertEquals(1, panel.getThrashingLayoutCount());
+        });
+    }
+}
@@ -0,0 +1,53 @@
+package com.earnix.webk.swing;
+
+import com.earnix.webk.runtime.dom.impl.ElementImpl;
+import com.earnix.webk.runtime.dom.impl.Jsoup;
+import com.earnix.webk.runtime.html.impl.DocumentImpl;
+import com.earnix.webk.simple.XHTMLPanel;
+import org.junit.Test;
+
+import javax.swing.SwingUtilities;
+
+import static org.junit.Assert.assertEquals;
+
+public class IncrementalRestyleTest {
+
+    private static final String STYLE = "<style>body { margin: 0 } .item { height: 20px }"
+            + ".collapsed .item { display: none } .active + .item { height: 30px }</style>";
+
+    @Test
+    public void descendantBoxTypeChangeRebuildsBoxes() throws Exception {
+        SwingUtilities.invokeAndWait(() -> {
+            XHTMLPanel panel = new XHTMLPanel();
+            panel.setSize(400, 300);
+            DocumentImpl doc = Jsoup.parse("<html><head>" + STYLE + "</head><body><div id='list'>"
+                    + "<div class='item'></div><div class='item'></div></div></body></html>");
+            panel.setDocument(doc);
+            ElementImpl list = doc.getElementById("list");
+            assertEquals(40, list.offsetHeight());
+
+            list.attr("class", "collapsed");
+            assertEquals(0, list.offsetHeight());
+
+            list.attr("class", "");
+            assertEquals(40, list.offsetHeight());
+        });
+    }
+
+    @Test
+    public void followingSiblingsAreRestyled() throws Exception {
+        SwingUtilities.invokeAndWait(() -> {
+            XHTMLPanel panel = new XHTMLPanel();
+            panel.setSize(400, 300);
+            DocumentImpl doc = Jsoup.parse("<html><head>" + STYLE + "</head><body><div id='list'>"
+                    + "<div id='first' class='item'></div><div id='second' class='item'></div></div></body></html>");
+            panel.setDocument(doc);
+            ElementImpl second = doc.getElementById("second");
+            assertEquals(20, second.offsetHeight());
+
+            doc.getElementById("first").attr("class", "item active");
+            assertEquals(30, second.offsetHeight());
+            assertEquals(50, doc.getElementById("list").offsetHeight());
+        });
+    }
+}
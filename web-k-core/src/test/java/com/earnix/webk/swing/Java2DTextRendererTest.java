@@ -0,0 +1,42 @@
+package com.earnix.webk.swing;
+
+import org.junit.Test;
+
+import java.awt.Font;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+public class Java2DTextRendererTest {
+
+    @Test
+    public void cachedWidthEqualsStringBounds() {
+        Graphics2D graphics = new BufferedImage(1, 1, BufferedImage.TYPE_INT_ARGB).createGraphics();
+        graphics.setRenderingHint(RenderingHints.KEY_FRACTIONALMETRICS, RenderingHints.VALUE_FRACTIONALMETRICS_OFF);
+        Java2DTextRenderer renderer = new Java2DTextRenderer();
+        Java2DFontContext context = new Java2DFontContext(graphics);
+
+        for (Font font : new Font[]{new Font(Font.SERIF, Font.PLAIN, 13), new Font(Font.SANS_SERIF, Font.BOLD, 17)}) {
+            AWTFSFont fsFont = new AWTFSFont(font);
+            for (String text : new String[]{"", "Wide", "Lorem ipsum dolor sit amet", "\u0132ssel fa\u00e7ade", "\u05e9\u05dc\u05d5\u05dd"}) {
+                int expected = (int) Math.ceil(graphics.getFontMetrics(font).getStringBounds(text, graphics).getWidth());
+                // second call is served by the cache
+                assertEquals(text, expected, renderer.getWidth(context, fsFont, text));
+                assertEquals(text, expected, renderer.getWidth(context, fsFont, text));
+            }
+        }
+    }
+
+    @Test
+    public void metricsAreSharedPerFont() {
+        Graphics2D graphics = new BufferedImage(1, 1, BufferedImage.TYPE_INT_ARGB).createGraphics();
+        Java2DTextRenderer renderer = new Java2DTextRenderer();
+        Java2DFontContext context = new Java2DFontContext(graphics);
+        AWTFSFont fsFont = new AWTFSFont(new Font(Font.SERIF, Font.PLAIN, 13));
+
+        assertSame(renderer.getFSFontMetrics(context, fsFont, ""), renderer.getFSFontMetrics(context, fsFont, " "));
+    }
+}